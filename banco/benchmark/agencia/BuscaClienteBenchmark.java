@@ -0,0 +1,92 @@
+package agencia;
+
+import cliente.Cliente;
+import cliente.ClientePessoa;
+import org.objenesis.Objenesis;
+import org.objenesis.ObjenesisStd;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Compara a busca de cliente por varredura do conjunto (comportamento antigo de Agencia.buscarCliente)
+ * com a busca pelo índice identificação → cliente, para 10 mil, 100 mil e 1 milhão de clientes.
+ * <p>
+ * Os clientes são instanciados sem passar pelo construtor (que é interativo), apenas com o CPF preenchido.
+ */
+public class BuscaClienteBenchmark {
+	private static final int[] QUANTIDADES = {10_000, 100_000, 1_000_000};
+	private static final int BUSCAS = 200;
+	private static final int RODADAS = 3;
+
+	public static void main(String[] args) throws Exception {
+		for (int quantidade : QUANTIDADES) {
+			Set<Cliente> clientes = gerarClientes(quantidade);
+			Map<String, Cliente> indice = new HashMap<>();
+			for (Cliente cliente : clientes) {
+				indice.put(cliente.getIdentificacao(), cliente);
+			}
+			String[] chaves = sortearChaves(quantidade);
+
+			double varredura = medir(() -> {
+				for (String chave : chaves) {
+					buscarPorVarredura(clientes, chave);
+				}
+			});
+			double porIndice = medir(() -> {
+				for (String chave : chaves) {
+					indice.get(chave);
+				}
+			});
+			System.out.printf("%,d clientes: varredura %.1f us/busca | indice %.3f us/busca%n",
+					quantidade, varredura / BUSCAS / 1_000, porIndice / BUSCAS / 1_000);
+		}
+	}
+
+	private static Cliente buscarPorVarredura(Set<Cliente> clientes, String chave) {
+		for (Cliente cliente : clientes) {
+			if (Objects.equals(cliente.getIdentificacao(), chave)) {
+				return cliente;
+			}
+		}
+		return null;
+	}
+
+	private static double medir(Runnable tarefa) {
+		tarefa.run();
+		long melhor = Long.MAX_VALUE;
+		for (int i = 0; i < RODADAS; i++) {
+			long inicio = System.nanoTime();
+			tarefa.run();
+			melhor = Math.min(melhor, System.nanoTime() - inicio);
+		}
+		return melhor;
+	}
+
+	private static Set<Cliente> gerarClientes(int quantidade) throws ReflectiveOperationException {
+		Objenesis objenesis = new ObjenesisStd();
+		Field cpf = ClientePessoa.class.getDeclaredField("CPF");
+		cpf.setAccessible(true);
+		Set<Cliente> clientes = new HashSet<>();
+		for (int i = 0; i < quantidade; i++) {
+			ClientePessoa cliente = objenesis.newInstance(ClientePessoa.class);
+			cpf.set(cliente, String.format("%011d", i));
+			clientes.add(cliente);
+		}
+		return clientes;
+	}
+
+	private static String[] sortearChaves(int quantidade) {
+		Random random = new Random(42);
+		String[] chaves = new String[BUSCAS];
+		for (int i = 0; i < BUSCAS; i++) {
+			chaves[i] = String.format("%011d", random.nextInt(quantidade));
+		}
+		return chaves;
+	}
+}
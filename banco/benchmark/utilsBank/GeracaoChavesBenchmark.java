@@ -0,0 +1,75 @@
+package utilsBank;
+
+import java.security.SecureRandom;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Mede chaves aleatórias por segundo: a montagem antiga (String += com um Random novo por chave) contra o
+ * {@link GeradorChaves} com ThreadLocalRandom e com SecureRandom, e a conferência de repetição só no HashSet
+ * contra o {@link FiltroBloom} na frente do HashSet.
+ */
+public class GeracaoChavesBenchmark {
+    private static final int CHAVES = 200_000;
+    private static final int RODADAS = 5;
+
+    public static void main(String[] args) {
+        int tamanho = GeracaoAleatoria.TAMANHO_CHAVE_ALEATORIA;
+        GeradorChaves threadLocal = new GeradorChaves();
+        GeradorChaves seguro = new GeradorChaves(new SecureRandom());
+
+        imprimir("String += / new Random", medir(() -> gerarAntigo(tamanho)));
+        imprimir("GeradorChaves ThreadLocalRandom", medir(() -> threadLocal.gerar(tamanho)));
+        imprimir("GeradorChaves SecureRandom", medir(() -> seguro.gerar(tamanho)));
+
+        Set<String> existentes = new HashSet<>();
+        for (int i = 0; i < CHAVES; i++) {
+            existentes.add(threadLocal.gerar(tamanho));
+        }
+        FiltroBloom filtro = FiltroBloom.de(existentes, CHAVES, 0.01);
+        imprimir("conferencia so HashSet", medir(() -> {
+            String chave = threadLocal.gerar(tamanho);
+            return existentes.contains(chave) ? null : chave;
+        }));
+        imprimir("conferencia FiltroBloom + HashSet", medir(() -> {
+            String chave = threadLocal.gerar(tamanho);
+            return filtro.talvezContenha(chave) && existentes.contains(chave) ? null : chave;
+        }));
+    }
+
+    private static String gerarAntigo(int tamanho) {
+        String caracteres = GeradorChaves.CARACTERES;
+        Random aleatorio = new Random();
+        String chave = "";
+        for (int i = 0; i < tamanho; i++) {
+            chave += caracteres.charAt(aleatorio.nextInt(caracteres.length()));
+        }
+        return chave;
+    }
+
+    private static double medir(Supplier<String> gerador) {
+        long soma = 0;
+        long melhor = Long.MAX_VALUE;
+        for (int rodada = 0; rodada <= RODADAS; rodada++) {
+            long inicio = System.nanoTime();
+            for (int i = 0; i < CHAVES; i++) {
+                String chave = gerador.get();
+                soma += chave == null ? 0 : chave.charAt(0);
+            }
+            long tempo = System.nanoTime() - inicio;
+            if (rodada > 0) {
+                melhor = Math.min(melhor, tempo);
+            }
+        }
+        if (soma == 42) {
+            System.out.print("");
+        }
+        return CHAVES / (melhor / 1e9);
+    }
+
+    private static void imprimir(String nome, double chavesPorSegundo) {
+        System.out.printf("%-36s %,14.0f chaves/s%n", nome, chavesPorSegundo);
+    }
+}
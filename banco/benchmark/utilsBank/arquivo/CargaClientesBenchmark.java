@@ -0,0 +1,148 @@
+package utilsBank.arquivo;
+
+import cartao.Cartao;
+import cartao.CartaoStandard;
+import cliente.Cliente;
+import cliente.ClientePessoa;
+import cliente.Endereco;
+import conta.Conta;
+import conta.ContaStandard;
+import conta.GerenciamentoCartao;
+import conta.Historico;
+import transacao.ChavePix;
+import transacao.Transacao;
+import transacao.exceptions.TransacaoException;
+import utilsBank.databank.Data;
+import utilsBank.databank.DataBank;
+
+import java.io.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compara o tempo de carga de clientes.dat no formato antigo (HashSet serializado com ObjectOutputStream)
+ * com o formato binário de {@link SnapshotClientes}, para bases de 1 mil, 10 mil e 50 mil clientes.
+ * <p>
+ * Os clientes são montados pelos construtores de restauração (a criação normal é interativa); cada cliente
+ * tem um cartão e algumas transferências para outros clientes, como no uso real.
+ * <p>
+ * A serialização Java percorre o grafo cliente → transação → cliente recursivamente, por isso o benchmark roda
+ * numa thread com pilha grande; sem ela o formato antigo estoura a pilha já com mil clientes.
+ */
+public class CargaClientesBenchmark {
+	private static final int[] QUANTIDADES = {1_000, 10_000, 50_000};
+	private static final int TRANSACOES_POR_CLIENTE = 5;
+	private static final int RODADAS = 3;
+	private static final long TAMANHO_PILHA = 1L << 30;
+
+	public static void main(String[] args) throws Exception {
+		Thread execucao = new Thread(null, () -> {
+			try {
+				comparar();
+			} catch (Exception ex) {
+				throw new RuntimeException(ex);
+			}
+		}, "benchmark", TAMANHO_PILHA);
+		execucao.start();
+		execucao.join();
+	}
+
+	private static void comparar() throws Exception {
+		Path diretorio = Files.createTempDirectory("carga-clientes");
+		for (int quantidade : QUANTIDADES) {
+			HashSet<Cliente> clientes = gerarClientes(quantidade);
+			File legado = diretorio.resolve("clientes-" + quantidade + ".legado").toFile();
+			File binario = diretorio.resolve("clientes-" + quantidade + ".dat").toFile();
+			SnapshotClientes.salvar(binario.getPath(), clientes);
+			String resultadoLegado;
+			try {
+				salvarLegado(legado, clientes);
+				double tempoLegado = medir(() -> lerLegado(legado));
+				resultadoLegado = String.format("%.1f ms (%,d KB)", tempoLegado / 1_000_000, legado.length() / 1024);
+			} catch (StackOverflowError ex) {
+				resultadoLegado = "estouro de pilha na serializacao Java";
+			}
+			double tempoBinario = medir(() -> SnapshotClientes.carregar(binario.getPath()));
+			System.out.printf("%,d clientes: formato antigo %s | formato binario %.1f ms (%,d KB)%n",
+					quantidade, resultadoLegado, tempoBinario / 1_000_000, binario.length() / 1024);
+		}
+	}
+
+	private interface Carga {
+		void executar() throws Exception;
+	}
+
+	private static double medir(Carga carga) throws Exception {
+		carga.executar();
+		long melhor = Long.MAX_VALUE;
+		for (int i = 0; i < RODADAS; i++) {
+			long inicio = System.nanoTime();
+			carga.executar();
+			melhor = Math.min(melhor, System.nanoTime() - inicio);
+		}
+		return melhor;
+	}
+
+	private static void salvarLegado(File arquivo, HashSet<Cliente> clientes) throws IOException {
+		try (ObjectOutputStream saida = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(arquivo)))) {
+			saida.writeObject(clientes);
+		}
+	}
+
+	private static Object lerLegado(File arquivo) throws IOException, ClassNotFoundException {
+		try (ObjectInputStream entrada = new ObjectInputStream(new BufferedInputStream(new FileInputStream(arquivo)))) {
+			return entrada.readObject();
+		}
+	}
+
+	private static HashSet<Cliente> gerarClientes(int quantidade) throws ReflectiveOperationException, TransacaoException {
+		Constructor<Historico> novoHistorico = Historico.class.getDeclaredConstructor();
+		Constructor<GerenciamentoCartao> novaCarteira = GerenciamentoCartao.class.getDeclaredConstructor();
+		Constructor<CartaoStandard> novoCartao = CartaoStandard.class.getDeclaredConstructor(
+				String.class, String.class, String.class, Data.class, String.class);
+		Constructor<ContaStandard> novaConta = ContaStandard.class.getDeclaredConstructor(
+				String.class, Historico.class, List.class, GerenciamentoCartao.class, ChavePix.class);
+		Constructor<ClientePessoa> novoCliente = ClientePessoa.class.getDeclaredConstructor(
+				String.class, String.class, String.class, Integer.class, Endereco.class, String.class, String.class,
+				Conta.class, Double.class);
+		Method adicionarCartao = GerenciamentoCartao.class.getDeclaredMethod("adicionarNovoCartao", Cartao.class);
+		for (Constructor<?> construtor : new Constructor<?>[]{novoHistorico, novaCarteira, novoCartao, novaConta, novoCliente}) {
+			construtor.setAccessible(true);
+		}
+		adicionarCartao.setAccessible(true);
+
+		List<Cliente> lista = new ArrayList<>(quantidade);
+		for (int i = 0; i < quantidade; i++) {
+			String cpf = String.format("%011d", i);
+			GerenciamentoCartao carteira = novaCarteira.newInstance();
+			adicionarCartao.invoke(carteira, novoCartao.newInstance("0001" + cpf, "123", "Cartao", DataBank.criarData(DataBank.SEM_HORA), "Cliente " + i));
+			Conta conta = novaConta.newInstance(String.valueOf(i), novoHistorico.newInstance(), List.of(), carteira,
+					new ChavePix("21" + cpf, null, "cliente" + i + "@bic.com", cpf));
+			conta.aumentarSaldo(1000.0);
+			lista.add(novoCliente.newInstance("Cliente " + i, "cliente" + i + "@bic.com", "21" + cpf, 30,
+					new Endereco("24000000", i, null), cpf, "senha", conta, 5000.0));
+		}
+
+		Random random = new Random(42);
+		long nossoNumero = 0;
+		for (Cliente origem : lista) {
+			for (int i = 0; i < TRANSACOES_POR_CLIENTE; i++) {
+				Cliente destino = lista.get(random.nextInt(quantidade));
+				String numero = String.format("%025d", nossoNumero++);
+				Transacao transacao = Transacao.restaurar(10.0, numero, "0001" + numero, destino, origem, DataBank.criarData(DataBank.COM_HORA));
+				origem.getConta().addTransacaoRealizada(transacao);
+				origem.getConta().addHistorico(transacao);
+				if (destino != origem) {
+					destino.getConta().addHistorico(transacao);
+				}
+			}
+		}
+		return new HashSet<>(lista);
+	}
+}
@@ -9,6 +9,7 @@ public class Main {
 			agencia.abrindoAgencia();
 			VerificadorDiario verificadorDiario = VerificadorDiario.getInstance();
 			MenuUsuario.iniciar();
+			agencia.getRegistroOperacoes().sincronizar();
 			verificadorDiario.end();
 			System.out.println("Obrigada por acessar ao nosso Internet Banking!");
 		} catch (Exception ex) {
@@ -5,43 +5,139 @@ import agencia.exceptions.InsercaoException;
 import cliente.Cliente;
 import cliente.ClienteEmpresa;
 import conta.Conta;
-import conta.Rentavel;
+import conta.GerenciamentoCartao;
 import funcionalidades.exceptions.EmprestimoException;
 import interfaceUsuario.dados.DadosChavesPix;
 import transacao.Boleto;
+import transacao.ChavePix;
 import transacao.Transacao;
+import utilsBank.Dinheiro;
 import utilsBank.GeracaoAleatoria;
 import utilsBank.GerenciadorBanco;
 import utilsBank.VerificadorDiario;
+import utilsBank.arquivo.ArquivoTransacoes;
 import utilsBank.arquivo.GerenciadorArquivo;
+import utilsBank.arquivo.RegistroOperacoes;
 import utilsBank.arquivo.exception.EscritaArquivoException;
+import utilsBank.databank.Data;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Objects;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+/**
+ * Agência única do banco, compartilhada pelas sessões dos usuários e pela thread do {@link VerificadorDiario}.
+ * <p>
+ * Contrato de concorrência:
+ * <ul>
+ *     <li>Clientes, boletos e os índices consultados sem trava (identificação, chaves Pix, nosso número) são
+ *     coleções concorrentes: cada inclusão ou remoção concluída é vista pelas consultas seguintes de qualquer thread.</li>
+ *     <li>Os índices atualizados em mais de um passo (débito automático, gerentes, boletos por conta e por vencimento)
+ *     só são lidos e alterados dentro de métodos {@code synchronized} da agência.</li>
+ *     <li>O processamento diário roda com {@link #TRAVA_PROCESSAMENTO_DIARIO}, que {@link #persistir(boolean)}
+ *     também segura: tudo que o lote alterou acontece antes do snapshot seguinte, e nenhum snapshot grava o lote
+ *     pela metade. As operações dos usuários não usam essa trava e seguem atendidas durante o lote.</li>
+ *     <li>Transferências, pagamentos de boleto e acréscimos ao registro de operações seguram
+ *     {@link #TRAVA_SNAPSHOT} compartilhada; {@link #persistir(boolean)} a segura exclusiva enquanto grava o snapshot
+ *     e esvazia o registro. Ela é tomada antes dos monitores das contas e do registro de operações.</li>
+ *     <li>O que é de uma conta (saldo, histórico, transações realizadas e agendadas, notificações) só é lido e
+ *     alterado com o monitor da conta, o mesmo que as transferências seguram. É isso que deixa o lote, que
+ *     percorre e arquiva os históricos uma conta de cada vez, rodar junto com as transferências dos usuários.</li>
+ * </ul>
+ */
 public class Agencia {
 	public static final String ID_AGENCIA = "6721";
 	public static final String CODIGO_MOEDA = "9";
-	private static Agencia instance;
+	public static final Object TRAVA_PROCESSAMENTO_DIARIO = new Object();
+	/**
+	 * Sem ela, o snapshot poderia gravar uma transferência com a origem já debitada e o destino ainda sem o crédito,
+	 * e o esvaziamento do registro apagaria um registro acrescentado depois da gravação do snapshot.
+	 */
+	public static final ReentrantReadWriteLock TRAVA_SNAPSHOT = new ReentrantReadWriteLock();
+	private static volatile Agencia instance;
+	private static Agencia emInicializacao;
 	private final Set<Cliente> clientes;
+	private final Map<String, Cliente> clientesPorIdentificacao;
+	private final Map<String, Cliente> clientesPorTelefone;
+	private final Map<String, Cliente> clientesPorEmail;
+	private final Map<String, Cliente> clientesPorIdentificacaoPix;
+	private final Map<String, Cliente> clientesPorChaveAleatoria;
+	private final Map<GerenciamentoCartao, Cliente> clientesPorCarteira;
+	private final Map<Integer, Set<Cliente>> debitosAutomaticosPorDia;
+	private final Map<String, Set<ClienteEmpresa>> empresasPorGerente;
 	private final Set<Boleto> boletos;
-	private final ArrayList<Transacao> transacoesAgendadas;
-	private Double rendaAgencia;
+	private final Map<String, Boleto> boletosPorNossoNumero;
+	private final Map<String, Set<Boleto>> boletosPorConta;
+	private final TreeMap<Long, Set<Boleto>> boletosPorVencimento;
+	private final AgendaTransacoes transacoesAgendadas;
+	private final RegistroOperacoes registroOperacoes;
+	private ArquivoTransacoes arquivoTransacoes;
+	private RendimentoContas rendimentoContas;
+	private long rendaAgenciaCentavos;
+	private volatile boolean snapshotPendente;
 
 	private Agencia() {
-		this.rendaAgencia = Math.pow(2, 31);
-		this.clientes = GerenciadorBanco.inicializarClientes();
-		this.boletos = GerenciadorBanco.inicializarBoletos();
-		this.transacoesAgendadas = GerenciadorBanco.inicializarTransacoes();
+		this.rendaAgenciaCentavos = (1L << 31) * Dinheiro.CENTAVOS_POR_REAL;
+		this.clientes = ConcurrentHashMap.newKeySet();
+		this.clientes.addAll(GerenciadorBanco.inicializarClientes());
+		this.clientesPorIdentificacao = new ConcurrentHashMap<>();
+		this.clientesPorTelefone = new ConcurrentHashMap<>();
+		this.clientesPorEmail = new ConcurrentHashMap<>();
+		this.clientesPorIdentificacaoPix = new ConcurrentHashMap<>();
+		this.clientesPorChaveAleatoria = new ConcurrentHashMap<>();
+		this.clientesPorCarteira = new IdentityHashMap<>();
+		this.debitosAutomaticosPorDia = new HashMap<>();
+		this.empresasPorGerente = new HashMap<>();
+		indexarClientes();
+		this.boletos = ConcurrentHashMap.newKeySet();
+		this.boletos.addAll(GerenciadorBanco.inicializarBoletos());
+		this.boletosPorNossoNumero = new ConcurrentHashMap<>();
+		this.boletosPorConta = new HashMap<>();
+		this.boletosPorVencimento = new TreeMap<>();
+		for (Boleto boleto : this.boletos) {
+			indexarBoleto(boleto);
+		}
+		this.transacoesAgendadas = new AgendaTransacoes(GerenciadorBanco.inicializarTransacoes());
+		this.registroOperacoes = new RegistroOperacoes(GerenciadorArquivo.PATH_OPERACOES);
+		this.rendimentoContas = new RendimentoContas(RendimentoContas.paralelismoPadrao());
 	}
 
+	/**
+	 * Cria a agência na primeira chamada, com trava dupla sobre o campo volátil. A agência só é publicada para
+	 * as outras threads depois de reaplicar o registro de operações; durante a reaplicação, as chamadas da própria
+	 * thread que está criando recebem a agência em inicialização.
+	 */
 	public static Agencia getInstance() {
-		if (instance == null) {
-			instance = new Agencia();
+		Agencia agencia = instance;
+		if (agencia != null) {
+			return agencia;
+		}
+		synchronized (Agencia.class) {
+			if (instance != null) {
+				return instance;
+			}
+			if (emInicializacao != null) {
+				return emInicializacao;
+			}
+			try {
+				emInicializacao = new Agencia();
+				emInicializacao.registroOperacoes.reaplicar(emInicializacao);
+				instance = emInicializacao;
+			} finally {
+				emInicializacao = null;
+			}
+			return instance;
 		}
-		return instance;
 	}
 
 	/**
@@ -52,12 +148,38 @@ public class Agencia {
 	 * @throws BuscaException caso o cliente não for encontrado
 	 */
 	public Cliente buscarCliente(String chave) throws BuscaException {
+		Cliente cliente = chave == null ? null : this.clientesPorIdentificacao.get(chave);
+		if (cliente == null) {
+			throw new BuscaException("Cliente nao encontrado");
+		}
+		return cliente;
+	}
+
+	/**
+	 * Reconstrói os índices de identificação, de chaves Pix, de débito automático e de gerentes a partir do conjunto de clientes carregado,
+	 * e reserva os ids de conta e as chaves aleatórias existentes na geração.
+	 */
+	private void indexarClientes() {
+		this.clientesPorIdentificacao.clear();
+		this.clientesPorTelefone.clear();
+		this.clientesPorEmail.clear();
+		this.clientesPorIdentificacaoPix.clear();
+		this.clientesPorChaveAleatoria.clear();
+		this.clientesPorCarteira.clear();
+		this.debitosAutomaticosPorDia.clear();
+		this.empresasPorGerente.clear();
+		List<String> idsContas = new ArrayList<>();
 		for (Cliente cliente : this.clientes) {
-			if (Objects.equals(cliente.getIdentificacao(), chave)) {
-				return cliente;
+			this.clientesPorIdentificacao.put(cliente.getIdentificacao(), cliente);
+			indexarChavesPix(cliente);
+			indexarDebitoAutomatico(cliente);
+			indexarGerentes(cliente);
+			if (cliente.getConta() != null) {
+				idsContas.add(cliente.getConta().getIdConta());
 			}
 		}
-		throw new BuscaException("Cliente nao encontrado");
+		GeracaoAleatoria.reservarIdsContas(idsContas);
+		GeracaoAleatoria.reservarChavesAleatorias(this.clientesPorChaveAleatoria.keySet());
 	}
 
 	/**
@@ -67,28 +189,116 @@ public class Agencia {
 	 * @throws BuscaException caso o cliente não for encontrado
 	 */
 	public Cliente buscarClientePorChavePix(String tipodeChave, String chave) throws BuscaException {
-		String chavePix = null;
-		for (Cliente cliente : this.clientes) {
-			Conta contaCliente = cliente.getConta();
-			switch (tipodeChave) {
-				case DadosChavesPix.TELEFONE:
-					chavePix = contaCliente.getChavesPix().getTelefone();
-					break;
-				case DadosChavesPix.EMAIL:
-					chavePix = contaCliente.getChavesPix().getEmail();
-					break;
-				case DadosChavesPix.IDENTIFICACAO:
-					chavePix = contaCliente.getChavesPix().getIdentificacao();
-					break;
-				case DadosChavesPix.CHAVE_ALEATORIA:
-					chavePix = contaCliente.getChavesPix().getChaveAleatoria();
-					break;
-			}
-			if (chave.equals(chavePix)) {
-				return cliente;
+		Map<String, Cliente> indice = indiceChavePix(tipodeChave);
+		Cliente cliente = (indice == null || chave == null) ? null : indice.get(chave);
+		if (cliente == null) {
+			throw new BuscaException("Cliente nao encontrado");
+		}
+		return cliente;
+	}
+
+	/**
+	 * Mantém os índices de chave Pix sincronizados quando uma chave é criada ou trocada.
+	 * A chave antiga deixa de resolver para o cliente assim que é substituída; uma chave nova que já
+	 * pertence a outro cliente é recusada e o índice fica como estava.
+	 *
+	 * @param tipodeChave   tipo da chave, declarado em DadosChavesPix
+	 * @param chaveAntiga   valor anterior da chave, ou null se ainda não existia
+	 * @param chaveNova     novo valor da chave, ou null se foi removida
+	 * @param identificacao CPF ou CNPJ do dono das chaves
+	 * @return {@code false} se a chave nova já é de outro cliente
+	 */
+	public boolean atualizarChavePix(String tipodeChave, String chaveAntiga, String chaveNova, String identificacao) {
+		Map<String, Cliente> indice = indiceChavePix(tipodeChave);
+		Cliente dono = (identificacao == null) ? null : this.clientesPorIdentificacao.get(identificacao);
+		if (indice == null || dono == null) {
+			return true;
+		}
+		if (chaveNova != null) {
+			Cliente atual = indice.putIfAbsent(chaveNova, dono);
+			if (atual != null && atual != dono) {
+				return false;
 			}
 		}
-		throw new BuscaException("Cliente nao encontrado");
+		if (chaveAntiga != null && !chaveAntiga.equals(chaveNova)) {
+			indice.remove(chaveAntiga, dono);
+		}
+		return true;
+	}
+
+	private Map<String, Cliente> indiceChavePix(String tipodeChave) {
+		if (tipodeChave == null) {
+			return null;
+		}
+		switch (tipodeChave) {
+			case DadosChavesPix.TELEFONE:
+				return this.clientesPorTelefone;
+			case DadosChavesPix.EMAIL:
+				return this.clientesPorEmail;
+			case DadosChavesPix.IDENTIFICACAO:
+				return this.clientesPorIdentificacaoPix;
+			case DadosChavesPix.CHAVE_ALEATORIA:
+				return this.clientesPorChaveAleatoria;
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * Indexa as chaves Pix do cliente. Uma chave que já resolve para outro cliente continua com o primeiro dono.
+	 */
+	private void indexarChavesPix(Cliente cliente) {
+		ChavePix chaves = cliente.getConta().getChavesPix();
+		if (chaves.getTelefone() != null) {
+			this.clientesPorTelefone.putIfAbsent(chaves.getTelefone(), cliente);
+		}
+		if (chaves.getEmail() != null) {
+			this.clientesPorEmail.putIfAbsent(chaves.getEmail(), cliente);
+		}
+		if (chaves.getIdentificacao() != null) {
+			this.clientesPorIdentificacaoPix.putIfAbsent(chaves.getIdentificacao(), cliente);
+		}
+		if (chaves.getChaveAleatoria() != null) {
+			this.clientesPorChaveAleatoria.putIfAbsent(chaves.getChaveAleatoria(), cliente);
+		}
+	}
+
+	private synchronized void indexarDebitoAutomatico(Cliente cliente) {
+		GerenciamentoCartao carteira = cliente.getConta().getCARTEIRA();
+		this.clientesPorCarteira.put(carteira, cliente);
+		if (carteira.isDebitoAutomatico()) {
+			this.debitosAutomaticosPorDia.computeIfAbsent(carteira.getDataDebitoAutomatico(), dia -> new HashSet<>()).add(cliente);
+		}
+	}
+
+	/**
+	 * Move o dono da carteira para o dia de débito automático atual, ou o retira do índice se o débito foi desativado.
+	 * Carteiras de clientes que ainda não foram adicionados à agência são ignoradas.
+	 *
+	 * @param carteira    carteira cujo débito automático foi alterado
+	 * @param diaAnterior dia em que o débito estava agendado, ou -1 se estava desativado
+	 */
+	public synchronized void atualizarDebitoAutomatico(GerenciamentoCartao carteira, int diaAnterior) {
+		Cliente cliente = this.clientesPorCarteira.get(carteira);
+		if (cliente == null) {
+			return;
+		}
+		Set<Cliente> doDia = this.debitosAutomaticosPorDia.get(diaAnterior);
+		if (doDia != null && doDia.remove(cliente) && doDia.isEmpty()) {
+			this.debitosAutomaticosPorDia.remove(diaAnterior);
+		}
+		if (carteira.isDebitoAutomatico()) {
+			this.debitosAutomaticosPorDia.computeIfAbsent(carteira.getDataDebitoAutomatico(), dia -> new HashSet<>()).add(cliente);
+		}
+	}
+
+	/**
+	 * @param dia dia do mês
+	 * @return cópia dos clientes com débito automático da fatura nesse dia
+	 */
+	public synchronized Set<Cliente> getClientesDebitoAutomatico(int dia) {
+		Set<Cliente> doDia = this.debitosAutomaticosPorDia.get(dia);
+		return doDia == null ? new HashSet<>() : new HashSet<>(doDia);
 	}
 
 	/**
@@ -98,14 +308,48 @@ public class Agencia {
 	 * @return clienteEmpresa ou null se não for encontrado o gerente
 	 */
 	public ClienteEmpresa buscarEmpresa(String cpf) {
-		for (Cliente cliente : this.clientes) {
-			if (cliente instanceof ClienteEmpresa clienteEmpresa) {
-				if (clienteEmpresa.verificarGerente(cpf)) {
-					return clienteEmpresa;
-				}
+		List<ClienteEmpresa> empresas = buscarEmpresas(cpf);
+		return empresas.isEmpty() ? null : empresas.get(0);
+	}
+
+	/**
+	 * Busca todas as empresas em que o cpf é gerente, ordenadas pelo CNPJ.
+	 *
+	 * @return lista vazia se o cpf não gerencia nenhuma empresa
+	 */
+	public synchronized List<ClienteEmpresa> buscarEmpresas(String cpf) {
+		Set<ClienteEmpresa> empresas = cpf == null ? null : this.empresasPorGerente.get(cpf);
+		List<ClienteEmpresa> encontradas = empresas == null ? new ArrayList<>() : new ArrayList<>(empresas);
+		encontradas.sort(Comparator.comparing(ClienteEmpresa::getIdentificacao));
+		return encontradas;
+	}
+
+	private synchronized void indexarGerentes(Cliente cliente) {
+		if (cliente instanceof ClienteEmpresa clienteEmpresa) {
+			for (String gerente : clienteEmpresa.getGerentes()) {
+				this.empresasPorGerente.computeIfAbsent(gerente, cpf -> new HashSet<>()).add(clienteEmpresa);
 			}
 		}
-		return null;
+	}
+
+	/**
+	 * Mantém o índice de gerentes sincronizado quando um gerente entra ou sai da empresa.
+	 * Empresas que ainda não foram adicionadas à agência são ignoradas.
+	 *
+	 * @param adicionado {@code true} se o gerente foi adicionado; {@code false} se foi removido
+	 */
+	public synchronized void atualizarGerente(ClienteEmpresa empresa, String cpf, boolean adicionado) {
+		if (empresa.getIdentificacao() == null || this.clientesPorIdentificacao.get(empresa.getIdentificacao()) != empresa) {
+			return;
+		}
+		if (adicionado) {
+			this.empresasPorGerente.computeIfAbsent(cpf, gerente -> new HashSet<>()).add(empresa);
+			return;
+		}
+		Set<ClienteEmpresa> empresas = this.empresasPorGerente.get(cpf);
+		if (empresas != null && empresas.remove(empresa) && empresas.isEmpty()) {
+			this.empresasPorGerente.remove(cpf);
+		}
 	}
 
 	/**
@@ -116,12 +360,11 @@ public class Agencia {
 	 * @throws BuscaException caso o boleto não for encontrado
 	 */
 	public Boleto buscarBoleto(String nossoNumero) throws BuscaException {
-		for (Boleto boleto : this.boletos) {
-			if (boleto.getNossoNumero().equals(nossoNumero)) {
-				return boleto;
-			}
+		Boleto boleto = nossoNumero == null ? null : this.boletosPorNossoNumero.get(nossoNumero);
+		if (boleto == null) {
+			throw new BuscaException("Boleto nao encontrado");
 		}
-		throw new BuscaException("Boleto nao encontrado");
+		return boleto;
 	}
 
 	/**
@@ -130,15 +373,9 @@ public class Agencia {
 	 * @param conta do cliente
 	 * @return HashSet<Boleto> dos boletos que fazem parte da conta do cliente
 	 */
-	public HashSet<Boleto> buscarBoletosConta(Conta conta) {
-		HashSet<Boleto> boletosConta = new HashSet<>();
-		for (Boleto boleto : this.boletos) {
-			if (boleto.getContaDestino().getIdConta().equals(conta.getIdConta())) {
-				boletosConta.add(boleto);
-			}
-		}
-
-		return boletosConta;
+	public synchronized HashSet<Boleto> buscarBoletosConta(Conta conta) {
+		Set<Boleto> boletosConta = this.boletosPorConta.get(conta.getIdConta());
+		return boletosConta == null ? new HashSet<>() : new HashSet<>(boletosConta);
 	}
 
 	/**
@@ -148,7 +385,32 @@ public class Agencia {
 	 */
 
 	public void addBoleto(Boleto boleto) {
-		this.boletos.add(boleto);
+		if (this.boletos.add(boleto)) {
+			indexarBoleto(boleto);
+		}
+	}
+
+	private synchronized void indexarBoleto(Boleto boleto) {
+		this.boletosPorNossoNumero.put(boleto.getNossoNumero(), boleto);
+		this.boletosPorConta.computeIfAbsent(boleto.getContaDestino().getIdConta(), id -> new HashSet<>()).add(boleto);
+		if (!boleto.isPago() && boleto.getDataVencimento() != null) {
+			this.boletosPorVencimento.computeIfAbsent(boleto.getDataVencimento().getDiaEpoch(), dia -> new HashSet<>()).add(boleto);
+		}
+	}
+
+	/**
+	 * Boletos não pagos com vencimento a partir de {@code inicio} e antes de {@code fim}, do vencimento mais antigo
+	 * para o mais recente. Só os dias do intervalo são visitados.
+	 */
+	public synchronized List<Boleto> buscarBoletosVencimentoEntre(Data inicio, Data fim) {
+		List<Boleto> encontrados = new ArrayList<>();
+		if (inicio.getDiaEpoch() >= fim.getDiaEpoch()) {
+			return encontrados;
+		}
+		for (Set<Boleto> doDia : this.boletosPorVencimento.subMap(inicio.getDiaEpoch(), fim.getDiaEpoch()).values()) {
+			encontrados.addAll(doDia);
+		}
+		return encontrados;
 	}
 
 	/**
@@ -157,7 +419,24 @@ public class Agencia {
 	 * @param boleto boleto a ser removido
 	 */
 	public void apagarBoleto(Boleto boleto) {
-		this.boletos.remove(boleto);
+		if (!this.boletos.remove(boleto)) {
+			return;
+		}
+		synchronized (this) {
+			this.boletosPorNossoNumero.remove(boleto.getNossoNumero(), boleto);
+			String idConta = boleto.getContaDestino().getIdConta();
+			Set<Boleto> boletosConta = this.boletosPorConta.get(idConta);
+			if (boletosConta != null && boletosConta.remove(boleto) && boletosConta.isEmpty()) {
+				this.boletosPorConta.remove(idConta);
+			}
+			if (boleto.getDataVencimento() != null) {
+				Long vencimento = boleto.getDataVencimento().getDiaEpoch();
+				Set<Boleto> doDia = this.boletosPorVencimento.get(vencimento);
+				if (doDia != null && doDia.remove(boleto) && doDia.isEmpty()) {
+					this.boletosPorVencimento.remove(vencimento);
+				}
+			}
+		}
 	}
 
 	/**
@@ -172,14 +451,23 @@ public class Agencia {
 	/**
 	 * Retorna as transações agendadas da agência
 	 *
-	 * @return {@link ArrayList<Transacao>}
+	 * @return cópia das transferências agendadas, em ordem de vencimento
 	 */
 	public ArrayList<Transacao> getTransacoes() {
-		return this.transacoesAgendadas;
+		return this.transacoesAgendadas.listar();
 	}
 
 	public void addTransacao(Transacao transacao) {
-		this.transacoesAgendadas.add(transacao);
+		this.transacoesAgendadas.adicionar(transacao);
+	}
+
+	/**
+	 * Retira as transferências agendadas que vencem até {@code dataAtual}, inclusive.
+	 *
+	 * @return transferências vencidas, da mais antiga para a mais recente
+	 */
+	public List<Transacao> retirarTransacoesVencidas(Data dataAtual) {
+		return this.transacoesAgendadas.retirarVencidas(dataAtual);
 	}
 
 	/**
@@ -188,9 +476,10 @@ public class Agencia {
 	 * @param valor do emprestimo
 	 * @throws EmprestimoException caso a renda da agência não tiver dinheiro para emprestar
 	 */
-	public void pegarEmprestimo(double valor) throws EmprestimoException {
-		if (this.rendaAgencia >= valor) {
-			this.rendaAgencia -= valor;
+	public synchronized void pegarEmprestimo(double valor) throws EmprestimoException {
+		long centavos = Dinheiro.paraCentavos(valor);
+		if (this.rendaAgenciaCentavos >= centavos) {
+			this.rendaAgenciaCentavos -= centavos;
 		} else {
 			throw new EmprestimoException();
 		}
@@ -202,41 +491,152 @@ public class Agencia {
 		}
 	}
 
-	public void renderContas() {
+	/**
+	 * Rende todas as contas, em paralelo conforme {@link #setParalelismoRendimento(int)}.
+	 *
+	 * @return quantidade de contas rendidas
+	 */
+	public int renderContas() {
+		return renderContas(1);
+	}
+
+	/**
+	 * Rende todas as contas por {@code dias} dias de uma vez, usado quando o banco ficou fora do ar.
+	 *
+	 * @return quantidade de contas rendidas
+	 */
+	public int renderContas(int dias) {
+		return this.rendimentoContas.render(this.clientes, dias);
+	}
+
+	/**
+	 * @param paralelismo quantidade de threads do rendimento; 1 rende as contas sequencialmente
+	 */
+	public void setParalelismoRendimento(int paralelismo) {
+		this.rendimentoContas = new RendimentoContas(paralelismo);
+	}
+
+	/**
+	 * Grava no arquivo de transações as transações efetivadas antes de {@code limite} e as retira dos históricos,
+	 * deixando em memória só a janela recente.
+	 * <p>
+	 * São arquivadas exatamente as transações que {@link Conta#retirarTransacoesAntesDe(Data)} retira, com o mesmo
+	 * critério, e só depois de gravadas elas saem da memória. Uma transação está no histórico da origem e no do destino,
+	 * mas é gravada uma vez. As emitidas antes do dia já arquivado ({@link ArquivoTransacoes#getArquivadoAte()}) não
+	 * são gravadas de novo: voltaram à memória porque o banco caiu antes do snapshot seguinte ao arquivamento.
+	 *
+	 * @return quantidade de transações arquivadas
+	 */
+	public int arquivarHistoricos(Data limite) throws EscritaArquivoException {
+		ArquivoTransacoes arquivo = getArquivoTransacoes();
+		Data arquivadoAte = arquivo.getArquivadoAte();
+		Set<Transacao> arquivar = new LinkedHashSet<>();
+		for (Cliente cliente : clientes) {
+			for (Transacao transacao : cliente.getConta().getHistorico().antesDe(limite)) {
+				if (naoArquivada(transacao, arquivadoAte)) {
+					arquivar.add(transacao);
+				}
+			}
+		}
+		arquivo.arquivar(arquivar, limite);
+		// Nenhuma operação cria transação com emissão tão antiga durante o lote; se criar, ela é arquivada aqui
+		Set<Transacao> restantes = new LinkedHashSet<>();
 		for (Cliente cliente : clientes) {
-			((Rentavel) cliente.getConta()).renderSaldo();
-			((Rentavel) cliente.getConta()).renderDinheiroGuardado();
+			for (Transacao transacao : cliente.getConta().retirarTransacoesAntesDe(limite)) {
+				if (!arquivar.contains(transacao) && naoArquivada(transacao, arquivadoAte)) {
+					restantes.add(transacao);
+				}
+			}
 		}
+		arquivo.arquivar(restantes, limite);
+		return arquivar.size() + restantes.size();
+	}
+
+	private static boolean naoArquivada(Transacao transacao, Data arquivadoAte) {
+		return arquivadoAte == null || !transacao.getDataEmissaoTransacao().antesDe(arquivadoAte);
+	}
+
+	/**
+	 * @return o arquivo de transações antigas, aberto na primeira consulta.
+	 */
+	public synchronized ArquivoTransacoes getArquivoTransacoes() throws EscritaArquivoException {
+		if (this.arquivoTransacoes == null) {
+			try {
+				this.arquivoTransacoes = new ArquivoTransacoes(GerenciadorArquivo.PATH_TRANSACOES_ARQUIVADAS);
+			} catch (IOException ex) {
+				throw new EscritaArquivoException("Arquivo de transacoes nao pode ser aberto");
+			}
+		}
+		return this.arquivoTransacoes;
 	}
 
 	public Set<Cliente> getClientes() {
 		return this.clientes;
 	}
 
+	/**
+	 * Adiciona o cliente à agência. A persistência fica a cargo de quem termina o cadastro,
+	 * registrando o cliente em {@link RegistroOperacoes#registrarCliente(Cliente)}.
+	 */
 	public void addCliente(Cliente cliente) throws InsercaoException, EscritaArquivoException {
-		try {
-			this.buscarCliente(cliente.getIdentificacao());
-		} catch (BuscaException e) {
-			if (clientes.add(cliente)) {
+		if (cliente.getIdentificacao() == null) {
+			throw new InsercaoException("Ocorreu um erro ao criar o cliente");
+		}
+		// O índice de identificação decide qual de dois cadastros simultâneos do mesmo CPF/CNPJ entra
+		if (this.clientesPorIdentificacao.putIfAbsent(cliente.getIdentificacao(), cliente) != null) {
+			return;
+		}
+		if (!this.clientes.add(cliente)) {
+			this.clientesPorIdentificacao.remove(cliente.getIdentificacao(), cliente);
+			throw new InsercaoException("Ocorreu um erro ao criar o cliente");
+		}
+		indexarChavesPix(cliente);
+		indexarDebitoAutomatico(cliente);
+		indexarGerentes(cliente);
+	}
+
+	public synchronized void addSaldo(double valor) {
+		this.rendaAgenciaCentavos += Dinheiro.paraCentavos(valor);
+	}
+
+	public RegistroOperacoes getRegistroOperacoes() {
+		return this.registroOperacoes;
+	}
+
+	/**
+	 * Persiste o resultado de uma ação do usuário. Quando a ação já foi gravada no registro de operações,
+	 * basta confirmá-lo; as demais ações, ou um registro que cresceu demais, exigem um snapshot completo.
+	 *
+	 * @param snapshotCompleto {@code true} se a ação alterou dados que não passam pelo registro de operações
+	 * @throws EscritaArquivoException caso não seja possível gravar
+	 */
+	public void persistir(boolean snapshotCompleto) throws EscritaArquivoException {
+		synchronized (TRAVA_PROCESSAMENTO_DIARIO) {
+			if (snapshotCompleto || this.snapshotPendente || this.registroOperacoes.precisaSnapshot()) {
+				this.snapshotPendente = false;
+				TRAVA_SNAPSHOT.writeLock().lock();
 				try {
-					GerenciadorArquivo.salvarClientes((HashSet<Cliente>) this.clientes);
-				} catch (EscritaArquivoException ex) {
-					clientes.remove(cliente);
-					throw ex;
+					atualizarArquivos();
+					this.registroOperacoes.truncar();
+				} finally {
+					TRAVA_SNAPSHOT.writeLock().unlock();
 				}
 			} else {
-				throw new InsercaoException("Ocorreu um erro ao criar o cliente");
+				this.registroOperacoes.confirmar();
 			}
 		}
 	}
 
-	public void addSaldo(double valor) {
-		this.rendaAgencia += valor;
+	/**
+	 * Pede que a próxima persistência salve um snapshot completo, por exemplo após o processamento diário.
+	 */
+	public void solicitarSnapshot() {
+		this.snapshotPendente = true;
 	}
 
 	public void atualizarArquivos() throws EscritaArquivoException {
-		GerenciadorArquivo.salvarClientes((HashSet<Cliente>) this.clientes);
-		GerenciadorArquivo.salvarBoletos((HashSet<Boleto>) this.boletos);
+		GerenciadorArquivo.salvarClientes(this.clientes);
+		GerenciadorArquivo.salvarBoletos(new HashSet<>(this.boletos));
 		GeracaoAleatoria.salvarChavesAleatorias();
 		GeracaoAleatoria.salvarNossosNumeros();
 		GeracaoAleatoria.salvarNumerosCartoes();
@@ -0,0 +1,85 @@
+package agencia;
+
+import transacao.Transacao;
+import utilsBank.databank.Data;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Transferências agendadas ordenadas pelo dia de vencimento (dias desde 01/01/1970).
+ * O processamento diário retira só as que já venceram, sem percorrer as agendadas para meses à frente.
+ */
+public class AgendaTransacoes {
+	private final TreeMap<Long, List<Transacao>> transacoesPorDia;
+	private int quantidade;
+
+	public AgendaTransacoes(List<Transacao> transacoes) {
+		this.transacoesPorDia = new TreeMap<>();
+		for (Transacao transacao : transacoes) {
+			adicionar(transacao);
+		}
+	}
+
+	/**
+	 * Transações sem data agendada não têm vencimento e são ignoradas.
+	 */
+	public synchronized void adicionar(Transacao transacao) {
+		if (!transacao.hasDataAgendada()) {
+			return;
+		}
+		this.transacoesPorDia.computeIfAbsent(transacao.getDataAgendada().getDiaEpoch(), dia -> new ArrayList<>()).add(transacao);
+		this.quantidade++;
+	}
+
+	public synchronized boolean remover(Transacao transacao) {
+		if (!transacao.hasDataAgendada()) {
+			return false;
+		}
+		Long dia = transacao.getDataAgendada().getDiaEpoch();
+		List<Transacao> doDia = this.transacoesPorDia.get(dia);
+		if (doDia == null || !doDia.remove(transacao)) {
+			return false;
+		}
+		if (doDia.isEmpty()) {
+			this.transacoesPorDia.remove(dia);
+		}
+		this.quantidade--;
+		return true;
+	}
+
+	/**
+	 * Retira da agenda as transferências com vencimento até {@code dataAtual}, inclusive.
+	 *
+	 * @return transferências vencidas, da mais antiga para a mais recente
+	 */
+	public synchronized List<Transacao> retirarVencidas(Data dataAtual) {
+		List<Transacao> vencidas = new ArrayList<>();
+		long hoje = dataAtual.getDiaEpoch();
+		Iterator<Map.Entry<Long, List<Transacao>>> dias = this.transacoesPorDia.headMap(hoje, true).entrySet().iterator();
+		while (dias.hasNext()) {
+			vencidas.addAll(dias.next().getValue());
+			dias.remove();
+		}
+		this.quantidade -= vencidas.size();
+		return vencidas;
+	}
+
+	/**
+	 * @return todas as transferências agendadas, em ordem de vencimento
+	 */
+	public synchronized ArrayList<Transacao> listar() {
+		ArrayList<Transacao> transacoes = new ArrayList<>(this.quantidade);
+		for (List<Transacao> doDia : this.transacoesPorDia.values()) {
+			transacoes.addAll(doDia);
+		}
+		return transacoes;
+	}
+
+	public synchronized int size() {
+		return this.quantidade;
+	}
+}
@@ -0,0 +1,115 @@
+package agencia;
+
+import cliente.Cliente;
+import conta.Rentavel;
+
+import java.io.Serial;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Rende o saldo e o dinheiro guardado das contas no fechamento do dia.
+ * <p>
+ * Com paralelismo maior que 1, as contas são divididas em faixas processadas num {@link ForkJoinPool} próprio.
+ * Cada conta é rendida inteira por uma única tarefa e não depende das outras, então o resultado é o mesmo
+ * da execução sequencial, qualquer que seja a ordem em que as faixas terminem.
+ */
+public class RendimentoContas {
+	public static final String PROPRIEDADE_PARALELISMO = "banco.rendimento.paralelismo";
+	static final int CONTAS_POR_TAREFA = 1024;
+	private final int paralelismo;
+	private final int contasPorTarefa;
+
+	public RendimentoContas(int paralelismo) {
+		this(paralelismo, CONTAS_POR_TAREFA);
+	}
+
+	RendimentoContas(int paralelismo, int contasPorTarefa) {
+		this.paralelismo = Math.max(1, paralelismo);
+		this.contasPorTarefa = Math.max(1, contasPorTarefa);
+	}
+
+	/**
+	 * @return paralelismo da propriedade {@value #PROPRIEDADE_PARALELISMO}, ou a quantidade de processadores
+	 */
+	public static int paralelismoPadrao() {
+		return Integer.getInteger(PROPRIEDADE_PARALELISMO, Runtime.getRuntime().availableProcessors());
+	}
+
+	public int getParalelismo() {
+		return this.paralelismo;
+	}
+
+	/**
+	 * @return quantidade de contas rendidas
+	 */
+	public int render(Collection<Cliente> clientes) {
+		return render(clientes, 1);
+	}
+
+	/**
+	 * Rende as contas por {@code dias} dias de uma vez, compondo os fatores de {@link Rentavel}.
+	 *
+	 * @return quantidade de contas rendidas
+	 */
+	public int render(Collection<Cliente> clientes, int dias) {
+		Rentavel[] contas = new Rentavel[clientes.size()];
+		int quantidade = 0;
+		for (Cliente cliente : clientes) {
+			contas[quantidade++] = (Rentavel) cliente.getConta();
+		}
+		if (this.paralelismo == 1 || quantidade <= this.contasPorTarefa) {
+			render(contas, 0, quantidade, dias);
+			return quantidade;
+		}
+		ForkJoinPool pool = new ForkJoinPool(this.paralelismo);
+		try {
+			pool.invoke(new Faixa(contas, 0, quantidade, dias, this.contasPorTarefa));
+		} finally {
+			pool.shutdown();
+		}
+		return quantidade;
+	}
+
+	private static void render(Rentavel[] contas, int inicio, int fim, int dias) {
+		for (int i = inicio; i < fim; i++) {
+			if (dias == 1) {
+				contas[i].renderSaldo();
+				contas[i].renderDinheiroGuardado();
+			} else {
+				contas[i].renderSaldo(dias);
+				contas[i].renderDinheiroGuardado(dias);
+			}
+		}
+	}
+
+	private static class Faixa extends RecursiveAction {
+		@Serial
+		private static final long serialVersionUID = 1L;
+		private final Rentavel[] contas;
+		private final int inicio;
+		private final int fim;
+		private final int dias;
+		private final int contasPorTarefa;
+
+		Faixa(Rentavel[] contas, int inicio, int fim, int dias, int contasPorTarefa) {
+			this.contas = contas;
+			this.inicio = inicio;
+			this.fim = fim;
+			this.dias = dias;
+			this.contasPorTarefa = contasPorTarefa;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.fim - this.inicio <= this.contasPorTarefa) {
+				render(this.contas, this.inicio, this.fim, this.dias);
+				return;
+			}
+			int meio = (this.inicio + this.fim) >>> 1;
+			invokeAll(new Faixa(this.contas, this.inicio, meio, this.dias, this.contasPorTarefa),
+					new Faixa(this.contas, meio, this.fim, this.dias, this.contasPorTarefa));
+		}
+	}
+}
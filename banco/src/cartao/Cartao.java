@@ -2,10 +2,15 @@ package cartao;
 
 import agencia.Agencia;
 import interfaceUsuario.dados.DadosCartao;
+import interfaceUsuario.verificadores.dados.VerificadorEntrada;
 import utilsBank.GeracaoAleatoria;
+import utilsBank.arquivo.CodificacaoBinaria;
 import utilsBank.databank.Data;
 import utilsBank.databank.DataBank;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
 
@@ -29,6 +34,45 @@ public abstract class Cartao implements Serializable {
 		this.validade.somar(2, Data.ANO);
 	}
 
+	/**
+	 * Recria um cartão já emitido, lido do arquivo, sem gerar novos números.
+	 */
+	protected Cartao(String numeroCartao, String cvc, String apelidoCartao, Data validade, String nomeTitular) {
+		this.numeroCartao = numeroCartao;
+		this.cvc = cvc;
+		this.apelidoCartao = apelidoCartao;
+		this.validade = validade;
+		this.nomeTitular = nomeTitular;
+	}
+
+	public void gravar(DataOutputStream saida) throws IOException {
+		saida.writeUTF(tipoCartao);
+		CodificacaoBinaria.escreverTexto(saida, numeroCartao);
+		CodificacaoBinaria.escreverTexto(saida, cvc);
+		CodificacaoBinaria.escreverTexto(saida, apelidoCartao);
+		CodificacaoBinaria.escreverData(saida, validade);
+		CodificacaoBinaria.escreverTexto(saida, nomeTitular);
+	}
+
+	public static Cartao ler(DataInputStream entrada) throws IOException {
+		String tipo = entrada.readUTF();
+		String numeroCartao = CodificacaoBinaria.lerTexto(entrada);
+		String cvc = CodificacaoBinaria.lerTexto(entrada);
+		String apelidoCartao = CodificacaoBinaria.lerTexto(entrada);
+		Data validade = CodificacaoBinaria.lerData(entrada);
+		String nomeTitular = CodificacaoBinaria.lerTexto(entrada);
+		switch (tipo) {
+			case VerificadorEntrada.STANDARD:
+				return new CartaoStandard(numeroCartao, cvc, apelidoCartao, validade, nomeTitular);
+			case VerificadorEntrada.PREMIUM:
+				return new CartaoPremium(numeroCartao, cvc, apelidoCartao, validade, nomeTitular);
+			case VerificadorEntrada.DIAMOND:
+				return new CartaoDiamond(numeroCartao, cvc, apelidoCartao, validade, nomeTitular);
+			default:
+				throw new IOException("Tipo de cartao invalido: " + tipo);
+		}
+	}
+
 	/**
 	 * Retorna o limite maximo do Cartao
 	 *
@@ -2,6 +2,7 @@ package cartao;
 
 import interfaceUsuario.dados.DadosCartao;
 import interfaceUsuario.verificadores.dados.VerificadorEntrada;
+import utilsBank.databank.Data;
 
 import java.io.Serial;
 
@@ -15,6 +16,11 @@ public class CartaoDiamond extends CartaoPremium {
 		this.tipoCartao = VerificadorEntrada.DIAMOND;
 	}
 
+	protected CartaoDiamond(String numeroCartao, String cvc, String apelidoCartao, Data validade, String nomeTitular) {
+		super(numeroCartao, cvc, apelidoCartao, validade, nomeTitular);
+		this.tipoCartao = VerificadorEntrada.DIAMOND;
+	}
+
 	@Override
 	public Double getLimiteMaximo() {
 		return this.LIMITE_MAX;
@@ -2,13 +2,18 @@ package cartao;
 
 import agencia.Agencia;
 import cliente.Cliente;
+import conta.Notificacao;
+import utilsBank.arquivo.CodificacaoBinaria;
 import utilsBank.databank.Data;
 import utilsBank.databank.DataBank;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
 
-public class Fatura implements Serializable {
+public class Fatura implements Serializable, Notificacao {
 	@Serial
 	private static final long serialVersionUID = 18L;
 	private final Data DATA_PAGAMENTO;
@@ -25,6 +30,27 @@ public class Fatura implements Serializable {
 		this.CONTA = cliente.getConta().getIdConta();
 	}
 
+	private Fatura(Data dataPagamento, Double valor, String nomePagador, String numeroAgencia, String conta) {
+		this.DATA_PAGAMENTO = dataPagamento;
+		this.VALOR = valor;
+		this.NOME_PAGADOR = nomePagador;
+		this.NUMERO_AGENCIA = numeroAgencia;
+		this.CONTA = conta;
+	}
+
+	public void gravar(DataOutputStream saida) throws IOException {
+		CodificacaoBinaria.escreverData(saida, DATA_PAGAMENTO);
+		CodificacaoBinaria.escreverDouble(saida, VALOR);
+		CodificacaoBinaria.escreverTexto(saida, NOME_PAGADOR);
+		CodificacaoBinaria.escreverTexto(saida, NUMERO_AGENCIA);
+		CodificacaoBinaria.escreverTexto(saida, CONTA);
+	}
+
+	public static Fatura ler(DataInputStream entrada) throws IOException {
+		return new Fatura(CodificacaoBinaria.lerData(entrada), CodificacaoBinaria.lerDouble(entrada),
+				CodificacaoBinaria.lerTexto(entrada), CodificacaoBinaria.lerTexto(entrada), CodificacaoBinaria.lerTexto(entrada));
+	}
+
 	@SuppressWarnings("unused")
 	public boolean equals(Fatura outraFatura) {
 		return this.DATA_PAGAMENTO.equals(outraFatura.DATA_PAGAMENTO);
@@ -2,6 +2,7 @@ package cliente;
 
 import cartao.Fatura;
 import cliente.exceptions.LoginException;
+import cliente.exceptions.TiposClientes;
 import conta.Conta;
 import conta.ContaDiamond;
 import conta.ContaPremium;
@@ -14,9 +15,17 @@ import interfaceUsuario.dados.DadosConta;
 import interfaceUsuario.exceptions.ValorInvalido;
 import interfaceUsuario.menus.MenuConta;
 import interfaceUsuario.verificadores.dados.VerificadorEntrada;
+import transacao.Transacao;
+import utilsBank.arquivo.CodificacaoBinaria;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 @SuppressWarnings({"SameReturnValue", "CanBeFinal"})
 public abstract class Cliente implements Serializable {
@@ -41,6 +50,76 @@ public abstract class Cliente implements Serializable {
 		this.senha = senha;
 	}
 
+	/**
+	 * Recria um cliente lido do arquivo, sem passar pela criação interativa da conta.
+	 */
+	protected Cliente(String nome, String email, String telefone, Integer idade, Endereco end, String senha, Conta conta, Double renda) {
+		this.NOME = nome;
+		this.email = email;
+		this.telefone = telefone;
+		this.idade = idade;
+		this.end = end;
+		this.senha = senha;
+		this.conta = conta;
+		this.renda = renda;
+	}
+
+	/**
+	 * Grava o cliente, com a conta, o histórico e os cartões, como um registro do formato binário.
+	 */
+	public void gravar(DataOutputStream saida) throws IOException {
+		TiposClientes tipo = (this instanceof ClienteEmpresa) ? TiposClientes.CLIENTE_EMPRESA : TiposClientes.CLIENTE_PESSOA;
+		saida.writeUTF(tipo.name());
+		CodificacaoBinaria.escreverTexto(saida, getIdentificacao());
+		CodificacaoBinaria.escreverTexto(saida, NOME);
+		CodificacaoBinaria.escreverTexto(saida, senha);
+		CodificacaoBinaria.escreverTexto(saida, email);
+		CodificacaoBinaria.escreverTexto(saida, telefone);
+		CodificacaoBinaria.escreverInteiro(saida, idade);
+		CodificacaoBinaria.escreverDouble(saida, renda);
+		saida.writeBoolean(end != null);
+		if (end != null) {
+			end.gravar(saida);
+		}
+		if (this instanceof ClienteEmpresa) {
+			Set<String> gerentes = ((ClienteEmpresa) this).getGerentes();
+			saida.writeInt(gerentes.size());
+			for (String gerente : gerentes) {
+				saida.writeUTF(gerente);
+			}
+		}
+		conta.gravar(saida);
+	}
+
+	/**
+	 * Lê um cliente gravado por {@link #gravar(DataOutputStream)}. As transações ficam sem origem e destino
+	 * até {@link Transacao#vincularClientes(Map)} ser chamado com todos os clientes carregados.
+	 *
+	 * @param lidas transações já lidas, indexadas pelo nosso número
+	 */
+	public static Cliente ler(DataInputStream entrada, Map<String, Transacao> lidas) throws IOException {
+		TiposClientes tipo = TiposClientes.valueOf(entrada.readUTF());
+		String identificacao = CodificacaoBinaria.lerTexto(entrada);
+		String nome = CodificacaoBinaria.lerTexto(entrada);
+		String senha = CodificacaoBinaria.lerTexto(entrada);
+		String email = CodificacaoBinaria.lerTexto(entrada);
+		String telefone = CodificacaoBinaria.lerTexto(entrada);
+		Integer idade = CodificacaoBinaria.lerInteiro(entrada);
+		Double renda = CodificacaoBinaria.lerDouble(entrada);
+		Endereco end = entrada.readBoolean() ? Endereco.ler(entrada) : null;
+		if (tipo == TiposClientes.CLIENTE_EMPRESA) {
+			int quantidadeGerentes = entrada.readInt();
+			Set<String> gerentes = new HashSet<>();
+			for (int i = 0; i < quantidadeGerentes; i++) {
+				gerentes.add(entrada.readUTF());
+			}
+			Conta conta = Conta.ler(entrada, lidas);
+			return new ClienteEmpresa(nome, email, telefone, idade, end, identificacao, senha, conta, renda, gerentes);
+		}
+		Conta conta = Conta.ler(entrada, lidas);
+		return new ClientePessoa(nome, email, telefone, idade, end, identificacao, senha, conta, renda);
+	}
+
 	@SuppressWarnings("unused")
 	public abstract boolean equals(Cliente outroCliente);
 
@@ -1,11 +1,13 @@
 package cliente;
 
+import agencia.Agencia;
 import cliente.exceptions.GerenteJaExistenteException;
 import cliente.exceptions.GerenteNaoEncontradoException;
 import conta.Conta;
 import interfaceUsuario.exceptions.ValorInvalido;
 
 import java.io.Serial;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -21,16 +23,27 @@ public class ClienteEmpresa extends Cliente {
         this.CNPJ = cnpj;
     }
 
+    protected ClienteEmpresa(String nome, String email, String telefone, Integer idade, Endereco end, String cnpj, String senha,
+                             Conta conta, Double renda, Set<String> gerentes) {
+        super(nome, email, telefone, idade, end, senha, conta, renda);
+        this.CNPJ = cnpj;
+        this.GERENTES_EMPRESA.addAll(gerentes);
+    }
+
     public boolean addGerentes(String identificacao) throws GerenteJaExistenteException {
         if (!GERENTES_EMPRESA.contains(identificacao)) {
-            return GERENTES_EMPRESA.add(identificacao);
+            GERENTES_EMPRESA.add(identificacao);
+            Agencia.getInstance().atualizarGerente(this, identificacao, true);
+            return true;
         }
         throw new GerenteJaExistenteException("O gerente ja existe");
     }
 
     public boolean removerGerentes(String identificacao) throws GerenteNaoEncontradoException {
         if (GERENTES_EMPRESA.contains(identificacao)) {
-            return GERENTES_EMPRESA.remove(identificacao);
+            GERENTES_EMPRESA.remove(identificacao);
+            Agencia.getInstance().atualizarGerente(this, identificacao, false);
+            return true;
         }
         throw new GerenteNaoEncontradoException("O gerente nao foi encontrado, logo nao foi possivel a remocao!");
     }
@@ -39,6 +52,13 @@ public class ClienteEmpresa extends Cliente {
         return GERENTES_EMPRESA.contains(chave);
     }
 
+    /**
+     * @return visão somente leitura das identificações dos gerentes
+     */
+    public Set<String> getGerentes() {
+        return Collections.unmodifiableSet(GERENTES_EMPRESA);
+    }
+
     @Override
     public String toString() {
         String toString = "[CLIENTE]\n";
@@ -1,5 +1,6 @@
 package cliente;
 
+import conta.Conta;
 import interfaceUsuario.exceptions.ValorInvalido;
 
 import java.io.Serial;
@@ -14,6 +15,12 @@ public class ClientePessoa extends Cliente {
 		this.CPF = cpf;
 	}
 
+	protected ClientePessoa(String nome, String email, String telefone, Integer idade, Endereco end, String cpf, String senha,
+							Conta conta, Double renda) {
+		super(nome, email, telefone, idade, end, senha, conta, renda);
+		this.CPF = cpf;
+	}
+
 	/**
 	 * Apenas mostra todas as informações são mostradas, útil para debug.
 	 *
@@ -1,5 +1,10 @@
 package cliente;
 
+import utilsBank.arquivo.CodificacaoBinaria;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
 
@@ -33,4 +38,14 @@ public class Endereco implements Serializable {
     protected Integer getNumeroCasa() {
         return NUMERO_CASA;
     }
+
+    public void gravar(DataOutputStream saida) throws IOException {
+        CodificacaoBinaria.escreverTexto(saida, CEP);
+        CodificacaoBinaria.escreverInteiro(saida, NUMERO_CASA);
+        CodificacaoBinaria.escreverTexto(saida, complemento);
+    }
+
+    public static Endereco ler(DataInputStream entrada) throws IOException {
+        return new Endereco(CodificacaoBinaria.lerTexto(entrada), CodificacaoBinaria.lerInteiro(entrada), CodificacaoBinaria.lerTexto(entrada));
+    }
 }
@@ -0,0 +1,194 @@
+package conta;
+
+import cartao.Fatura;
+import transacao.Boleto;
+import transacao.Transacao;
+import transacao.exceptions.TransacaoException;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Notificações ainda não lidas da conta (transações recebidas e faturas pagas no débito automático),
+ * guardadas num buffer circular de capacidade fixa.
+ * <p>
+ * Quando o buffer enche, a notificação mais antiga sai da caixa e vai para o histórico permanente da conta,
+ * se ainda não estiver lá; um aviso de boleto vencido ainda não pago só sai da caixa, porque o boleto não é uma
+ * transação efetivada e entra no histórico quando for pago.
+ * A quantidade de não lidas é mantida num contador, sem percorrer a caixa.
+ * Transações e faturas ficam na ordem em que chegaram, inclusive no arquivo.
+ */
+public class CaixaNotificacoes implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    public static final String PROPRIEDADE_CAPACIDADE = "banco.notificacoes.capacidade";
+    public static final int CAPACIDADE_PADRAO = 50;
+    /**
+     * Primeiro inteiro do formato em ordem de chegada. No formato antigo (o de {@link Historico}) ele é a
+     * quantidade de transações, nunca negativa.
+     */
+    private static final int FORMATO_ORDENADO = -1;
+    private static final byte NOTIFICACAO_TRANSACAO = 1;
+    private static final byte NOTIFICACAO_FATURA = 2;
+    private final Notificacao[] notificacoes;
+    private final Historico historico;
+    private int inicio;
+    private int naoLidas;
+
+    /**
+     * @param historico histórico permanente que recebe as notificações que não cabem mais na caixa
+     */
+    protected CaixaNotificacoes(int capacidade, Historico historico) {
+        this.notificacoes = new Notificacao[Math.max(1, capacidade)];
+        this.historico = historico;
+    }
+
+    /**
+     * @return capacidade da propriedade {@value #PROPRIEDADE_CAPACIDADE}, ou {@value #CAPACIDADE_PADRAO}
+     */
+    public static int capacidadePadrao() {
+        return Integer.getInteger(PROPRIEDADE_CAPACIDADE, CAPACIDADE_PADRAO);
+    }
+
+    /**
+     * Monta a caixa com as notificações lidas por {@link #ler}, da mais antiga para a mais recente.
+     */
+    protected static CaixaNotificacoes de(List<Notificacao> notificacoes, int capacidade, Historico historico) {
+        CaixaNotificacoes caixa = new CaixaNotificacoes(capacidade, historico);
+        for (Notificacao notificacao : notificacoes) {
+            caixa.adicionar(notificacao);
+        }
+        return caixa;
+    }
+
+    /**
+     * Uma transação que ainda não foi lida não entra de novo; por exemplo, um boleto vencido que é pago
+     * antes de o emissor ver o aviso de vencimento aparece uma vez só, já como pago.
+     */
+    public synchronized void addTransacao(Transacao transacao) {
+        adicionarSeNaoLida(transacao);
+    }
+
+    public synchronized void addFatura(Fatura fatura) {
+        adicionarSeNaoLida(fatura);
+    }
+
+    private void adicionarSeNaoLida(Notificacao notificacao) {
+        for (int i = 0; i < this.naoLidas; i++) {
+            if (this.notificacoes[posicao(i)] == notificacao) {
+                return;
+            }
+        }
+        adicionar(notificacao);
+    }
+
+    private void adicionar(Notificacao notificacao) {
+        if (this.naoLidas == this.notificacoes.length) {
+            arquivar(this.notificacoes[this.inicio]);
+            this.notificacoes[this.inicio] = notificacao;
+            this.inicio = (this.inicio + 1) % this.notificacoes.length;
+            return;
+        }
+        this.notificacoes[posicao(this.naoLidas)] = notificacao;
+        this.naoLidas++;
+    }
+
+    private void arquivar(Notificacao notificacao) {
+        if (notificacao instanceof Boleto boleto && !boleto.isPago()) {
+            return;
+        }
+        if (notificacao instanceof Fatura fatura) {
+            this.historico.addFaturas(fatura);
+        } else if (notificacao instanceof Transacao transacao) {
+            try {
+                this.historico.addTransacao(transacao);
+            } catch (TransacaoException ignore) {
+                /* Transacao ja esta no historico */
+            }
+        }
+    }
+
+    private int posicao(int indice) {
+        return (this.inicio + indice) % this.notificacoes.length;
+    }
+
+    public synchronized int getNaoLidas() {
+        return this.naoLidas;
+    }
+
+    /**
+     * @return notificações não lidas, da mais recente para a mais antiga
+     */
+    public synchronized List<Notificacao> getNotificacoes() {
+        List<Notificacao> notificacoes = new ArrayList<>(this.naoLidas);
+        for (int i = this.naoLidas - 1; i >= 0; i--) {
+            notificacoes.add(this.notificacoes[posicao(i)]);
+        }
+        return notificacoes;
+    }
+
+    public synchronized void marcarComoLidas() {
+        for (int i = 0; i < this.naoLidas; i++) {
+            this.notificacoes[posicao(i)] = null;
+        }
+        this.inicio = 0;
+        this.naoLidas = 0;
+    }
+
+    /**
+     * Grava {@value #FORMATO_ORDENADO}, a quantidade de não lidas e cada notificação, da mais antiga para a mais
+     * recente, precedida do seu tipo (byte).
+     */
+    public synchronized void gravar(DataOutputStream saida) throws IOException {
+        saida.writeInt(FORMATO_ORDENADO);
+        saida.writeInt(this.naoLidas);
+        for (int i = 0; i < this.naoLidas; i++) {
+            Notificacao notificacao = this.notificacoes[posicao(i)];
+            if (notificacao instanceof Fatura fatura) {
+                saida.writeByte(NOTIFICACAO_FATURA);
+                fatura.gravar(saida);
+            } else {
+                saida.writeByte(NOTIFICACAO_TRANSACAO);
+                ((Transacao) notificacao).gravar(saida);
+            }
+        }
+    }
+
+    /**
+     * Lê as notificações gravadas por {@link #gravar(DataOutputStream)}, da mais antiga para a mais recente.
+     * Também lê o formato antigo, o de {@link Historico#gravar(DataOutputStream)}, que não guardava a ordem entre
+     * transações e faturas: nele as faturas ficam depois das transações.
+     *
+     * @param lidas transações já lidas, indexadas pelo nosso número
+     */
+    public static List<Notificacao> ler(DataInputStream entrada, Map<String, Transacao> lidas) throws IOException {
+        int primeiro = entrada.readInt();
+        List<Notificacao> notificacoes = new ArrayList<>();
+        if (primeiro == FORMATO_ORDENADO) {
+            int quantidade = entrada.readInt();
+            for (int i = 0; i < quantidade; i++) {
+                byte tipo = entrada.readByte();
+                switch (tipo) {
+                    case NOTIFICACAO_TRANSACAO -> notificacoes.add(Transacao.ler(entrada, lidas));
+                    case NOTIFICACAO_FATURA -> notificacoes.add(Fatura.ler(entrada));
+                    default -> throw new IOException("Tipo de notificacao invalido: " + tipo);
+                }
+            }
+            return notificacoes;
+        }
+        for (int i = 0; i < primeiro; i++) {
+            notificacoes.add(0, Transacao.ler(entrada, lidas));
+        }
+        int quantidadeFaturas = entrada.readInt();
+        for (int i = 0; i < quantidadeFaturas; i++) {
+            notificacoes.add(Fatura.ler(entrada));
+        }
+        return notificacoes;
+    }
+}
@@ -1,6 +1,7 @@
 package conta;
 
 import agencia.Agencia;
+import agencia.exceptions.BuscaException;
 import cartao.*;
 import cliente.Cliente;
 import conta.exceptions.TipoInvalido;
@@ -9,21 +10,34 @@ import funcionalidades.exceptions.EmprestimoException;
 import interfaceUsuario.InterfaceUsuario;
 import interfaceUsuario.dados.DadosCartao;
 import interfaceUsuario.dados.DadosChavesPix;
+import interfaceUsuario.dados.DadosPagamento;
 import interfaceUsuario.dados.DadosTransacao;
 import interfaceUsuario.menus.MenuUsuario;
+import interfaceUsuario.verificadores.dados.VerificadorEntrada;
 import transacao.Boleto;
 import transacao.ChavePix;
 import transacao.Transacao;
 import transacao.exceptions.TransacaoException;
+import utilsBank.Dinheiro;
 import utilsBank.GeracaoAleatoria;
+import utilsBank.GerenciadorBanco;
+import utilsBank.arquivo.CodificacaoBinaria;
+import utilsBank.arquivo.exception.EscritaArquivoException;
 import utilsBank.databank.Data;
 import utilsBank.databank.DataBank;
 import java.util.logging.Logger;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class Conta implements Serializable {
     @Serial
@@ -34,29 +48,117 @@ public class Conta implements Serializable {
     protected final Historico HISTORICO;
     protected final GerenciamentoCartao CARTEIRA;
     protected final ChavePix CHAVES_PIX;
-    protected Historico notificacoes;
-    protected Double saldo;
-    protected Double saldoTotalDepositado;
-    protected Double dinheiroGuardado;
-    protected Double emprestimo;
-    protected Double parcelaEmprestimo;
+    protected CaixaNotificacoes caixaNotificacoes;
+    private transient Set<String> realizadas;
+    private transient Set<Transacao> agendadas;
+    private transient RequisicoesRecentes requisicoesRecentes;
+    protected long saldoCentavos;
+    protected long saldoTotalDepositadoCentavos;
+    protected long dinheiroGuardadoCentavos;
+    protected long emprestimoCentavos;
+    protected long parcelaEmprestimoCentavos;
+    /*
+     * Valores em reais do formato antigo da serialização Java. Só são preenchidos ao ler um arquivo gravado
+     * antes dos centavos; readObject converte e os descarta.
+     */
+    private Double saldo;
+    private Double saldoTotalDepositado;
+    private Double dinheiroGuardado;
+    private Double emprestimo;
+    private Double parcelaEmprestimo;
     private static final Logger LOGGER = Logger.getLogger(Conta.class.getName());
 
     protected Conta() {
         this.ID_CONTA = GeracaoAleatoria.gerarIdConta(GeracaoAleatoria.TAMANHO_ID_CONTA);
-        this.saldo = 0.0;
-        this.dinheiroGuardado = 0.0;
-        this.saldoTotalDepositado = 0.0;
         this.TRANSACOES_REALIZADAS = new ArrayList<>();
         this.TRANSACOES_AGENDADAS = new ArrayList<>();
-        this.notificacoes = new Historico();
         this.HISTORICO = new Historico();
+        this.HISTORICO.usarTrava(this);
+        this.caixaNotificacoes = new CaixaNotificacoes(CaixaNotificacoes.capacidadePadrao(), this.HISTORICO);
         this.CARTEIRA = new GerenciamentoCartao();
-        this.emprestimo = 0.0;
-        this.parcelaEmprestimo = 0.0;
         this.CHAVES_PIX = new ChavePix(null, null, null, null);
     }
 
+    /**
+     * Recria uma conta lida do arquivo, mantendo o id original. Os valores são preenchidos por {@link #ler}.
+     */
+    protected Conta(String idConta, Historico historico, List<Notificacao> notificacoes, GerenciamentoCartao carteira, ChavePix chavesPix) {
+        this.ID_CONTA = idConta;
+        this.TRANSACOES_REALIZADAS = new ArrayList<>();
+        this.TRANSACOES_AGENDADAS = new ArrayList<>();
+        this.HISTORICO = historico;
+        this.HISTORICO.usarTrava(this);
+        this.caixaNotificacoes = CaixaNotificacoes.de(notificacoes, CaixaNotificacoes.capacidadePadrao(), historico);
+        this.CARTEIRA = carteira;
+        this.CHAVES_PIX = chavesPix;
+    }
+
+    public synchronized void gravar(DataOutputStream saida) throws IOException {
+        saida.writeUTF(GerenciadorBanco.getTipoConta(this));
+        CodificacaoBinaria.escreverTexto(saida, ID_CONTA);
+        HISTORICO.gravar(saida);
+        caixaNotificacoes.gravar(saida);
+        CARTEIRA.gravar(saida);
+        CHAVES_PIX.gravar(saida);
+        gravarTransacoes(saida, TRANSACOES_REALIZADAS);
+        gravarTransacoes(saida, TRANSACOES_AGENDADAS);
+        CodificacaoBinaria.escreverDouble(saida, Dinheiro.paraReais(saldoCentavos));
+        CodificacaoBinaria.escreverDouble(saida, Dinheiro.paraReais(saldoTotalDepositadoCentavos));
+        CodificacaoBinaria.escreverDouble(saida, Dinheiro.paraReais(dinheiroGuardadoCentavos));
+        CodificacaoBinaria.escreverDouble(saida, Dinheiro.paraReais(emprestimoCentavos));
+        CodificacaoBinaria.escreverDouble(saida, Dinheiro.paraReais(parcelaEmprestimoCentavos));
+    }
+
+    /**
+     * Lê uma conta gravada por {@link #gravar(DataOutputStream)}.
+     *
+     * @param lidas transações já lidas, indexadas pelo nosso número
+     */
+    public static Conta ler(DataInputStream entrada, Map<String, Transacao> lidas) throws IOException {
+        String tipo = entrada.readUTF();
+        String idConta = CodificacaoBinaria.lerTexto(entrada);
+        Historico historico = Historico.ler(entrada, lidas);
+        List<Notificacao> notificacoes = CaixaNotificacoes.ler(entrada, lidas);
+        GerenciamentoCartao carteira = GerenciamentoCartao.ler(entrada);
+        ChavePix chavesPix = ChavePix.ler(entrada);
+        Conta conta;
+        switch (tipo) {
+            case VerificadorEntrada.STANDARD:
+                conta = new ContaStandard(idConta, historico, notificacoes, carteira, chavesPix);
+                break;
+            case VerificadorEntrada.PREMIUM:
+                conta = new ContaPremium(idConta, historico, notificacoes, carteira, chavesPix);
+                break;
+            case VerificadorEntrada.DIAMOND:
+                conta = new ContaDiamond(idConta, historico, notificacoes, carteira, chavesPix);
+                break;
+            default:
+                throw new IOException("Tipo de conta invalido: " + tipo);
+        }
+        lerTransacoes(entrada, lidas, conta.TRANSACOES_REALIZADAS);
+        lerTransacoes(entrada, lidas, conta.TRANSACOES_AGENDADAS);
+        conta.saldoCentavos = Dinheiro.paraCentavos(CodificacaoBinaria.lerDouble(entrada));
+        conta.saldoTotalDepositadoCentavos = Dinheiro.paraCentavos(CodificacaoBinaria.lerDouble(entrada));
+        conta.dinheiroGuardadoCentavos = Dinheiro.paraCentavos(CodificacaoBinaria.lerDouble(entrada));
+        conta.emprestimoCentavos = Dinheiro.paraCentavos(CodificacaoBinaria.lerDouble(entrada));
+        conta.parcelaEmprestimoCentavos = Dinheiro.paraCentavos(CodificacaoBinaria.lerDouble(entrada));
+        return conta;
+    }
+
+    private static void gravarTransacoes(DataOutputStream saida, List<Transacao> transacoes) throws IOException {
+        saida.writeInt(transacoes.size());
+        for (Transacao transacao : transacoes) {
+            transacao.gravar(saida);
+        }
+    }
+
+    private static void lerTransacoes(DataInputStream entrada, Map<String, Transacao> lidas, List<Transacao> destino) throws IOException {
+        int quantidade = entrada.readInt();
+        for (int i = 0; i < quantidade; i++) {
+            destino.add(Transacao.ler(entrada, lidas));
+        }
+    }
+
     /**
      * Com os dados da chave pix tratados na Interface chama CHAVES_PIX.mudarAdicionarChavePix
      *
@@ -68,23 +170,51 @@ public class Conta implements Serializable {
         return CHAVES_PIX.mudarAdicionarChavePix(dadosChavePix.getTipoChave(), dadosChavePix);
     }
 
-    public boolean addTransacaoRealizada(Transacao t) {
-        if (!TRANSACOES_REALIZADAS.contains(t)) {
+    public synchronized boolean addTransacaoRealizada(Transacao t) {
+        if (getRealizadas().add(t.getNossoNumero())) {
             TRANSACOES_REALIZADAS.add(t);
             return true;
         }
         return false;
     }
 
-    public boolean addTransacaoAgendadas(Transacao t) throws TransacaoException {
-        if (!TRANSACOES_AGENDADAS.contains(t)) {
+    public synchronized boolean addTransacaoAgendadas(Transacao t) throws TransacaoException {
+        if (!getAgendadas().contains(t)) {
             this.HISTORICO.addTransacao(t);
             TRANSACOES_AGENDADAS.add(t);
+            this.agendadas.add(t);
             return true;
         }
         return false;
     }
 
+    /**
+     * Conjuntos usados para verificar duplicidade pelo nosso número. As listas continuam guardando a ordem e são
+     * o que vai para o arquivo; os conjuntos são montados na primeira consulta, depois que a conta foi lida por inteiro,
+     * porque durante a leitura as transações ainda não têm o nosso número preenchido. Só são usados com o monitor
+     * da conta.
+     */
+    /**
+     * Nossos números das transações realizadas, para consultar sem percorrer a lista (a reaplicação do registro
+     * de operações consulta uma vez por operação).
+     */
+    private synchronized Set<String> getRealizadas() {
+        if (this.realizadas == null) {
+            this.realizadas = new HashSet<>();
+            for (Transacao transacao : TRANSACOES_REALIZADAS) {
+                this.realizadas.add(transacao.getNossoNumero());
+            }
+        }
+        return this.realizadas;
+    }
+
+    private synchronized Set<Transacao> getAgendadas() {
+        if (this.agendadas == null) {
+            this.agendadas = new HashSet<>(TRANSACOES_AGENDADAS);
+        }
+        return this.agendadas;
+    }
+
     public Transacao agendarTransacao() throws TransacaoException {
         DadosTransacao dadosTransacao = InterfaceUsuario.getDadosTransacao();
         Data dataAgendada = dadosTransacao.getDataAgendada();
@@ -96,60 +226,226 @@ public class Conta implements Serializable {
         throw new TransacaoNaoRealizadaException("Ocorreu algum erro ao realizar a Transacao. Tente novamente");
     }
 
+    /**
+     * Realiza uma transferência agendada que venceu. Se a origem não tiver saldo no momento do débito,
+     * o agendamento é apagado.
+     *
+     * @throws TransacaoException caso a transação já tenha sido realizada ou falte saldo
+     */
     public Transacao realizarTransacaoAgendada(Transacao transacao) throws TransacaoException {
         if (transacao.getDataAgendada() == null) {
             throw new TransacaoException("Essa transacao ja foi realizada");
         }
-        transferir(transacao);
+        ResultadoTransferencia resultado = MotorTransferencias.realizarAgendada(transacao);
+        if (resultado != ResultadoTransferencia.EFETIVADA) {
+            if (resultado == ResultadoTransferencia.SALDO_INSUFICIENTE) {
+                apagarTransacaoAgendada(transacao);
+            }
+            throw new TransacaoException(resultado.getMensagem());
+        }
         transacao.atualizar();
         return transacao;
     }
 
-    public void apagarTransacaoAgendada(Transacao transacao) throws TransacaoException {
+    public synchronized void apagarTransacaoAgendada(Transacao transacao) throws TransacaoException {
         try {
-            this.TRANSACOES_AGENDADAS.remove(transacao);
+            if (getAgendadas().remove(transacao)) {
+                this.TRANSACOES_AGENDADAS.remove(transacao);
+            }
         } catch (Exception ex) {
             throw new TransacaoException("Transacao nao encontrada");
         }
     }
 
+    /**
+     * Chamado depois que o dinheiro do boleto já foi movido, então não falha se o boleto já estiver num histórico
+     * (arquivos gravados quando o aviso de vencimento ainda transbordava da caixa para o histórico do emissor).
+     */
     private void adicionarHistoricoNotificacao(Transacao transacao) throws TransacaoException {
-        transacao.getContaOrigem().addHistorico(transacao);
-        transacao.getContaDestino().addHistorico(transacao);
+        adicionarAoHistorico(transacao.getContaOrigem(), transacao);
+        adicionarAoHistorico(transacao.getContaDestino(), transacao);
         transacao.getContaDestino().addNotificacao(transacao);
     }
 
-    public void addHistorico(Transacao transacao) throws TransacaoException {
-        this.HISTORICO.addTransacao(transacao);
+    private static void adicionarAoHistorico(Conta conta, Transacao transacao) {
+        try {
+            conta.addHistorico(transacao);
+        } catch (TransacaoException ignore) {
+            /* Transacao ja esta no historico */
+        }
     }
 
-    private void transferir(Transacao transacao) throws TransacaoException {
-        Double valorT = transacao.getValor();
-        transacao.getContaDestino().aumentarSaldo(valorT);
-        transacao.getContaOrigem().diminuirSaldo(valorT);
-        transacao.getContaDestino().addHistorico(transacao);
-        transacao.getContaDestino().addNotificacao(transacao);
+    /**
+     * Retira do histórico e das transações realizadas as transações emitidas antes de {@code limite},
+     * depois que elas já foram gravadas no arquivo de transações.
+     *
+     * @return transações retiradas do histórico
+     */
+    public synchronized List<Transacao> retirarTransacoesAntesDe(Data limite) {
+        List<Transacao> removidas = this.HISTORICO.removerAntesDe(limite);
+        if (TRANSACOES_REALIZADAS.removeIf(transacao -> transacao.getDataEmissaoTransacao().antesDe(limite))) {
+            this.realizadas = null;
+        }
+        return removidas;
+    }
+
+    public void addHistorico(Transacao transacao) throws TransacaoException {
+        this.HISTORICO.addTransacao(transacao);
     }
 
     public Transacao transferir() throws TransacaoException {
         DadosTransacao dadosTransacao = InterfaceUsuario.getDadosTransacao();
         Transacao transacao = new Transacao(dadosTransacao);
-        Double valorT = transacao.getValor();
+        efetivarTransferencia(transacao);
+        return transacao;
+    }
 
-        if (addTransacaoRealizada(transacao)) {
-            if (transacao.getContaDestino().equals(transacao.getContaOrigem())) {
-                this.setSaldoTotalDepositado(valorT);
-                transacao.getContaDestino().aumentarSaldo(valorT);
-                transacao.getContaOrigem().addHistorico(transacao);
-            } else {
-                transacao.getContaDestino().aumentarSaldo(valorT);
-                transacao.getContaOrigem().diminuirSaldo(valorT);
-                adicionarHistoricoNotificacao(transacao);
+    /**
+     * Transferência identificada por uma chave de requisição escolhida por quem a envia. Se a mesma chave chegar de
+     * novo enquanto estiver em {@link RequisicoesRecentes}, a transação original é devolvida e nada é movimentado outra vez;
+     * assim quem reenvia depois de um tempo esgotado não debita duas vezes. Uma transferência recusada não guarda a chave.
+     * A transferência efetivada é gravada no registro de operações; um reenvio não grava nada.
+     *
+     * @param chaveRequisicao chave de idempotência; sem chave, a transferência é sempre feita
+     * @throws TransacaoNaoRealizadaException caso falte saldo ou o valor seja inválido
+     * @throws EscritaArquivoException        caso a transferência efetivada não possa ser gravada no registro de operações
+     */
+    public Transacao transferir(DadosTransacao dadosTransacao, String chaveRequisicao) throws TransacaoException, EscritaArquivoException {
+        if (chaveRequisicao == null) {
+            Transacao transacao = new Transacao(dadosTransacao);
+            efetivarERegistrar(transacao, null, null);
+            return transacao;
+        }
+        RequisicoesRecentes requisicoes = getRequisicoesRecentes();
+        // Reenvios da mesma conta esperam a primeira submissão terminar, para não serem feitos em paralelo com ela
+        synchronized (requisicoes) {
+            Transacao original = requisicoes.buscar(chaveRequisicao);
+            if (original != null) {
+                return original;
             }
+            Transacao transacao = new Transacao(dadosTransacao);
+            efetivarERegistrar(transacao, requisicoes, chaveRequisicao);
             return transacao;
         }
+    }
 
-        throw new TransacaoNaoRealizadaException("Ocorreu algum erro ao realizar a Transacao. Tente novamente");
+    /**
+     * Efetiva a transferência e a grava no registro de operações. A chave de requisição é guardada antes da gravação,
+     * para que um reenvio depois de uma falha no registro não debite de novo.
+     */
+    private void efetivarERegistrar(Transacao transacao, RequisicoesRecentes requisicoes, String chaveRequisicao)
+            throws TransacaoException, EscritaArquivoException {
+        // A transferência e o seu registro entram juntos no snapshot (Agencia.TRAVA_SNAPSHOT)
+        Agencia.TRAVA_SNAPSHOT.readLock().lock();
+        try {
+            efetivarTransferencia(transacao);
+            if (requisicoes != null) {
+                requisicoes.registrar(chaveRequisicao, transacao);
+            }
+            Agencia.getInstance().getRegistroOperacoes().registrarTransferencia(transacao);
+        } finally {
+            Agencia.TRAVA_SNAPSHOT.readLock().unlock();
+        }
+    }
+
+    /**
+     * Paga um lote de uma vez, como a folha de pagamento de uma empresa. As chaves Pix são resolvidas numa passada,
+     * o saldo é conferido uma vez contra o total dos pagamentos válidos e, se bastar, todos são efetivados
+     * ({@link MotorTransferencias#transferirLote}); se não bastar, nenhum é. Os pagamentos efetivados são gravados
+     * num registro só, com {@link utilsBank.arquivo.RegistroOperacoes#registrarLote}.
+     *
+     * @param origem cliente dono desta conta
+     * @return o resultado de cada pagamento, na ordem do lote
+     * @throws EscritaArquivoException caso o lote efetivado não possa ser gravado no registro de operações
+     */
+    public List<ResultadoPagamento> transferirLote(Cliente origem, List<DadosPagamento> pagamentos) throws TransacaoException, EscritaArquivoException {
+        Agencia agencia = Agencia.getInstance();
+        List<ResultadoPagamento> resultados = new ArrayList<>(pagamentos.size());
+        List<ResultadoPagamento> validos = new ArrayList<>(pagamentos.size());
+        List<Transacao> transacoes = new ArrayList<>(pagamentos.size());
+        for (DadosPagamento pagamento : pagamentos) {
+            ResultadoPagamento resultado;
+            Double valor = pagamento.getValor();
+            Cliente destino = null;
+            try {
+                destino = agencia.buscarClientePorChavePix(pagamento.getTipoChave(), pagamento.getChave());
+            } catch (BuscaException ex) {
+                /* Resultado DESTINO_NAO_ENCONTRADO */
+            }
+            if (destino == null) {
+                resultado = new ResultadoPagamento(pagamento, ResultadoTransferencia.DESTINO_NAO_ENCONTRADO, null);
+            } else if (destino.getConta() == this) {
+                resultado = new ResultadoPagamento(pagamento, ResultadoTransferencia.MESMA_CONTA, null);
+            } else if (valor == null || !Double.isFinite(valor) || Dinheiro.paraCentavos(valor) <= 0) {
+                resultado = new ResultadoPagamento(pagamento, ResultadoTransferencia.VALOR_INVALIDO, null);
+            } else {
+                Transacao transacao = new Transacao(new DadosTransacao(valor, destino, origem));
+                resultado = new ResultadoPagamento(pagamento, ResultadoTransferencia.EFETIVADA, transacao);
+                validos.add(resultado);
+                transacoes.add(transacao);
+            }
+            resultados.add(resultado);
+        }
+        if (transacoes.isEmpty()) {
+            return resultados;
+        }
+        // O lote e o seu registro entram juntos no snapshot (Agencia.TRAVA_SNAPSHOT)
+        Agencia.TRAVA_SNAPSHOT.readLock().lock();
+        try {
+            if (MotorTransferencias.transferirLote(this, transacoes) == ResultadoTransferencia.EFETIVADA) {
+                agencia.getRegistroOperacoes().registrarLote(transacoes);
+            } else {
+                for (ResultadoPagamento resultado : validos) {
+                    resultado.setResultado(ResultadoTransferencia.SALDO_INSUFICIENTE);
+                }
+            }
+        } finally {
+            Agencia.TRAVA_SNAPSHOT.readLock().unlock();
+        }
+        return resultados;
+    }
+
+    private synchronized RequisicoesRecentes getRequisicoesRecentes() {
+        if (this.requisicoesRecentes == null) {
+            this.requisicoesRecentes = new RequisicoesRecentes();
+        }
+        return this.requisicoesRecentes;
+    }
+
+    /**
+     * Aplica nas contas de origem e destino uma transação já criada, pelo {@link MotorTransferencias}.
+     * Usado pela transferência e pelo depósito.
+     *
+     * @param transacao transação cuja origem é esta conta
+     * @throws TransacaoNaoRealizadaException caso a transação já tenha sido realizada, falte saldo ou o valor seja inválido
+     */
+    public void efetivarTransferencia(Transacao transacao) throws TransacaoException {
+        ResultadoTransferencia resultado = MotorTransferencias.transferir(transacao);
+        if (resultado != ResultadoTransferencia.EFETIVADA) {
+            throw new TransacaoNaoRealizadaException(resultado.getMensagem());
+        }
+    }
+
+    /**
+     * Reaplica uma transferência do registro de operações na inicialização, sem conferir o saldo.
+     *
+     * @throws TransacaoNaoRealizadaException caso a transação já tenha sido realizada por esta conta
+     */
+    public void reaplicarTransferencia(Transacao transacao) throws TransacaoException {
+        ResultadoTransferencia resultado = MotorTransferencias.reaplicar(transacao);
+        if (resultado != ResultadoTransferencia.EFETIVADA) {
+            throw new TransacaoNaoRealizadaException(resultado.getMensagem());
+        }
+    }
+
+    /**
+     * Verifica se esta conta já realizou a transação com o nosso número informado.
+     *
+     * @param nossoNumero identificação da transação
+     * @return {@code true} caso a transação já tenha sido realizada
+     */
+    public synchronized boolean possuiTransacaoRealizada(String nossoNumero) {
+        return getRealizadas().contains(nossoNumero);
     }
 
     public Transacao depositar() throws TransacaoException {
@@ -164,17 +460,57 @@ public class Conta implements Serializable {
         }
     }
 
-    public void pagarBoleto(Boleto boleto, Cliente origem) throws TransacaoException {
+    /**
+     * Paga o boleto com a multa calculada para a data atual.
+     *
+     * @return valor efetivamente debitado, já com a multa
+     */
+    public Double pagarBoleto(Boleto boleto, Cliente origem) throws TransacaoException {
         int intervalo = DataBank.criarData(DataBank.SEM_HORA).calcularIntervalo(boleto.getDataVencimento());
         Double valorTratado = (intervalo < 0) ? boleto.getMultaPorDias() * -intervalo : boleto.getMultaPorDias();
         valorTratado += boleto.getValor();
-        if (this.saldo < valorTratado) {
-            throw new TransacaoException("Saldo insuficiente");
+        quitarBoleto(boleto, origem, valorTratado);
+        return valorTratado;
+    }
+
+    /**
+     * Debita desta conta o valor informado e o credita ao emissor do boleto.
+     *
+     * @param valorTratado valor do boleto já acrescido da multa
+     * @throws TransacaoException caso o saldo seja insuficiente ou o boleto já tenha sido pago
+     */
+    public void quitarBoleto(Boleto boleto, Cliente origem, Double valorTratado) throws TransacaoException {
+        quitarBoleto(boleto, origem, valorTratado, true);
+    }
+
+    /**
+     * Reaplica um pagamento de boleto do registro de operações na inicialização, sem conferir o saldo.
+     *
+     * @param valorPago valor debitado no pagamento original, já com a multa
+     * @throws TransacaoException caso o boleto já tenha sido pago
+     */
+    public void reaplicarPagamentoBoleto(Boleto boleto, Cliente origem, Double valorPago) throws TransacaoException {
+        quitarBoleto(boleto, origem, valorPago, false);
+    }
+
+    private void quitarBoleto(Boleto boleto, Cliente origem, Double valorTratado, boolean conferirSaldo) throws TransacaoException {
+        // Conferência e débito no mesmo passo; o crédito ao emissor trava só a conta dele
+        long centavos = Dinheiro.paraCentavos(valorTratado);
+        // Débito e crédito entram inteiros no snapshot (Agencia.TRAVA_SNAPSHOT)
+        Agencia.TRAVA_SNAPSHOT.readLock().lock();
+        try {
+            synchronized (this) {
+                if (conferirSaldo && this.saldoCentavos < centavos) {
+                    throw new TransacaoException("Saldo insuficiente");
+                }
+                boleto.pagar(origem);
+                this.debitar(centavos);
+            }
+            boleto.getContaDestino().aumentarSaldo(valorTratado);
+            adicionarHistoricoNotificacao(boleto);
+        } finally {
+            Agencia.TRAVA_SNAPSHOT.readLock().unlock();
         }
-        boleto.pagar(origem);
-        this.diminuirSaldo(valorTratado);
-        boleto.getContaDestino().aumentarSaldo(valorTratado);
-        adicionarHistoricoNotificacao(boleto);
     }
 
     public void criarCartao(String nomeTitular, DadosCartao dadosCartao) {
@@ -193,45 +529,44 @@ public class Conta implements Serializable {
         this.CARTEIRA.adicionarNovoCartao(cartao);
     }
 
-    public void criarEmprestimo(Double valor, Integer parcelas) {
-        this.emprestimo = valor;
-        this.parcelaEmprestimo = valor / parcelas;
-        this.aumentarSaldo(valor);
-    }
-
-    public void pagarEmprestimo() throws EmprestimoException {
-        if (this.emprestimo <= this.saldo) {
-            Agencia.getInstance().addSaldo(this.emprestimo);
-            this.saldo -= this.emprestimo;
-            this.emprestimo = 0.0;
-            this.parcelaEmprestimo = 0.0;
+    /**
+     * A parcela é arredondada para cima, no centavo; a última parcela paga só o que faltar.
+     */
+    public synchronized void criarEmprestimo(Double valor, Integer parcelas) {
+        long centavos = Dinheiro.paraCentavos(valor);
+        this.emprestimoCentavos = centavos;
+        this.parcelaEmprestimoCentavos = (centavos + parcelas - 1) / parcelas;
+        this.creditar(centavos);
+    }
+
+    public synchronized void pagarEmprestimo() throws EmprestimoException {
+        if (this.emprestimoCentavos <= this.saldoCentavos) {
+            Agencia.getInstance().addSaldo(Dinheiro.paraReais(this.emprestimoCentavos));
+            this.saldoCentavos -= this.emprestimoCentavos;
+            this.emprestimoCentavos = 0;
+            this.parcelaEmprestimoCentavos = 0;
         } else {
             throw new EmprestimoException("Saldo insuficiente");
         }
     }
 
-    public void pagarParcelaEmprestimo() throws EmprestimoException {
-        double parcela;
-        if (this.emprestimo < this.parcelaEmprestimo) {
-            parcela = this.emprestimo;
-        } else {
-            parcela = this.parcelaEmprestimo;
-        }
-        if (parcela <= this.saldo) {
-            Agencia.getInstance().addSaldo(parcela);
-            this.saldo -= parcela;
-            this.emprestimo -= parcela;
-            if (this.emprestimo == 0) {
-                this.parcelaEmprestimo = 0.0;
+    public synchronized void pagarParcelaEmprestimo() throws EmprestimoException {
+        long parcela = Math.min(this.emprestimoCentavos, this.parcelaEmprestimoCentavos);
+        if (parcela <= this.saldoCentavos) {
+            Agencia.getInstance().addSaldo(Dinheiro.paraReais(parcela));
+            this.saldoCentavos -= parcela;
+            this.emprestimoCentavos -= parcela;
+            if (this.emprestimoCentavos == 0) {
+                this.parcelaEmprestimoCentavos = 0;
             }
         } else {
             throw new EmprestimoException("Saldo insuficiente");
         }
     }
 
-    public void pagarFatura(Double valor) {
+    public synchronized void pagarFatura(Double valor) {
         this.CARTEIRA.aumentarLimiteAtual(valor);
-        this.saldo -= valor;
+        this.saldoCentavos -= Dinheiro.paraCentavos(valor);
     }
 
     public boolean aumentarFatura(Double valor) {
@@ -240,40 +575,56 @@ public class Conta implements Serializable {
     }
 
     public void aumentarSaldo(Double valor) {
-        this.saldo += valor;
+        this.creditar(Dinheiro.paraCentavos(valor));
+    }
+
+    synchronized void creditar(long centavos) {
+        this.saldoCentavos += centavos;
     }
 
-    private void diminuirSaldo(Double valor) {
-        this.saldo -= valor;
+    synchronized void debitar(long centavos) {
+        this.saldoCentavos -= centavos;
     }
 
     public boolean hasEmprestimo() {
-        return this.emprestimo > 0.0;
+        return this.emprestimoCentavos > 0;
     }
 
     public boolean hasNotificacoes() {
-        return !this.notificacoes.getTransacoes().isEmpty();
+        return this.caixaNotificacoes.getNaoLidas() > 0;
     }
 
-    public void addNotificacao(Transacao transacao) throws TransacaoException {
-        this.notificacoes.addTransacao(transacao);
+    /**
+     * @return quantidade de notificações não lidas
+     */
+    public int getQuantidadeNotificacoes() {
+        return this.caixaNotificacoes.getNaoLidas();
+    }
+
+    /**
+     * Uma notificação que não cabe mais na caixa vai para o histórico; a trava da conta é tomada antes da trava da
+     * caixa, na mesma ordem das transferências.
+     */
+    public synchronized void addNotificacao(Transacao transacao) throws TransacaoException {
+        this.caixaNotificacoes.addTransacao(transacao);
     }
 
-    public void addNotificacao(Fatura fatura) {
-        this.notificacoes.addFaturas(fatura);
+    public synchronized void addNotificacao(Fatura fatura) {
+        this.caixaNotificacoes.addFatura(fatura);
     }
 
     public void resetarNotificacoes() {
-        this.notificacoes = new Historico();
+        this.caixaNotificacoes.marcarComoLidas();
     }
 
-    public void setDinheiroGuardado(Double valor, String opcao) {
+    public synchronized void setDinheiroGuardado(Double valor, String opcao) {
+        long centavos = Dinheiro.paraCentavos(valor);
         if (opcao.equals(MenuUsuario.GUARDAR)) {
-            this.saldo -= valor;
-            this.dinheiroGuardado += valor;
+            this.saldoCentavos -= centavos;
+            this.dinheiroGuardadoCentavos += centavos;
         } else if (opcao.equals(MenuUsuario.RESGATAR)) {
-            this.saldo += valor;
-            this.dinheiroGuardado -= valor;
+            this.saldoCentavos += centavos;
+            this.dinheiroGuardadoCentavos -= centavos;
         }
 
     }
@@ -287,35 +638,63 @@ public class Conta implements Serializable {
     }
 
     public Double getSaldoTotalDepositado() {
-        return saldoTotalDepositado;
+        return Dinheiro.paraReais(saldoTotalDepositadoCentavos);
     }
 
     public void setSaldoTotalDepositado(Double saldoTotalDepositado) {
-        this.saldoTotalDepositado = saldoTotalDepositado;
+        this.saldoTotalDepositadoCentavos = Dinheiro.paraCentavos(saldoTotalDepositado);
     }
 
     public Double getDinheiroGuardado() {
-        return dinheiroGuardado;
+        return Dinheiro.paraReais(dinheiroGuardadoCentavos);
     }
 
     public GerenciamentoCartao getCARTEIRA() {
         return this.CARTEIRA;
     }
 
-    public Double getSaldo() {
-        return saldo;
+    public synchronized Double getSaldo() {
+        return Dinheiro.paraReais(saldoCentavos);
     }
 
     public Double getEmprestimo() {
-        return emprestimo;
+        return Dinheiro.paraReais(emprestimoCentavos);
     }
 
     public Double getParcelaEmprestimo() {
-        return this.parcelaEmprestimo;
+        return Dinheiro.paraReais(this.parcelaEmprestimoCentavos);
     }
 
-    public List<Transacao> getNotificacoes() {
-        return this.notificacoes.getTransacoes();
+    /**
+     * @return notificações não lidas (transações e faturas), da mais recente para a mais antiga
+     */
+    public List<Notificacao> getNotificacoes() {
+        return this.caixaNotificacoes.getNotificacoes();
+    }
+
+    /**
+     * Contas gravadas antes da caixa de notificações não têm o campo; elas começam com a caixa vazia.
+     * Contas gravadas antes dos centavos trazem os valores em reais, que são convertidos.
+     */
+    @Serial
+    private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+        entrada.defaultReadObject();
+        this.HISTORICO.usarTrava(this);
+        if (this.caixaNotificacoes == null) {
+            this.caixaNotificacoes = new CaixaNotificacoes(CaixaNotificacoes.capacidadePadrao(), this.HISTORICO);
+        }
+        if (this.saldo != null) {
+            this.saldoCentavos = Dinheiro.paraCentavos(this.saldo);
+            this.saldoTotalDepositadoCentavos = Dinheiro.paraCentavos(this.saldoTotalDepositado);
+            this.dinheiroGuardadoCentavos = Dinheiro.paraCentavos(this.dinheiroGuardado);
+            this.emprestimoCentavos = Dinheiro.paraCentavos(this.emprestimo);
+            this.parcelaEmprestimoCentavos = Dinheiro.paraCentavos(this.parcelaEmprestimo);
+            this.saldo = null;
+            this.saldoTotalDepositado = null;
+            this.dinheiroGuardado = null;
+            this.emprestimo = null;
+            this.parcelaEmprestimo = null;
+        }
     }
 
     public Historico getHistorico() {
@@ -328,15 +707,9 @@ public class Conta implements Serializable {
         if (ID_CONTA != null) {
             sb.append("ID_CONTA: ").append(ID_CONTA).append("\n");
         }
-        if (saldo != null) {
-            sb.append("SALDO: ").append(saldo).append("\n");
-        }
-        if (dinheiroGuardado != null) {
-            sb.append("DINHEIRO GUARDADO: ").append(dinheiroGuardado).append("\n");
-        }
-        if (emprestimo != null) {
-            sb.append("EMPRESTIMO: ").append(emprestimo).append("\n");
-        }
+        sb.append("SALDO: ").append(getSaldo()).append("\n");
+        sb.append("DINHEIRO GUARDADO: ").append(getDinheiroGuardado()).append("\n");
+        sb.append("EMPRESTIMO: ").append(getEmprestimo()).append("\n");
         if (CHAVES_PIX != null) {
             sb.append(CHAVES_PIX).append("\n");
         }
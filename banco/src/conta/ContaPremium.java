@@ -1,6 +1,9 @@
 package conta;
 
+import transacao.ChavePix;
+
 import java.io.Serial;
+import java.util.List;
 
 public class ContaPremium extends ContaStandard implements Rentavel {
     public static final int DEPOSITO_MAXIMO = 50000;
@@ -11,13 +14,27 @@ public class ContaPremium extends ContaStandard implements Rentavel {
         super();
     }
 
+    protected ContaPremium(String idConta, Historico historico, List<Notificacao> notificacoes, GerenciamentoCartao carteira, ChavePix chavesPix) {
+        super(idConta, historico, notificacoes, carteira, chavesPix);
+    }
+
+    @Override
+    public synchronized void renderSaldo() {
+        this.saldoCentavos = Rentavel.render(this.saldoCentavos, Rentavel.FATOR_RENDER_PREMIUM, 1);
+    }
+
+    @Override
+    public synchronized void renderDinheiroGuardado() {
+        this.dinheiroGuardadoCentavos = Rentavel.render(this.dinheiroGuardadoCentavos, Rentavel.FATOR_RENDER__GUARDADO_PREMIUM, 1);
+    }
+
     @Override
-    public void renderSaldo() {
-        this.saldo = this.saldo + (this.saldo * Rentavel.FATOR_RENDER_PREMIUM);
+    public synchronized void renderSaldo(int dias) {
+        this.saldoCentavos = Rentavel.render(this.saldoCentavos, Rentavel.FATOR_RENDER_PREMIUM, dias);
     }
 
     @Override
-    public void renderDinheiroGuardado() {
-        this.dinheiroGuardado = this.dinheiroGuardado + (this.dinheiroGuardado * Rentavel.FATOR_RENDER__GUARDADO_PREMIUM);
+    public synchronized void renderDinheiroGuardado(int dias) {
+        this.dinheiroGuardadoCentavos = Rentavel.render(this.dinheiroGuardadoCentavos, Rentavel.FATOR_RENDER__GUARDADO_PREMIUM, dias);
     }
 }
@@ -1,8 +1,14 @@
 package conta;
 
+import agencia.Agencia;
 import cartao.Cartao;
 import interfaceUsuario.exceptions.ValorInvalido;
+import utilsBank.Dinheiro;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -12,13 +18,16 @@ public class GerenciamentoCartao implements Serializable {
     @Serial
     private static final long serialVersionUID = 7L;
     private final List<Cartao> LISTA_DE_CARTOES;
-    private Double limiteUsado;
+    private long limiteUsadoCentavos;
     private boolean debitoAutomatico = false;
     private int dataDebitoAutomatico;
+    /*
+     * Limite usado em reais do formato antigo da serialização Java; readObject converte para centavos e o descarta.
+     */
+    private Double limiteUsado;
 
     protected GerenciamentoCartao() {
         this.LISTA_DE_CARTOES = new ArrayList<>();
-        this.limiteUsado = 0.0;
     }
 
 
@@ -26,7 +35,7 @@ public class GerenciamentoCartao implements Serializable {
      * Diminui o Limite usado com base no parametro informado
      */
     protected void aumentarLimiteAtual(Double valorPagoFatura) {
-        this.limiteUsado -= valorPagoFatura;
+        this.limiteUsadoCentavos -= Dinheiro.paraCentavos(valorPagoFatura);
     }
 
     /**
@@ -34,7 +43,7 @@ public class GerenciamentoCartao implements Serializable {
      */
 
     public void diminuirLimiteAtual(Double valorGasto) {
-        this.limiteUsado += valorGasto;
+        this.limiteUsadoCentavos += Dinheiro.paraCentavos(valorGasto);
     }
 
     /**
@@ -47,9 +56,14 @@ public class GerenciamentoCartao implements Serializable {
         }
     }
 
+    /**
+     * Altera o débito automático e avisa a agência, que indexa as carteiras pelo dia do débito
+     */
     public void setDebitoAutomatico(boolean debitoAutomatico, int dataDebitoAutomatico) {
+        int diaAnterior = isDebitoAutomatico() ? this.dataDebitoAutomatico : -1;
         this.debitoAutomatico = debitoAutomatico;
         this.dataDebitoAutomatico = dataDebitoAutomatico;
+        Agencia.getInstance().atualizarDebitoAutomatico(this, diaAnterior);
     }
 
     /**
@@ -68,7 +82,7 @@ public class GerenciamentoCartao implements Serializable {
      */
 
     public Double getFatura() {
-        return limiteUsado;
+        return Dinheiro.paraReais(limiteUsadoCentavos);
     }
 
     /**
@@ -89,7 +103,7 @@ public class GerenciamentoCartao implements Serializable {
      * @return Double
      */
     public Double getLimiteRestante() throws ValorInvalido {
-        return getLimiteMaximo() - limiteUsado;
+        return Dinheiro.paraReais(Dinheiro.paraCentavos(getLimiteMaximo()) - limiteUsadoCentavos);
     }
 
     protected List<Cartao> getListaDeCartoes() {
@@ -100,4 +114,38 @@ public class GerenciamentoCartao implements Serializable {
         return this.debitoAutomatico && this.dataDebitoAutomatico > 0;
     }
 
+    public void gravar(DataOutputStream saida) throws IOException {
+        saida.writeInt(LISTA_DE_CARTOES.size());
+        for (Cartao cartao : LISTA_DE_CARTOES) {
+            cartao.gravar(saida);
+        }
+        saida.writeDouble(Dinheiro.paraReais(limiteUsadoCentavos));
+        saida.writeBoolean(debitoAutomatico);
+        saida.writeInt(dataDebitoAutomatico);
+    }
+
+    public static GerenciamentoCartao ler(DataInputStream entrada) throws IOException {
+        GerenciamentoCartao carteira = new GerenciamentoCartao();
+        int quantidadeCartoes = entrada.readInt();
+        for (int i = 0; i < quantidadeCartoes; i++) {
+            carteira.LISTA_DE_CARTOES.add(Cartao.ler(entrada));
+        }
+        carteira.limiteUsadoCentavos = Dinheiro.paraCentavos(entrada.readDouble());
+        carteira.debitoAutomatico = entrada.readBoolean();
+        carteira.dataDebitoAutomatico = entrada.readInt();
+        return carteira;
+    }
+
+    /**
+     * Carteiras gravadas antes dos centavos trazem o limite usado em reais, que é convertido.
+     */
+    @Serial
+    private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+        entrada.defaultReadObject();
+        if (this.limiteUsado != null) {
+            this.limiteUsadoCentavos = Dinheiro.paraCentavos(this.limiteUsado);
+            this.limiteUsado = null;
+        }
+    }
+
 }
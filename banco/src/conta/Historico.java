@@ -5,51 +5,281 @@ import transacao.Transacao;
 import transacao.exceptions.TransacaoException;
 import utilsBank.databank.Data;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * Transações da conta, da mais recente para a mais antiga (data agendada ou, sem ela, data de emissão),
+ * e faturas pagas.
+ * <p>
+ * A posição de uma nova transação é achada por busca binária e a duplicidade é verificada pelo nosso número
+ * num conjunto à parte, que é montado de novo na primeira inserção depois de ler o histórico.
+ * <p>
+ * Toda leitura e alteração segura o monitor da conta dona do histórico, o mesmo que as transferências seguram,
+ * e as consultas devolvem cópias: nenhuma lista interna escapa para ser percorrida fora da trava.
+ */
 public class Historico implements Serializable {
     @Serial
     private static final long serialVersionUID = 8L;
     private final ArrayList<Transacao> TRANSACOES;
     private final ArrayList<Fatura> FATURAS;
+    private transient Set<String> nossosNumeros;
+    private transient Set<Transacao> semNossoNumero;
+    private transient Object trava;
+
+    public enum Direcao {
+        ENVIADAS,
+        RECEBIDAS
+    }
 
     protected Historico() {
         this.FATURAS = new ArrayList<>();
         this.TRANSACOES = new ArrayList<>();
     }
 
+    /**
+     * Define a trava do histórico: o monitor da conta dona dele. Sem conta, o histórico trava a si mesmo.
+     */
+    void usarTrava(Object trava) {
+        this.trava = trava;
+    }
+
+    private Object trava() {
+        Object atual = this.trava;
+        return atual != null ? atual : this;
+    }
+
+    /**
+     * Insere a transação depois das que têm data igual ou mais recente, mantendo a ordem do histórico.
+     *
+     * @throws TransacaoException caso a transação já esteja no histórico
+     */
     public void addTransacao(Transacao novaTransacao) throws TransacaoException {
-        if (!this.TRANSACOES.contains(novaTransacao)) {
-            int index = 0;
-            boolean achouPos = false;
-            for (int i = 0; i < TRANSACOES.size() && !achouPos; i++) {
-                Data dataNovaCmp = novaTransacao.hasDataAgendada() ? novaTransacao.getDataAgendada() : novaTransacao.getDataEmissaoTransacao();
-                Data dataAtualCmp = TRANSACOES.get(i).hasDataAgendada() ? TRANSACOES.get(i).getDataAgendada() : TRANSACOES.get(i).getDataEmissaoTransacao();
-                index = i + 1;
-                if (dataNovaCmp.depoisDe(dataAtualCmp)) {
-                    index--;
-                    achouPos = true;
+        synchronized (trava()) {
+            if (contem(novaTransacao)) {
+                throw new TransacaoException("Transacao ja existe");
+            }
+            Data dataNova = dataOrdenacao(novaTransacao);
+            int inicio = 0;
+            int fim = TRANSACOES.size();
+            while (inicio < fim) {
+                int meio = (inicio + fim) >>> 1;
+                if (dataNova.depoisDe(dataOrdenacao(TRANSACOES.get(meio)))) {
+                    fim = meio;
+                } else {
+                    inicio = meio + 1;
+                }
+            }
+            TRANSACOES.add(inicio, novaTransacao);
+            indexar(novaTransacao);
+        }
+    }
+
+    /**
+     * @param deslocamento quantidade de transações puladas, a partir da mais recente
+     * @param limite       quantidade máxima de transações
+     * @return cópia somente leitura da página; só a página é copiada
+     */
+    public List<Transacao> pagina(int deslocamento, int limite) {
+        synchronized (trava()) {
+            int inicio = Math.min(Math.max(deslocamento, 0), TRANSACOES.size());
+            int fim = (int) Math.min((long) inicio + Math.max(limite, 0), TRANSACOES.size());
+            return Collections.unmodifiableList(new ArrayList<>(TRANSACOES.subList(inicio, fim)));
+        }
+    }
+
+    /**
+     * Transações com data a partir de {@code inicio} e anterior a {@code fim}, da mais recente para a mais antiga.
+     * Os limites são achados por busca binária.
+     *
+     * @return cópia somente leitura do intervalo; só o intervalo é copiado
+     */
+    public List<Transacao> entre(Data inicio, Data fim) {
+        synchronized (trava()) {
+            int primeira = primeiraAntesDe(fim);
+            int ultima = Math.max(primeira, primeiraAntesDe(inicio));
+            return Collections.unmodifiableList(new ArrayList<>(TRANSACOES.subList(primeira, ultima)));
+        }
+    }
+
+    /**
+     * Página das transações enviadas ou recebidas pela conta dona do histórico.
+     *
+     * @param conta        conta dona do histórico
+     * @param deslocamento quantidade de transações da direção puladas, a partir da mais recente
+     * @param limite       quantidade máxima de transações
+     */
+    public List<Transacao> pagina(Conta conta, Direcao direcao, int deslocamento, int limite) {
+        List<Transacao> pagina = new ArrayList<>();
+        int pular = deslocamento;
+        synchronized (trava()) {
+            for (int i = 0; i < TRANSACOES.size() && pagina.size() < limite; i++) {
+                Transacao transacao = TRANSACOES.get(i);
+                boolean enviada = transacao.getOrigem() != null && transacao.getContaOrigem() == conta;
+                if (enviada == (direcao == Direcao.ENVIADAS)) {
+                    if (pular > 0) {
+                        pular--;
+                    } else {
+                        pagina.add(transacao);
+                    }
                 }
             }
-            TRANSACOES.add(index, novaTransacao);
+        }
+        return pagina;
+    }
+
+    /**
+     * @return índice da primeira transação com data anterior a {@code data}, ou o tamanho do histórico
+     */
+    private int primeiraAntesDe(Data data) {
+        int inicio = 0;
+        int fim = TRANSACOES.size();
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (dataOrdenacao(TRANSACOES.get(meio)).antesDe(data)) {
+                fim = meio;
+            } else {
+                inicio = meio + 1;
+            }
+        }
+        return inicio;
+    }
+
+    private static Data dataOrdenacao(Transacao transacao) {
+        return transacao.hasDataAgendada() ? transacao.getDataAgendada() : transacao.getDataEmissaoTransacao();
+    }
+
+    private boolean contem(Transacao transacao) {
+        if (this.nossosNumeros == null) {
+            this.nossosNumeros = new HashSet<>();
+            this.semNossoNumero = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Transacao existente : TRANSACOES) {
+                indexar(existente);
+            }
+        }
+        String nossoNumero = transacao.getNossoNumero();
+        return nossoNumero != null ? this.nossosNumeros.contains(nossoNumero) : this.semNossoNumero.contains(transacao);
+    }
+
+    private void indexar(Transacao transacao) {
+        if (transacao.getNossoNumero() != null) {
+            this.nossosNumeros.add(transacao.getNossoNumero());
         } else {
-            throw new TransacaoException("Transacao ja existe");
+            this.semNossoNumero.add(transacao);
+        }
+    }
+
+    /**
+     * @return as transações que {@link #removerAntesDe(Data)} retiraria, sem retirá-las
+     */
+    public List<Transacao> antesDe(Data limite) {
+        List<Transacao> encontradas = new ArrayList<>();
+        synchronized (trava()) {
+            for (Transacao transacao : TRANSACOES) {
+                if (arquivavel(transacao, limite)) {
+                    encontradas.add(transacao);
+                }
+            }
+        }
+        return encontradas;
+    }
+
+    /**
+     * Retira do histórico as transações já efetivadas emitidas antes de {@code limite}.
+     * Transações agendadas ainda pendentes permanecem.
+     *
+     * @return transações retiradas
+     */
+    public List<Transacao> removerAntesDe(Data limite) {
+        List<Transacao> removidas = new ArrayList<>();
+        synchronized (trava()) {
+            Iterator<Transacao> iterador = TRANSACOES.iterator();
+            while (iterador.hasNext()) {
+                Transacao transacao = iterador.next();
+                if (arquivavel(transacao, limite)) {
+                    removidas.add(transacao);
+                    iterador.remove();
+                }
+            }
+            if (!removidas.isEmpty()) {
+                this.nossosNumeros = null;
+            }
         }
+        return removidas;
+    }
+
+    private static boolean arquivavel(Transacao transacao, Data limite) {
+        return !transacao.hasDataAgendada() && transacao.getDataEmissaoTransacao().antesDe(limite);
     }
 
     public void addFaturas(Fatura novaFatura) {
-        if (!this.FATURAS.contains(novaFatura)) {
-            FATURAS.add(novaFatura);
+        synchronized (trava()) {
+            if (!this.FATURAS.contains(novaFatura)) {
+                FATURAS.add(novaFatura);
+            }
+        }
+    }
+
+    public void gravar(DataOutputStream saida) throws IOException {
+        synchronized (trava()) {
+            saida.writeInt(TRANSACOES.size());
+            for (Transacao transacao : TRANSACOES) {
+                transacao.gravar(saida);
+            }
+            saida.writeInt(FATURAS.size());
+            for (Fatura fatura : FATURAS) {
+                fatura.gravar(saida);
+            }
         }
     }
 
+    /**
+     * Lê um histórico gravado por {@link #gravar(DataOutputStream)}, mantendo a ordem gravada.
+     *
+     * @param lidas transações já lidas, indexadas pelo nosso número
+     */
+    public static Historico ler(DataInputStream entrada, Map<String, Transacao> lidas) throws IOException {
+        Historico historico = new Historico();
+        int quantidadeTransacoes = entrada.readInt();
+        historico.TRANSACOES.ensureCapacity(quantidadeTransacoes);
+        for (int i = 0; i < quantidadeTransacoes; i++) {
+            historico.TRANSACOES.add(Transacao.ler(entrada, lidas));
+        }
+        int quantidadeFaturas = entrada.readInt();
+        historico.FATURAS.ensureCapacity(quantidadeFaturas);
+        for (int i = 0; i < quantidadeFaturas; i++) {
+            historico.FATURAS.add(Fatura.ler(entrada));
+        }
+        return historico;
+    }
+
+    /**
+     * @return cópia das transações, da mais recente para a mais antiga. Novas transações devem entrar por
+     * {@link #addTransacao(Transacao)}, que mantém a ordem e o controle de duplicidade.
+     */
     public ArrayList<Transacao> getTransacoes() {
-        return this.TRANSACOES;
+        synchronized (trava()) {
+            return new ArrayList<>(this.TRANSACOES);
+        }
     }
 
+    /**
+     * @return cópia das faturas pagas
+     */
     public ArrayList<Fatura> getFaturas() {
-        return FATURAS;
+        synchronized (trava()) {
+            return new ArrayList<>(FATURAS);
+        }
     }
 }
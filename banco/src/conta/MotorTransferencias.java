@@ -0,0 +1,186 @@
+package conta;
+
+import agencia.Agencia;
+import transacao.Transacao;
+import transacao.exceptions.TransacaoException;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Movimenta o saldo entre duas contas de forma atômica.
+ * <p>
+ * As duas contas são travadas sempre na mesma ordem (pelo id da conta), então duas transferências em sentidos
+ * opostos entre as mesmas contas não entram em impasse, e transferências entre pares de contas diferentes
+ * rodam em paralelo, sem trava global. Com as duas travas seguras, o saldo da origem é conferido e debitado no mesmo passo:
+ * nenhuma outra operação da conta (que também trava a conta) consegue gastar o saldo entre a conferência e o débito.
+ * <p>
+ * Toda movimentação segura {@link Agencia#TRAVA_SNAPSHOT} compartilhada, antes das travas das contas, para que o
+ * snapshot nunca grave uma transferência pela metade.
+ */
+public class MotorTransferencias {
+    private static final Object TRAVA_EMPATE = new Object();
+
+    private MotorTransferencias() {
+    }
+
+    /**
+     * Transferência ou depósito feito agora: registra a transação como realizada pela origem, move o valor e
+     * atualiza históricos e notificações.
+     */
+    public static ResultadoTransferencia transferir(Transacao transacao) throws TransacaoException {
+        return executar(transacao, true, true);
+    }
+
+    /**
+     * Transferência agendada que venceu; ela já foi registrada na origem quando foi agendada.
+     */
+    public static ResultadoTransferencia realizarAgendada(Transacao transacao) throws TransacaoException {
+        return executar(transacao, true, false);
+    }
+
+    /**
+     * Reaplica uma transferência do registro de operações. O saldo não é conferido, porque a transferência
+     * já foi aceita antes da queda e precisa ser reproduzida como aconteceu.
+     */
+    public static ResultadoTransferencia reaplicar(Transacao transacao) throws TransacaoException {
+        return executar(transacao, false, true);
+    }
+
+    /**
+     * Lote de transferências com a mesma origem. O saldo da origem é conferido contra o total do lote e debitado
+     * de uma vez, com só a origem travada; depois cada destino é creditado com a trava dele. Como a origem nunca é
+     * travada junto com um destino, o lote não precisa ordenar as travas de centenas de contas.
+     * <p>
+     * Depois do débito nada mais falha: todo destino recebe o crédito, e uma transação que já estiver num histórico
+     * só não é anotada de novo. Assim o lote nunca fica com a origem debitada e parte dos destinos sem crédito.
+     *
+     * @param transacoes transações novas, todas com a mesma origem e valor positivo
+     * @return {@link ResultadoTransferencia#EFETIVADA}, ou {@link ResultadoTransferencia#SALDO_INSUFICIENTE} sem
+     * movimentar nada
+     */
+    public static ResultadoTransferencia transferirLote(Conta origem, List<Transacao> transacoes) {
+        long total = 0;
+        for (Transacao transacao : transacoes) {
+            total = Math.addExact(total, transacao.getValorCentavos());
+        }
+        Agencia.TRAVA_SNAPSHOT.readLock().lock();
+        try {
+            return moverLote(origem, transacoes, total);
+        } finally {
+            Agencia.TRAVA_SNAPSHOT.readLock().unlock();
+        }
+    }
+
+    private static ResultadoTransferencia moverLote(Conta origem, List<Transacao> transacoes, long total) {
+        synchronized (origem) {
+            if (origem.saldoCentavos < total) {
+                return ResultadoTransferencia.SALDO_INSUFICIENTE;
+            }
+            origem.debitar(total);
+            for (Transacao transacao : transacoes) {
+                origem.addTransacaoRealizada(transacao);
+                anotar(origem, transacao, false);
+            }
+        }
+        for (Transacao transacao : transacoes) {
+            Conta destino = transacao.getContaDestino();
+            synchronized (destino) {
+                destino.creditar(transacao.getValorCentavos());
+                anotar(destino, transacao, true);
+            }
+        }
+        return ResultadoTransferencia.EFETIVADA;
+    }
+
+    /**
+     * Anota no histórico (e, no destino, nas notificações) uma transação do lote cujo valor já foi movido.
+     */
+    private static void anotar(Conta conta, Transacao transacao, boolean notificar) {
+        try {
+            conta.addHistorico(transacao);
+            if (notificar) {
+                conta.addNotificacao(transacao);
+            }
+        } catch (TransacaoException ignore) {
+            /* Transacao ja esta no historico */
+        }
+    }
+
+    private static ResultadoTransferencia executar(Transacao transacao, boolean conferirSaldo, boolean registrar) throws TransacaoException {
+        long valor = transacao.getValorCentavos();
+        if (valor <= 0) {
+            return ResultadoTransferencia.VALOR_INVALIDO;
+        }
+        Agencia.TRAVA_SNAPSHOT.readLock().lock();
+        try {
+            return travarEMover(transacao, valor, conferirSaldo, registrar);
+        } finally {
+            Agencia.TRAVA_SNAPSHOT.readLock().unlock();
+        }
+    }
+
+    private static ResultadoTransferencia travarEMover(Transacao transacao, long valor, boolean conferirSaldo, boolean registrar) throws TransacaoException {
+        Conta origem = transacao.getContaOrigem();
+        Conta destino = transacao.getContaDestino();
+        if (origem == destino || origem.equals(destino)) {
+            synchronized (origem) {
+                return mover(transacao, valor, origem, origem, conferirSaldo, registrar);
+            }
+        }
+        int ordem = comparar(origem, destino);
+        if (ordem == 0) {
+            // Contas sem ordem definida: uma trava global escolhe quem trava primeiro
+            synchronized (TRAVA_EMPATE) {
+                synchronized (origem) {
+                    synchronized (destino) {
+                        return mover(transacao, valor, origem, destino, conferirSaldo, registrar);
+                    }
+                }
+            }
+        }
+        Conta primeira = ordem < 0 ? origem : destino;
+        Conta segunda = ordem < 0 ? destino : origem;
+        synchronized (primeira) {
+            synchronized (segunda) {
+                return mover(transacao, valor, origem, destino, conferirSaldo, registrar);
+            }
+        }
+    }
+
+    /**
+     * Ordena as contas pelo id; sem id, ou com ids iguais, pela identidade do objeto.
+     */
+    private static int comparar(Conta primeira, Conta segunda) {
+        int ordem = Objects.toString(primeira.getIdConta(), "").compareTo(Objects.toString(segunda.getIdConta(), ""));
+        if (ordem == 0) {
+            ordem = Integer.compare(System.identityHashCode(primeira), System.identityHashCode(segunda));
+        }
+        return ordem;
+    }
+
+    private static ResultadoTransferencia mover(Transacao transacao, long valor, Conta origem, Conta destino,
+                                                boolean conferirSaldo, boolean registrar) throws TransacaoException {
+        boolean deposito = origem == destino;
+        if (conferirSaldo && !deposito && origem.saldoCentavos < valor) {
+            return ResultadoTransferencia.SALDO_INSUFICIENTE;
+        }
+        if (registrar && !origem.addTransacaoRealizada(transacao)) {
+            return ResultadoTransferencia.JA_REALIZADA;
+        }
+        if (registrar && deposito) {
+            origem.saldoTotalDepositadoCentavos = valor;
+            origem.creditar(valor);
+            origem.addHistorico(transacao);
+            return ResultadoTransferencia.EFETIVADA;
+        }
+        destino.creditar(valor);
+        origem.debitar(valor);
+        if (registrar) {
+            origem.addHistorico(transacao);
+        }
+        destino.addHistorico(transacao);
+        destino.addNotificacao(transacao);
+        return ResultadoTransferencia.EFETIVADA;
+    }
+}
@@ -0,0 +1,8 @@
+package conta;
+
+/**
+ * Item da caixa de notificações da conta ({@link CaixaNotificacoes}): uma transação recebida ou uma fatura
+ * paga no débito automático.
+ */
+public interface Notificacao {
+}
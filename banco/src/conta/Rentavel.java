@@ -1,14 +1,42 @@
 package conta;
 
+import utilsBank.Dinheiro;
+
 public interface Rentavel {
-    Double FATOR_RENDER_STANDARD = 0.0002;
-    Double FATOR_RENDER_PREMIUM = 0.0005;
-    Double FATOR_RENDER_DIAMOND = 0.0008;
-    Double FATOR_RENDER_GUARDADO_STANDARD = 0.0003;
-    Double FATOR_RENDER__GUARDADO_PREMIUM = 0.0007;
-    Double FATOR_RENDER__GUARDADO_DIAMOND = 0.0009;
+    double FATOR_RENDER_STANDARD = 0.0002;
+    double FATOR_RENDER_PREMIUM = 0.0005;
+    double FATOR_RENDER_DIAMOND = 0.0008;
+    double FATOR_RENDER_GUARDADO_STANDARD = 0.0003;
+    double FATOR_RENDER__GUARDADO_PREMIUM = 0.0007;
+    double FATOR_RENDER__GUARDADO_DIAMOND = 0.0009;
 
     void renderSaldo();
 
     void renderDinheiroGuardado();
+
+    /**
+     * Rende o saldo por vários dias de uma vez, compondo o fator diário
+     */
+    void renderSaldo(int dias);
+
+    /**
+     * Rende o dinheiro guardado por vários dias de uma vez, compondo o fator diário
+     */
+    void renderDinheiroGuardado(int dias);
+
+    /**
+     * Rende {@code centavos} por {@code dias} dias numa conta só, com o fator composto {@code (1 + fator)^dias},
+     * e arredonda o rendimento para o centavo uma vez ({@link Dinheiro#rendimento}). Um dia usa o próprio fator,
+     * como o rendimento diário. Como o arredondamento é feito uma vez, o resultado pode diferir em alguns centavos
+     * do de render um dia de cada vez.
+     *
+     * @return o valor rendido, em centavos
+     */
+    static long render(long centavos, double fator, int dias) {
+        if (dias <= 0) {
+            return centavos;
+        }
+        double fatorDias = dias == 1 ? fator : Math.expm1(dias * Math.log1p(fator));
+        return centavos + Dinheiro.rendimento(centavos, fatorDias);
+    }
 }
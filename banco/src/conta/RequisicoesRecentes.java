@@ -0,0 +1,86 @@
+package conta;
+
+import transacao.Transacao;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Chaves de requisição recebidas há pouco por uma conta, cada uma com a transação que gerou.
+ * <p>
+ * Guarda no máximo {@code capacidade} chaves, por no máximo {@code validade} milissegundos cada. As chaves ficam em
+ * ordem de chegada, então a mais antiga está sempre na frente: ao registrar uma chave nova, as vencidas saem pela
+ * frente até a primeira ainda válida, e, se a capacidade estourar, sai a mais antiga. A consulta é feita pela chave,
+ * sem percorrer o histórico da conta.
+ */
+public class RequisicoesRecentes {
+    public static final String PROPRIEDADE_CAPACIDADE = "banco.idempotencia.capacidade";
+    public static final String PROPRIEDADE_VALIDADE = "banco.idempotencia.validade";
+    public static final int CAPACIDADE_PADRAO = 256;
+    public static final long VALIDADE_PADRAO_MS = 15 * 60 * 1000L;
+    private final Map<String, Registro> registros;
+    private final long validade;
+    private final LongSupplier relogio;
+
+    private static class Registro {
+        private final Transacao transacao;
+        private final long instante;
+
+        private Registro(Transacao transacao, long instante) {
+            this.transacao = transacao;
+            this.instante = instante;
+        }
+    }
+
+    protected RequisicoesRecentes() {
+        this(Integer.getInteger(PROPRIEDADE_CAPACIDADE, CAPACIDADE_PADRAO),
+                Long.getLong(PROPRIEDADE_VALIDADE, VALIDADE_PADRAO_MS), System::currentTimeMillis);
+    }
+
+    /**
+     * @param validade tempo, em milissegundos, que uma chave continua valendo depois de registrada
+     * @param relogio  instante atual, em milissegundos
+     */
+    protected RequisicoesRecentes(int capacidade, long validade, LongSupplier relogio) {
+        int limite = Math.max(1, capacidade);
+        this.registros = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Registro> maisAntiga) {
+                return size() > limite;
+            }
+        };
+        this.validade = validade;
+        this.relogio = relogio;
+    }
+
+    /**
+     * @return a transação registrada com a chave, ou {@code null} se a chave não foi vista ou já venceu
+     */
+    public synchronized Transacao buscar(String chave) {
+        Registro registro = this.registros.get(chave);
+        if (registro == null) {
+            return null;
+        }
+        if (this.relogio.getAsLong() - registro.instante >= this.validade) {
+            this.registros.remove(chave);
+            return null;
+        }
+        return registro.transacao;
+    }
+
+    public synchronized void registrar(String chave, Transacao transacao) {
+        long agora = this.relogio.getAsLong();
+        Iterator<Registro> iterador = this.registros.values().iterator();
+        while (iterador.hasNext() && agora - iterador.next().instante >= this.validade) {
+            iterador.remove();
+        }
+        this.registros.remove(chave);
+        this.registros.put(chave, new Registro(transacao, agora));
+    }
+
+    public synchronized int tamanho() {
+        return this.registros.size();
+    }
+}
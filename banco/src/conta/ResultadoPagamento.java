@@ -0,0 +1,42 @@
+package conta;
+
+import interfaceUsuario.dados.DadosPagamento;
+import transacao.Transacao;
+
+/**
+ * Resultado de um pagamento de um lote ({@link Conta#transferirLote}).
+ */
+public class ResultadoPagamento {
+    private final DadosPagamento pagamento;
+    private ResultadoTransferencia resultado;
+    private final Transacao transacao;
+
+    ResultadoPagamento(DadosPagamento pagamento, ResultadoTransferencia resultado, Transacao transacao) {
+        this.pagamento = pagamento;
+        this.resultado = resultado;
+        this.transacao = transacao;
+    }
+
+    void setResultado(ResultadoTransferencia resultado) {
+        this.resultado = resultado;
+    }
+
+    public DadosPagamento getPagamento() {
+        return pagamento;
+    }
+
+    public ResultadoTransferencia getResultado() {
+        return resultado;
+    }
+
+    /**
+     * @return a transação do pagamento; só foi efetivada quando o resultado é {@link ResultadoTransferencia#EFETIVADA}
+     */
+    public Transacao getTransacao() {
+        return transacao;
+    }
+
+    public boolean isEfetivado() {
+        return resultado == ResultadoTransferencia.EFETIVADA;
+    }
+}
@@ -0,0 +1,23 @@
+package conta;
+
+/**
+ * Resultado de uma transferência pelo {@link MotorTransferencias}.
+ */
+public enum ResultadoTransferencia {
+    EFETIVADA("Transferencia efetivada"),
+    SALDO_INSUFICIENTE("Saldo insuficiente para realizar a transferencia"),
+    JA_REALIZADA("Ocorreu algum erro ao realizar a Transacao. Tente novamente"),
+    VALOR_INVALIDO("Valor da transferencia invalido"),
+    DESTINO_NAO_ENCONTRADO("Chave Pix de destino nao encontrada"),
+    MESMA_CONTA("A chave Pix de destino e da propria conta");
+
+    private final String mensagem;
+
+    ResultadoTransferencia(String mensagem) {
+        this.mensagem = mensagem;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+}
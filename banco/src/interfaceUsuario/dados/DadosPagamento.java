@@ -0,0 +1,28 @@
+package interfaceUsuario.dados;
+
+/**
+ * Um pagamento de um lote: chave Pix de quem recebe e o valor.
+ */
+public class DadosPagamento {
+	private final String TIPO_CHAVE;
+	private final String CHAVE;
+	private final Double VALOR;
+
+	public DadosPagamento(String tipoChave, String chave, Double valor) {
+		this.TIPO_CHAVE = tipoChave;
+		this.CHAVE = chave;
+		this.VALOR = valor;
+	}
+
+	public String getTipoChave() {
+		return TIPO_CHAVE;
+	}
+
+	public String getChave() {
+		return CHAVE;
+	}
+
+	public Double getValor() {
+		return VALOR;
+	}
+}
@@ -10,21 +10,29 @@ import cliente.Endereco;
 import cliente.exceptions.GerenteJaExistenteException;
 import cliente.exceptions.GerenteNaoEncontradoException;
 import cliente.exceptions.TiposClientes;
+import conta.Historico;
 import interfaceUsuario.InterfaceUsuario;
 import interfaceUsuario.exceptions.ValorInvalido;
 import interfaceUsuario.verificadores.dados.VerificadorClientes;
+import interfaceUsuario.verificadores.dados.VerificadorData;
 import interfaceUsuario.verificadores.dados.VerificadorEntrada;
 import transacao.Boleto;
 import transacao.Transacao;
 import utilsBank.GerenciadorBanco;
+import utilsBank.arquivo.ArquivoTransacoes;
 import utilsBank.arquivo.exception.EscritaArquivoException;
+import utilsBank.databank.Data;
+import utilsBank.databank.DataBank;
 
-import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
 
 import static interfaceUsuario.menus.MenuUsuario.*;
 import static transacao.Boleto.criarBoleto;
 
 public class MenuClientes {
+    private static final int TRANSACOES_POR_PAGINA = 10;
+
     protected static void menuCliente() {
         boolean loop = true;
         Cliente cliente = InterfaceUsuario.getClienteAtual();
@@ -34,7 +42,7 @@ public class MenuClientes {
         System.out.println("Bem vindo " + cliente.getNome());
 
         while (loop) {
-            int quantidadeNotificacoes = cliente.getConta().getNotificacoes().size();
+            int quantidadeNotificacoes = cliente.getConta().getQuantidadeNotificacoes();
             if (cliente instanceof ClientePessoa) {
                 isClientePessoa = true;
                 imprimirMenu(true, quantidadeNotificacoes);
@@ -43,6 +51,7 @@ public class MenuClientes {
                 imprimirMenu(false, quantidadeNotificacoes);
             }
 
+            boolean snapshotCompleto = true;
             try {
                 String value = TECLADO.nextLine();
                 Transacao t;
@@ -57,6 +66,7 @@ public class MenuClientes {
                         loop = false;
                         break;
                     case "1":
+                        snapshotCompleto = false;
                         System.out.println("SALDO >> " + cliente.getConta().getSaldo());
                         break;
                     case "2":
@@ -64,17 +74,22 @@ public class MenuClientes {
                         break;
                     case "3":
                         MenuTransacoes.receberDadosTransacoes(TRANSFERENCIA, tipoConta);
-                        t = cliente.getConta().transferir();
+                        // Antes da chamada: uma transferência recusada não altera nada fora do registro de operações
+                        snapshotCompleto = false;
+                        t = cliente.getConta().transferir(InterfaceUsuario.getDadosTransacao(), null);
                         t.gerarComprovante();
                         GerenciadorBanco.imprimirDireitos();
                         break;
                     case "4":
                         MenuBoletos.pagarBoleto();
+                        snapshotCompleto = false;
                         System.out.println("Boleto pago!");
                         break;
                     case "5":
                         MenuTransacoes.receberDadosTransacoes(DEPOSITO, tipoConta);
                         t = cliente.getConta().depositar();
+                        Agencia.getInstance().getRegistroOperacoes().registrarTransferencia(t);
+                        snapshotCompleto = false;
                         t.gerarComprovante();
                         GerenciadorBanco.imprimirDireitos();
                         break;
@@ -92,13 +107,20 @@ public class MenuClientes {
                         MenuCartoes.gerenciarCarteira(cliente);
                         break;
                     case "9":
+                        snapshotCompleto = false;
                         System.out.println(cliente.getConta().getChavesPix().toString());
                         break;
                     case "10":
                         MenuTransacoes.adicionarChavePix(tiposClientes);
                         if (cliente.getConta().modificarChavePix()) {
+                            String tipoChave = InterfaceUsuario.getDadosChavePix().getTipoChave();
+                            Agencia.getInstance().getRegistroOperacoes().registrarChavePix(cliente.getIdentificacao(),
+                                    tipoChave, cliente.getConta().getChavesPix().getChave(tipoChave));
+                            snapshotCompleto = false;
                             System.out.println("Chave Pix modificada com sucesso");
                             System.out.println(cliente.getConta().getChavesPix());
+                        } else {
+                            System.out.println("Chave Pix ja cadastrada por outro cliente");
                         }
                         break;
                     case "11":
@@ -108,47 +130,60 @@ public class MenuClientes {
                         System.out.println(boleto);
                         break;
                     case "12":
+                        snapshotCompleto = false;
                         boolean menuLoopHistorico = true;
                         while (menuLoopHistorico) {
 
                             System.out.println("[0]: Cancelar");
                             System.out.println("[1]: Mostrar Transacoes");
                             System.out.println("[2]: Mostrar Faturas");
+                            System.out.println("[3]: Mostrar Transacoes Antigas");
+                            System.out.println("[4]: Mostrar Transacoes Por Periodo");
+                            System.out.println("[5]: Mostrar Transacoes Enviadas");
+                            System.out.println("[6]: Mostrar Transacoes Recebidas");
 
+                            Historico historico = cliente.getConta().getHistorico();
                             switch (TECLADO.nextLine()) {
                                 case "0":
                                     menuLoopHistorico = false;
                                     break;
                                 case "1":
-                                    ArrayList<Transacao> transacoesCliente = cliente.getConta().getHistorico().getTransacoes();
-                                    if (transacoesCliente.isEmpty()) {
-                                        System.out.println("Nenhuma transacao ocorrida.");
-                                    } else {
-                                        for (Transacao transacao : transacoesCliente) {
-                                            imprimirBorda("=");
-                                            System.out.println(transacao);
-                                        }
-                                    }
-
+                                    mostrarPaginas(pagina -> historico.pagina(pagina * TRANSACOES_POR_PAGINA, TRANSACOES_POR_PAGINA),
+                                            "Nenhuma transacao ocorrida.", "Nao ha mais transacoes.");
                                     menuLoopHistorico = false;
                                     break;
                                 case "2":
-                                    ArrayList<Fatura> faturaCliente = cliente.getConta().getHistorico().getFaturas();
-                                    if (faturaCliente.isEmpty()) {
-                                        System.out.println("Nenhuma fatura paga");
-                                    } else {
-                                        for (Fatura fatura : cliente.getConta().getHistorico().getFaturas()) {
-                                            imprimirBorda("=");
-                                            System.out.println(fatura);
-                                        }
-                                    }
-
+                                    List<Fatura> faturas = historico.getFaturas();
+                                    mostrarPaginas(pagina -> faturas.subList(Math.min(pagina * TRANSACOES_POR_PAGINA, faturas.size()),
+                                                    Math.min((pagina + 1) * TRANSACOES_POR_PAGINA, faturas.size())),
+                                            "Nenhuma fatura paga", "Nao ha mais faturas.");
+                                    menuLoopHistorico = false;
+                                    break;
+                                case "3":
+                                    mostrarTransacoesArquivadas(cliente);
+                                    menuLoopHistorico = false;
+                                    break;
+                                case "4":
+                                    mostrarTransacoesPorPeriodo(historico);
+                                    menuLoopHistorico = false;
+                                    break;
+                                case "5":
+                                    mostrarPaginas(pagina -> historico.pagina(cliente.getConta(), Historico.Direcao.ENVIADAS,
+                                                    pagina * TRANSACOES_POR_PAGINA, TRANSACOES_POR_PAGINA),
+                                            "Nenhuma transacao enviada.", "Nao ha mais transacoes enviadas.");
+                                    menuLoopHistorico = false;
+                                    break;
+                                case "6":
+                                    mostrarPaginas(pagina -> historico.pagina(cliente.getConta(), Historico.Direcao.RECEBIDAS,
+                                                    pagina * TRANSACOES_POR_PAGINA, TRANSACOES_POR_PAGINA),
+                                            "Nenhuma transacao recebida.", "Nao ha mais transacoes recebidas.");
                                     menuLoopHistorico = false;
                                     break;
                             }
                         }
                         break;
                     case "13":
+                        snapshotCompleto = false;
                         MenuBoletos.mostrarBoletos();
                         break;
                     case "14":
@@ -189,7 +224,7 @@ public class MenuClientes {
                 System.out.println(ex.getMessage());
             } finally {
                 try {
-                    Agencia.getInstance().atualizarArquivos();
+                    Agencia.getInstance().persistir(snapshotCompleto);
                 } catch (EscritaArquivoException ex) {
                     System.out.println("Ocorreu um erro ao atualizar os nosso banco de dados. Verifique sua conexao e tente novamente.");
                 }
@@ -292,6 +327,62 @@ public class MenuClientes {
         return cliente;
     }
 
+    /**
+     * Pagina as transações que já saíram do histórico em memória, das mais recentes para as mais antigas.
+     */
+    private static void mostrarTransacoesArquivadas(Cliente cliente) throws EscritaArquivoException {
+        ArquivoTransacoes arquivo = Agencia.getInstance().getArquivoTransacoes();
+        mostrarPaginas(pagina -> arquivo.buscarPorConta(cliente.getConta().getIdConta(), pagina, TRANSACOES_POR_PAGINA),
+                "Nenhuma transacao antiga.", "Nao ha mais transacoes antigas.");
+    }
+
+    private static void mostrarTransacoesPorPeriodo(Historico historico) {
+        String[] cabecalhoPeriodo = {
+                "Data inicial (DD/MM/AAAA)",
+                "Data final (DD/MM/AAAA)",
+        };
+        String[] entrada = usuarioEntradas(cabecalhoPeriodo);
+        while (!VerificadorData.verificarDataConsulta(entrada[0]) || !VerificadorData.verificarDataConsulta(entrada[1])) {
+            System.out.println("[DATA INVALIDA]");
+            entrada = usuarioEntradas(cabecalhoPeriodo);
+        }
+        Data inicio = DataBank.criarData(entrada[0], DataBank.SEM_HORA);
+        Data fim = DataBank.restaurarDataDoDia(DataBank.criarData(entrada[1], DataBank.SEM_HORA).getDiaEpoch() + 1);
+        List<Transacao> periodo = historico.entre(inicio, fim);
+        mostrarPaginas(pagina -> periodo.subList(Math.min(pagina * TRANSACOES_POR_PAGINA, periodo.size()),
+                        Math.min((pagina + 1) * TRANSACOES_POR_PAGINA, periodo.size())),
+                "Nenhuma transacao no periodo.", "Nao ha mais transacoes no periodo.");
+    }
+
+    /**
+     * Mostra os itens de {@value #TRANSACOES_POR_PAGINA} em {@value #TRANSACOES_POR_PAGINA}, perguntando antes de cada nova página.
+     *
+     * @param buscarPagina devolve os itens da página informada, começando em 0
+     */
+    private static void mostrarPaginas(IntFunction<List<?>> buscarPagina, String nenhumItem, String semMaisItens) {
+        int pagina = 0;
+        while (true) {
+            List<?> itens = buscarPagina.apply(pagina);
+            if (itens.isEmpty()) {
+                System.out.println(pagina == 0 ? nenhumItem : semMaisItens);
+                return;
+            }
+            for (Object item : itens) {
+                imprimirBorda("=");
+                System.out.println(item);
+            }
+            if (itens.size() < TRANSACOES_POR_PAGINA) {
+                return;
+            }
+            System.out.println("[0]: Voltar");
+            System.out.println("[1]: Proxima pagina");
+            if (!TECLADO.nextLine().equals("1")) {
+                return;
+            }
+            pagina++;
+        }
+    }
+
     private static String identificarNovoGerente() {
         imprimirBorda("=");
         String[] cabecalhoNovoGerente = {
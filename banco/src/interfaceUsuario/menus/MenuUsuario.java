@@ -6,10 +6,11 @@ import cliente.Cliente;
 import cliente.ClienteEmpresa;
 import cliente.exceptions.LoginException;
 import conta.Conta;
+import conta.Notificacao;
 import interfaceUsuario.InterfaceUsuario;
-import transacao.Transacao;
 import utilsBank.GerenciadorBanco;
 
+import java.util.List;
 import java.util.Scanner;
 
 public class MenuUsuario {
@@ -49,6 +50,8 @@ public class MenuUsuario {
                             MenuDebitoAutomatico.escolherDebitoAutomatico(InterfaceUsuario.getClienteAtual().getConta().getCARTEIRA());
                         }
                         InterfaceUsuario.getClienteAtual().setChavesPix();
+                        Agencia.getInstance().getRegistroOperacoes().registrarCliente(InterfaceUsuario.getClienteAtual());
+                        Agencia.getInstance().getRegistroOperacoes().confirmar();
                         MenuClientes.menuCliente();
                         InterfaceUsuario.setClienteAtual(null);
                         break;
@@ -109,35 +112,45 @@ public class MenuUsuario {
 
         String[] entrada = usuarioEntradas(cabecalho);
 
-        ClienteEmpresa clienteEmpresa = Agencia.getInstance().buscarEmpresa(entrada[0]);
+        List<ClienteEmpresa> empresas = Agencia.getInstance().buscarEmpresas(entrada[0]);
         Cliente cliente = null;
         try {
             cliente = Agencia.getInstance().buscarCliente(entrada[0]);
         } catch (BuscaException ex) {
-            if (clienteEmpresa == null) {
+            if (empresas.isEmpty()) {
                 throw ex;
             }
         }
-        if (clienteEmpresa != null && cliente != null) {
+        if (!empresas.isEmpty() && (cliente != null || empresas.size() > 1)) {
             imprimirBorda("=");
             System.out.println("Entrar como:");
             System.out.println("[0] - Cancelar");
-            System.out.println("[1] - Pessoa");
-            System.out.println("[2] - Empresa");
+            if (cliente != null) {
+                System.out.println("[1] - Pessoa");
+            }
+            if (empresas.size() == 1) {
+                System.out.println("[2] - Empresa");
+            } else {
+                for (int i = 0; i < empresas.size(); i++) {
+                    System.out.println("[" + (i + 2) + "] - Empresa " + empresas.get(i).getNome() + " (" + empresas.get(i).getIdentificacao() + ")");
+                }
+            }
             imprimirBorda("=");
             System.out.print("> ");
             String op = TECLADO.nextLine();
-            switch (op) {
-                case "1":
-                    break;
-                case "2":
-                    cliente = clienteEmpresa;
-                    break;
-                default:
-                    throw new LoginException("Login cancelado");
+            int opcao;
+            try {
+                opcao = Integer.parseInt(op);
+            } catch (NumberFormatException ex) {
+                throw new LoginException("Login cancelado");
+            }
+            if (opcao >= 2 && opcao < empresas.size() + 2) {
+                cliente = empresas.get(opcao - 2);
+            } else if (opcao != 1 || cliente == null) {
+                throw new LoginException("Login cancelado");
             }
-        } else if (clienteEmpresa != null) {
-            cliente = clienteEmpresa;
+        } else if (!empresas.isEmpty()) {
+            cliente = empresas.get(0);
         }
         cliente.verificarSenha(entrada[1]);
         InterfaceUsuario.setClienteAtual(cliente);
@@ -147,7 +160,7 @@ public class MenuUsuario {
     protected static void mostrarNotificacoes() {
         Conta contaAtual = InterfaceUsuario.usuarioAtualConta();
         if (contaAtual.hasNotificacoes()) {
-            for (Transacao notificacao : contaAtual.getNotificacoes()) {
+            for (Notificacao notificacao : contaAtual.getNotificacoes()) {
                 System.out.println(notificacao);
             }
         } else {
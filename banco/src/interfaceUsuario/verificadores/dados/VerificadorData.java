@@ -23,6 +23,17 @@ public class VerificadorData {
         throw new ValorInvalido("[DATA INVALIDA]");
     }
 
+    /**
+     * Verifica uma data no formato DD/MM/AAAA digitada para consulta
+     */
+    public static boolean verificarDataConsulta(String entrada) {
+        try {
+            return entrada.split("/").length == 3 && verificarData(entrada);
+        } catch (ValorInvalido ex) {
+            return false;
+        }
+    }
+
     public static boolean verificarDataDebitoAuto(String entrada) {
         try {
             int datavalue = Integer.parseInt(entrada);
@@ -6,8 +6,14 @@ import interfaceUsuario.InterfaceUsuario;
 import interfaceUsuario.dados.DadosBoleto;
 import interfaceUsuario.dados.DadosTransacao;
 import transacao.exceptions.TransacaoException;
+import utilsBank.Dinheiro;
+import utilsBank.arquivo.CodificacaoBinaria;
 import utilsBank.databank.Data;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serial;
 import java.io.Serializable;
 
@@ -16,14 +22,37 @@ public class Boleto extends Transacao implements Serializable {
     private static final long serialVersionUID = 10L;
     private static final String NOME_TRANSACAO = "Boleto";
     private final Data DATA_VENCIMENTO;
-    private final Double MULTA_DIAS;
+    private long multaDiasCentavos;
     private Boolean foiPago;
+    /*
+     * Multa em reais do formato antigo da serialização Java; readObject converte para centavos e a descarta.
+     */
+    private Double MULTA_DIAS;
 
     public Boleto(DadosTransacao dadosTransacao, DadosBoleto dadosBoleto) {
         super(dadosTransacao);
         this.foiPago = dadosBoleto.getFoiPago();
         this.DATA_VENCIMENTO = dadosBoleto.getDataVencimento();
-        this.MULTA_DIAS = Double.valueOf(dadosBoleto.getMultaPorDias());
+        this.multaDiasCentavos = dadosBoleto.getMultaPorDias() * Dinheiro.CENTAVOS_POR_REAL;
+    }
+
+    private Boleto(Double valor, String nossoNumero, String idPagamento, Data dataEmissao, Data dataVencimento, Double multaDias, Boolean foiPago) {
+        super(valor, nossoNumero, idPagamento, null, null, dataEmissao);
+        this.DATA_VENCIMENTO = dataVencimento;
+        this.multaDiasCentavos = Dinheiro.paraCentavos(multaDias);
+        this.foiPago = foiPago;
+    }
+
+    @Override
+    protected void gravarComplemento(DataOutputStream saida) throws IOException {
+        CodificacaoBinaria.escreverData(saida, DATA_VENCIMENTO);
+        CodificacaoBinaria.escreverDouble(saida, getMultaPorDias());
+        saida.writeBoolean(Boolean.TRUE.equals(foiPago));
+    }
+
+    static Boleto lerComplemento(DataInputStream entrada, Double valor, String nossoNumero, String idPagamento, Data dataEmissao) throws IOException {
+        return new Boleto(valor, nossoNumero, idPagamento, dataEmissao,
+                CodificacaoBinaria.lerData(entrada), CodificacaoBinaria.lerDouble(entrada), entrada.readBoolean());
     }
 
     public void pagar(Cliente origem) throws TransacaoException {
@@ -48,16 +77,30 @@ public class Boleto extends Transacao implements Serializable {
         return DATA_VENCIMENTO;
     }
 
+    public boolean isPago() {
+        return Boolean.TRUE.equals(foiPago);
+    }
+
     public double getMultaPorDias() {
-        return MULTA_DIAS;
+        return Dinheiro.paraReais(multaDiasCentavos);
+    }
+
+    /**
+     * Boletos gravados antes dos centavos trazem a multa em reais, que é convertida.
+     */
+    @Serial
+    private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+        entrada.defaultReadObject();
+        if (this.MULTA_DIAS != null) {
+            this.multaDiasCentavos = Dinheiro.paraCentavos(this.MULTA_DIAS);
+            this.MULTA_DIAS = null;
+        }
     }
 
     @Override
     public String toString() {
         String toString = "[" + NOME_TRANSACAO + "]\n";
-        if (VALOR != null) {
-            toString = toString + "VALOR: " + VALOR + "\n";
-        }
+        toString = toString + "VALOR: " + getValor() + "\n";
         if (NOSSO_NUMERO != null) {
             toString = toString + "NUMERO DO BOLETO: " + NOSSO_NUMERO + "\n";
         }
@@ -70,8 +113,8 @@ public class Boleto extends Transacao implements Serializable {
         if (DATA_VENCIMENTO != null) {
             toString = toString + "VENCIMENTO: " + DATA_VENCIMENTO + "\n";
         }
-        if (MULTA_DIAS != 0) {
-            toString = toString + "MULTA POR DIAS: " + MULTA_DIAS + "\n";
+        if (multaDiasCentavos != 0) {
+            toString = toString + "MULTA POR DIAS: " + getMultaPorDias() + "\n";
         }
         if (foiPago != null) {
             if (foiPago) {
@@ -1,8 +1,13 @@
 package transacao;
 
+import agencia.Agencia;
 import interfaceUsuario.dados.DadosChavesPix;
 import utilsBank.GeracaoAleatoria;
+import utilsBank.arquivo.CodificacaoBinaria;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
 
@@ -24,18 +29,66 @@ public class ChavePix implements Serializable {
     public boolean mudarAdicionarChavePix(String tipoDechave, DadosChavesPix dadosChavesPix) {
         switch (tipoDechave) {
             case DadosChavesPix.TELEFONE:
-                this.telefone = dadosChavesPix.getTelefone();
-                return true;
+                return definirChave(tipoDechave, dadosChavesPix.getTelefone());
             case DadosChavesPix.EMAIL:
-                this.email = dadosChavesPix.getEmail();
-                return true;
+                return definirChave(tipoDechave, dadosChavesPix.getEmail());
             case DadosChavesPix.CHAVE_ALEATORIA:
-                this.chaveAleatoria = GeracaoAleatoria.gerarChaveAleatoria(GeracaoAleatoria.TAMANHO_CHAVE_ALEATORIA);
-                return true;
+                return definirChave(tipoDechave, GeracaoAleatoria.gerarChaveAleatoria(GeracaoAleatoria.TAMANHO_CHAVE_ALEATORIA));
         }
         return false;
     }
 
+    /**
+     * Troca o valor de uma chave alterável (telefone, email ou chave aleatória) e avisa a agência.
+     * Também usado para reaplicar uma troca de chave registrada.
+     *
+     * @return {@code false} se a chave já pertence a outro cliente; a chave atual é mantida
+     */
+    public boolean definirChave(String tipoDechave, String chaveNova) {
+        String chaveAntiga;
+        switch (tipoDechave) {
+            case DadosChavesPix.TELEFONE:
+                chaveAntiga = this.telefone;
+                break;
+            case DadosChavesPix.EMAIL:
+                chaveAntiga = this.email;
+                break;
+            case DadosChavesPix.CHAVE_ALEATORIA:
+                chaveAntiga = this.chaveAleatoria;
+                break;
+            default:
+                return false;
+        }
+        if (!Agencia.getInstance().atualizarChavePix(tipoDechave, chaveAntiga, chaveNova, this.identificacao)) {
+            return false;
+        }
+        switch (tipoDechave) {
+            case DadosChavesPix.TELEFONE:
+                this.telefone = chaveNova;
+                break;
+            case DadosChavesPix.EMAIL:
+                this.email = chaveNova;
+                break;
+            default:
+                this.chaveAleatoria = chaveNova;
+        }
+        return true;
+    }
+
+    public String getChave(String tipoDechave) {
+        switch (tipoDechave) {
+            case DadosChavesPix.TELEFONE:
+                return telefone;
+            case DadosChavesPix.EMAIL:
+                return email;
+            case DadosChavesPix.CHAVE_ALEATORIA:
+                return chaveAleatoria;
+            case DadosChavesPix.IDENTIFICACAO:
+                return identificacao;
+        }
+        return null;
+    }
+
     @Override
     public String toString() {
         String toString = "[CHAVES PIX]\n";
@@ -54,6 +107,18 @@ public class ChavePix implements Serializable {
         return toString;
     }
 
+    public void gravar(DataOutputStream saida) throws IOException {
+        CodificacaoBinaria.escreverTexto(saida, telefone);
+        CodificacaoBinaria.escreverTexto(saida, chaveAleatoria);
+        CodificacaoBinaria.escreverTexto(saida, email);
+        CodificacaoBinaria.escreverTexto(saida, identificacao);
+    }
+
+    public static ChavePix ler(DataInputStream entrada) throws IOException {
+        return new ChavePix(CodificacaoBinaria.lerTexto(entrada), CodificacaoBinaria.lerTexto(entrada),
+                CodificacaoBinaria.lerTexto(entrada), CodificacaoBinaria.lerTexto(entrada));
+    }
+
     public String getTelefone() {
         return telefone;
     }
@@ -71,6 +136,8 @@ public class ChavePix implements Serializable {
     }
 
     public void setIdentificacao(String identificacao) {
+        String identificacaoAntiga = this.identificacao;
         this.identificacao = identificacao;
+        Agencia.getInstance().atualizarChavePix(DadosChavesPix.IDENTIFICACAO, identificacaoAntiga, identificacao, identificacao);
     }
 }
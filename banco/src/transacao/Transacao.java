@@ -3,27 +3,43 @@ package transacao;
 import agencia.Agencia;
 import cliente.Cliente;
 import conta.Conta;
+import conta.Notificacao;
 import interfaceUsuario.dados.DadosTransacao;
+import utilsBank.Dinheiro;
 import utilsBank.GeracaoAleatoria;
+import utilsBank.arquivo.CodificacaoBinaria;
 import utilsBank.databank.Data;
 import utilsBank.databank.DataBank;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.Map;
 
-public class Transacao implements Serializable {
+public class Transacao implements Serializable, Notificacao {
 	@Serial
 	private static final long serialVersionUID = 5L;
-	protected final Double VALOR;
+	private static final byte REGISTRO_TRANSACAO = 0;
+	private static final byte REGISTRO_BOLETO = 1;
+	protected long valorCentavos;
 	protected final String NOSSO_NUMERO;
 	protected final String ID_PAGAMENTO;
-	private final Cliente DESTINO; //@Lembrando DESTINO, QUEM RECEBE
+	private Cliente DESTINO; //@Lembrando DESTINO, QUEM RECEBE
 	protected Data dataEmissaoTransacao;
 	protected Cliente origem; //@Lembrando Origem, QUEM MANDOU TAL COISA
 	private Data dataAgendada;
+	private transient String identificacaoDestino;
+	private transient String identificacaoOrigem;
+	/*
+	 * Valor em reais do formato antigo da serialização Java; readObject converte para centavos e o descarta.
+	 */
+	private Double VALOR;
 
 	public Transacao(DadosTransacao dadosTransacao) {
-		this.VALOR = dadosTransacao.getValor();
+		this.valorCentavos = Dinheiro.paraCentavos(dadosTransacao.getValor());
 		this.NOSSO_NUMERO = GeracaoAleatoria.gerarNossosNumeros(25);
 		this.dataEmissaoTransacao = DataBank.criarData(DataBank.COM_HORA);
 		this.ID_PAGAMENTO = Agencia.ID_AGENCIA + Agencia.CODIGO_MOEDA + GeracaoAleatoria.gerarNumeros(4) +
@@ -33,6 +49,23 @@ public class Transacao implements Serializable {
 		this.dataAgendada = null;
 	}
 
+	protected Transacao(Double valor, String nossoNumero, String idPagamento, Cliente destino, Cliente origem, Data dataEmissaoTransacao) {
+		this.valorCentavos = Dinheiro.paraCentavos(valor);
+		this.NOSSO_NUMERO = nossoNumero;
+		this.ID_PAGAMENTO = idPagamento;
+		this.DESTINO = destino;
+		this.origem = origem;
+		this.dataEmissaoTransacao = dataEmissaoTransacao;
+		this.dataAgendada = null;
+	}
+
+	/**
+	 * Recria uma transação já realizada, mantendo a identificação original, sem gerar novos números.
+	 */
+	public static Transacao restaurar(Double valor, String nossoNumero, String idPagamento, Cliente destino, Cliente origem, Data dataEmissaoTransacao) {
+		return new Transacao(valor, nossoNumero, idPagamento, destino, origem, dataEmissaoTransacao);
+	}
+
 	public static Transacao criarTransacaoAgendada(DadosTransacao dadosTransacao, Data dataAgendada) {
 		Transacao transacao = new Transacao(dadosTransacao);
 		transacao.dataAgendada = dataAgendada;
@@ -40,6 +73,82 @@ public class Transacao implements Serializable {
 		return transacao;
 	}
 
+	/**
+	 * Grava a transação no formato binário. Origem e destino são gravados apenas pela identificação
+	 * e religados por {@link #vincularClientes(Map)} depois que todos os clientes forem lidos.
+	 */
+	public void gravar(DataOutputStream saida) throws IOException {
+		saida.writeByte(this instanceof Boleto ? REGISTRO_BOLETO : REGISTRO_TRANSACAO);
+		CodificacaoBinaria.escreverDouble(saida, getValor());
+		CodificacaoBinaria.escreverTexto(saida, NOSSO_NUMERO);
+		CodificacaoBinaria.escreverTexto(saida, ID_PAGAMENTO);
+		CodificacaoBinaria.escreverTexto(saida, DESTINO != null ? DESTINO.getIdentificacao() : null);
+		CodificacaoBinaria.escreverTexto(saida, origem != null ? origem.getIdentificacao() : null);
+		CodificacaoBinaria.escreverData(saida, dataEmissaoTransacao);
+		CodificacaoBinaria.escreverData(saida, dataAgendada);
+		gravarComplemento(saida);
+	}
+
+	protected void gravarComplemento(DataOutputStream saida) throws IOException {
+	}
+
+	/**
+	 * Lê uma transação gravada por {@link #gravar(DataOutputStream)}. A mesma transação aparece no registro
+	 * da origem e no do destino; pelo nosso número as duas leituras resultam no mesmo objeto.
+	 *
+	 * @param lidas transações já lidas, indexadas pelo nosso número
+	 */
+	public static Transacao ler(DataInputStream entrada, Map<String, Transacao> lidas) throws IOException {
+		byte tipo = entrada.readByte();
+		Double valor = CodificacaoBinaria.lerDouble(entrada);
+		String nossoNumero = CodificacaoBinaria.lerTexto(entrada);
+		String idPagamento = CodificacaoBinaria.lerTexto(entrada);
+		String identificacaoDestino = CodificacaoBinaria.lerTexto(entrada);
+		String identificacaoOrigem = CodificacaoBinaria.lerTexto(entrada);
+		Data dataEmissao = CodificacaoBinaria.lerData(entrada);
+		Data dataAgendada = CodificacaoBinaria.lerData(entrada);
+		Transacao transacao = (tipo == REGISTRO_BOLETO)
+				? Boleto.lerComplemento(entrada, valor, nossoNumero, idPagamento, dataEmissao)
+				: new Transacao(valor, nossoNumero, idPagamento, null, null, dataEmissao);
+
+		if (nossoNumero != null && lidas.containsKey(nossoNumero)) {
+			return lidas.get(nossoNumero);
+		}
+		transacao.dataAgendada = dataAgendada;
+		transacao.identificacaoDestino = identificacaoDestino;
+		transacao.identificacaoOrigem = identificacaoOrigem;
+		if (nossoNumero != null) {
+			lidas.put(nossoNumero, transacao);
+		}
+		return transacao;
+	}
+
+	/**
+	 * Religa origem e destino de uma transação lida do formato binário.
+	 *
+	 * @param clientes clientes carregados, indexados pela identificação
+	 */
+	public void vincularClientes(Map<String, Cliente> clientes) {
+		if (this.DESTINO == null && this.identificacaoDestino != null) {
+			this.DESTINO = clientes.get(this.identificacaoDestino);
+		}
+		if (this.origem == null && this.identificacaoOrigem != null) {
+			this.origem = clientes.get(this.identificacaoOrigem);
+		}
+	}
+
+	/**
+	 * Transações gravadas antes dos centavos trazem o valor em reais, que é convertido.
+	 */
+	@Serial
+	private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+		entrada.defaultReadObject();
+		if (this.VALOR != null) {
+			this.valorCentavos = Dinheiro.paraCentavos(this.VALOR);
+			this.VALOR = null;
+		}
+	}
+
 	public void atualizar() {
 		this.dataEmissaoTransacao = this.dataAgendada;
 		this.dataAgendada = null;
@@ -49,16 +158,29 @@ public class Transacao implements Serializable {
 		System.out.println(this);
 	}
 
-	public boolean equals(Transacao outroT) {
-		return this.getNossoNumero().equals(outroT.NOSSO_NUMERO);
+	/**
+	 * Transações (e boletos) são iguais quando têm o mesmo nosso número. Sem nosso número, vale a identidade do objeto.
+	 */
+	@Override
+	public boolean equals(Object outro) {
+		if (this == outro) {
+			return true;
+		}
+		if (!(outro instanceof Transacao outroT) || this.NOSSO_NUMERO == null) {
+			return false;
+		}
+		return this.NOSSO_NUMERO.equals(outroT.NOSSO_NUMERO);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.NOSSO_NUMERO != null ? this.NOSSO_NUMERO.hashCode() : System.identityHashCode(this);
 	}
 
 	@Override
 	public String toString() {
 		String toString = "[TRANSACAO]\n";
-		if (VALOR != null) {
-			toString = toString + "VALOR: " + VALOR + "\n";
-		}
+		toString = toString + "VALOR: " + getValor() + "\n";
 		if (ID_PAGAMENTO != null) {
 			toString = toString + "IDENTIFICACAO DA TRANSACAO: " + ID_PAGAMENTO + "\n";
 		}
@@ -94,7 +216,11 @@ public class Transacao implements Serializable {
 	}
 
 	public Double getValor() {
-		return VALOR;
+		return Dinheiro.paraReais(valorCentavos);
+	}
+
+	public long getValorCentavos() {
+		return valorCentavos;
 	}
 
 	public String getNossoNumero() {
@@ -105,5 +231,17 @@ public class Transacao implements Serializable {
 		return DESTINO.getConta();
 	}
 
+	public String getIdPagamento() {
+		return ID_PAGAMENTO;
+	}
+
+	public Cliente getDestino() {
+		return DESTINO;
+	}
+
+	public Cliente getOrigem() {
+		return origem;
+	}
+
 
 }
@@ -0,0 +1,79 @@
+package transacao;
+
+import utilsBank.Dinheiro;
+import utilsBank.databank.Data;
+import utilsBank.databank.DataBank;
+
+/**
+ * Transação antiga lida do arquivo de transações. Guarda apenas os dados do registro de largura fixa
+ * (contas por id, datas por dia), sem referências aos clientes.
+ */
+public class TransacaoArquivada {
+	private final long valorCentavos;
+	private final String nossoNumero;
+	private final String idContaOrigem;
+	private final String idContaDestino;
+	private final long diaEmissao;
+	private final long diaAgendado;
+
+	public TransacaoArquivada(long valorCentavos, String nossoNumero, String idContaOrigem, String idContaDestino, long diaEmissao, long diaAgendado) {
+		this.valorCentavos = valorCentavos;
+		this.nossoNumero = nossoNumero;
+		this.idContaOrigem = idContaOrigem;
+		this.idContaDestino = idContaDestino;
+		this.diaEmissao = diaEmissao;
+		this.diaAgendado = diaAgendado;
+	}
+
+	public double getValor() {
+		return Dinheiro.paraReais(valorCentavos);
+	}
+
+	public long getValorCentavos() {
+		return valorCentavos;
+	}
+
+	public String getNossoNumero() {
+		return nossoNumero;
+	}
+
+	public String getIdContaOrigem() {
+		return idContaOrigem;
+	}
+
+	public String getIdContaDestino() {
+		return idContaDestino;
+	}
+
+	public Data getDataEmissao() {
+		return DataBank.restaurarDataDoDia(diaEmissao);
+	}
+
+	public boolean hasDataAgendada() {
+		return diaAgendado >= 0;
+	}
+
+	public Data getDataAgendada() {
+		return hasDataAgendada() ? DataBank.restaurarDataDoDia(diaAgendado) : null;
+	}
+
+	@Override
+	public String toString() {
+		String toString = "[TRANSACAO ARQUIVADA]\n";
+		toString = toString + "VALOR: " + getValor() + "\n";
+		if (nossoNumero != null) {
+			toString = toString + "NOSSO NUMERO: " + nossoNumero + "\n";
+		}
+		if (idContaOrigem != null) {
+			toString = toString + "CONTA DE ORIGEM: " + idContaOrigem + "\n";
+		}
+		if (idContaDestino != null) {
+			toString = toString + "CONTA DE DESTINO: " + idContaDestino + "\n";
+		}
+		if (hasDataAgendada()) {
+			toString = toString + "DATA AGENDADA PARA A TRANSACAO: " + getDataAgendada().toString(new int[]{DataBank.SEM_HORA}) + "\n";
+		}
+		toString = toString + "DATA EMISSAO DA TRANSACAO: " + getDataEmissao().toString(new int[]{DataBank.SEM_HORA}) + "\n";
+		return toString;
+	}
+}
@@ -0,0 +1,237 @@
+package utilsBank;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Alocação dos ids de conta num mapa de bits: um bit por id possível, ligado quando o id já foi usado.
+ * <p>
+ * Com 4 dígitos o espaço inteiro cabe em 10.000 bits (1,25 KB no arquivo). O id livre é escolhido a partir de
+ * uma posição sorteada com {@link BitSet#nextClearBit(int)}, sem sortear de novo quando há colisão, e o espaço
+ * cheio gera um erro claro em vez de um laço infinito.
+ * <p>
+ * Arquivo: assinatura (int), quantidade de dígitos (int) e as palavras do mapa (long). Para ampliar o tamanho
+ * do id basta aumentar os dígitos: os bits continuam nos mesmos números, então os ids antigos seguem reservados
+ * e nenhum id novo repete o valor de um antigo.
+ */
+public class AlocadorIdConta {
+    public static final int ASSINATURA = 0x42494341;
+    public static final int MAXIMO_DIGITOS = 8;
+    private final String path;
+    private final Set<String> emitidosAntes;
+    private final Random aleatorio;
+    private boolean carregado;
+    private int digitos;
+    private BitSet usados;
+    private int quantidadeUsados;
+
+    /**
+     * @param digitos       tamanho mínimo dos ids; um arquivo gravado com mais dígitos mantém o tamanho dele
+     * @param emitidosAntes ids emitidos pela geração aleatória antiga, marcados como usados na primeira carga
+     */
+    public AlocadorIdConta(String path, int digitos, Set<String> emitidosAntes) {
+        validarDigitos(digitos);
+        this.path = path;
+        this.digitos = digitos;
+        this.emitidosAntes = emitidosAntes;
+        this.aleatorio = new Random();
+    }
+
+    /**
+     * @param digitos quantidade de dígitos pedida; se for maior que a atual o espaço é ampliado antes
+     * @return um id livre, com zeros à esquerda até a quantidade de dígitos atual
+     */
+    public synchronized String alocar(int digitos) {
+        carregar();
+        if (digitos > this.digitos) {
+            ampliarEspaco(digitos);
+        }
+        int dominio = dominio(this.digitos);
+        if (this.quantidadeUsados >= dominio) {
+            throw new RuntimeException("Todos os " + dominio + " ids de conta de " + this.digitos
+                    + " digitos ja foram usados; aumente banco.conta.digitos");
+        }
+        int id = this.usados.nextClearBit(this.aleatorio.nextInt(dominio));
+        if (id >= dominio) {
+            id = this.usados.nextClearBit(0);
+        }
+        this.usados.set(id);
+        this.quantidadeUsados++;
+        salvar();
+        return formatar(id);
+    }
+
+    /**
+     * Marca como usados ids que já existem, por exemplo os das contas carregadas do arquivo de clientes.
+     * O mapa só é gravado se algum id ainda não estava marcado.
+     *
+     * @return quantidade de ids que não estavam marcados
+     */
+    public synchronized int marcar(Collection<String> ids) {
+        carregar();
+        int marcados = 0;
+        for (String id : ids) {
+            int valor = valor(id);
+            if (valor < 0 || this.usados.get(valor)) {
+                continue;
+            }
+            if (valor >= dominio(this.digitos)) {
+                ampliarEspaco(id.length());
+            }
+            this.usados.set(valor);
+            marcados++;
+        }
+        if (marcados > 0) {
+            this.quantidadeUsados += marcados;
+            salvar();
+        }
+        return marcados;
+    }
+
+    /**
+     * Aumenta o tamanho dos ids mantendo os já usados.
+     */
+    public synchronized void ampliar(int novosDigitos) {
+        carregar();
+        if (novosDigitos > this.digitos) {
+            ampliarEspaco(novosDigitos);
+            salvar();
+        }
+    }
+
+    public synchronized int getDigitos() {
+        carregar();
+        return this.digitos;
+    }
+
+    public synchronized int getLivres() {
+        carregar();
+        return dominio(this.digitos) - this.quantidadeUsados;
+    }
+
+    private void ampliarEspaco(int novosDigitos) {
+        validarDigitos(novosDigitos);
+        this.digitos = novosDigitos;
+    }
+
+    private void carregar() {
+        if (this.carregado) {
+            return;
+        }
+        try (DataInputStream arquivo = new DataInputStream(new FileInputStream(this.path))) {
+            if (arquivo.readInt() != ASSINATURA) {
+                throw new RuntimeException("Arquivo de ids de conta " + this.path + " invalido");
+            }
+            int digitosGravados = arquivo.readInt();
+            validarDigitos(digitosGravados);
+            long[] palavras = new long[quantidadePalavras(digitosGravados)];
+            for (int i = 0; i < palavras.length; i++) {
+                palavras[i] = arquivo.readLong();
+            }
+            this.digitos = Math.max(this.digitos, digitosGravados);
+            this.usados = BitSet.valueOf(palavras);
+        } catch (FileNotFoundException ex) {
+            /* Primeira carga: os ids da geracao antiga passam para o mapa */
+            this.usados = new BitSet(dominio(this.digitos));
+            if (this.emitidosAntes != null) {
+                for (String id : this.emitidosAntes) {
+                    int valor = valor(id);
+                    if (valor >= 0 && valor < dominio(MAXIMO_DIGITOS)) {
+                        this.digitos = Math.max(this.digitos, id.length());
+                        this.usados.set(valor);
+                    }
+                }
+            }
+        } catch (EOFException ex) {
+            throw new RuntimeException("Arquivo de ids de conta " + this.path + " incompleto");
+        } catch (IOException ex) {
+            throw new RuntimeException("Arquivo de ids de conta " + this.path + " nao pode ser acessado");
+        }
+        this.quantidadeUsados = this.usados.cardinality();
+        this.carregado = true;
+    }
+
+    /**
+     * Regrava o mapa inteiro num arquivo temporário e o move para o lugar do anterior.
+     */
+    private void salvar() {
+        Path destino = Paths.get(this.path);
+        Path temporario = Paths.get(this.path + ".tmp");
+        long[] palavras = this.usados.toLongArray();
+        ByteBuffer conteudo = ByteBuffer.allocate(2 * Integer.BYTES + quantidadePalavras(this.digitos) * Long.BYTES);
+        conteudo.putInt(ASSINATURA).putInt(this.digitos);
+        for (int i = 0; i < quantidadePalavras(this.digitos); i++) {
+            conteudo.putLong(i < palavras.length ? palavras[i] : 0L);
+        }
+        conteudo.flip();
+        try {
+            if (destino.getParent() != null) {
+                Files.createDirectories(destino.getParent());
+            }
+            try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (conteudo.hasRemaining()) {
+                    canal.write(conteudo);
+                }
+                canal.force(true);
+            }
+            Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new RuntimeException("Ids de conta nao podem ser gravados em " + this.path);
+        }
+    }
+
+    private String formatar(int id) {
+        StringBuilder texto = new StringBuilder(Integer.toString(id));
+        while (texto.length() < this.digitos) {
+            texto.insert(0, '0');
+        }
+        return texto.toString();
+    }
+
+    /**
+     * @return o número do id, ou -1 se não for um id numérico que caiba no mapa
+     */
+    private static int valor(String id) {
+        if (id == null || id.isEmpty() || id.length() > MAXIMO_DIGITOS) {
+            return -1;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            if (id.charAt(i) < '0' || id.charAt(i) > '9') {
+                return -1;
+            }
+        }
+        return Integer.parseInt(id);
+    }
+
+    private static void validarDigitos(int digitos) {
+        if (digitos < 1 || digitos > MAXIMO_DIGITOS) {
+            throw new IllegalArgumentException("Quantidade de digitos do id de conta invalida: " + digitos);
+        }
+    }
+
+    private static int dominio(int digitos) {
+        int resultado = 1;
+        for (int i = 0; i < digitos; i++) {
+            resultado *= 10;
+        }
+        return resultado;
+    }
+
+    private static int quantidadePalavras(int digitos) {
+        return (dominio(digitos) + Long.SIZE - 1) / Long.SIZE;
+    }
+}
@@ -0,0 +1,42 @@
+package utilsBank;
+
+/**
+ * Conversões dos valores monetários, guardados em centavos num {@code long}.
+ * <p>
+ * Somas e subtrações em centavos são exatas e não alocam, então os totais fecham sem sobra de arredondamento.
+ * Reais viram centavos arredondando para o centavo mais próximo. Rendimentos são calculados em ponto flutuante e
+ * arredondados para o centavo pela regra bancária (metade para o par, {@link java.math.RoundingMode#HALF_EVEN}),
+ * uma vez a cada aplicação do fator.
+ */
+public class Dinheiro {
+    public static final long CENTAVOS_POR_REAL = 100;
+
+    private Dinheiro() {
+    }
+
+    /**
+     * @param reais valor em reais; {@code null} vale zero
+     * @return o valor em centavos, arredondado para o centavo mais próximo
+     * @throws IllegalArgumentException caso o valor seja infinito ou NaN
+     */
+    public static long paraCentavos(Double reais) {
+        if (reais == null) {
+            return 0;
+        }
+        if (!Double.isFinite(reais)) {
+            throw new IllegalArgumentException("Valor invalido: " + reais);
+        }
+        return Math.round(reais * CENTAVOS_POR_REAL);
+    }
+
+    public static double paraReais(long centavos) {
+        return (double) centavos / CENTAVOS_POR_REAL;
+    }
+
+    /**
+     * @return {@code centavos * fator}, arredondado para o centavo pela regra bancária
+     */
+    public static long rendimento(long centavos, double fator) {
+        return (long) Math.rint(centavos * fator);
+    }
+}
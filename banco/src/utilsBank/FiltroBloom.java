@@ -0,0 +1,91 @@
+package utilsBank;
+
+import java.util.Collection;
+
+/**
+ * Filtro de Bloom de Strings: responde "com certeza não contém" ou "talvez contenha".
+ * <p>
+ * Usado na frente do conjunto exato de chaves: uma chave nova quase sempre é descartada pelo filtro sem
+ * consultar o conjunto, que só é lido nos falsos positivos. As posições vêm de dois hashes de 64 bits
+ * combinados ({@code h1 + i * h2}).
+ */
+public class FiltroBloom {
+    private final long[] bits;
+    private final int quantidadeBits;
+    private final int quantidadeHashes;
+    private final int capacidade;
+    private int quantidade;
+
+    /**
+     * @param capacidade         quantidade de elementos esperada
+     * @param taxaFalsoPositivo  taxa de falsos positivos desejada com a capacidade cheia, entre 0 e 1
+     */
+    public FiltroBloom(int capacidade, double taxaFalsoPositivo) {
+        if (capacidade < 1 || taxaFalsoPositivo <= 0 || taxaFalsoPositivo >= 1) {
+            throw new IllegalArgumentException("Capacidade ou taxa de falso positivo invalida");
+        }
+        double ln2 = Math.log(2);
+        long bitsNecessarios = (long) Math.ceil(-capacidade * Math.log(taxaFalsoPositivo) / (ln2 * ln2));
+        this.quantidadeBits = (int) Math.min(Integer.MAX_VALUE - Long.SIZE, Math.max(Long.SIZE, bitsNecessarios));
+        this.quantidadeHashes = Math.max(1, (int) Math.round((double) this.quantidadeBits / capacidade * ln2));
+        this.bits = new long[(this.quantidadeBits + Long.SIZE - 1) / Long.SIZE];
+        this.capacidade = capacidade;
+    }
+
+    public static FiltroBloom de(Collection<String> elementos, int capacidadeMinima, double taxaFalsoPositivo) {
+        FiltroBloom filtro = new FiltroBloom(Math.max(capacidadeMinima, 2 * elementos.size()), taxaFalsoPositivo);
+        for (String elemento : elementos) {
+            filtro.adicionar(elemento);
+        }
+        return filtro;
+    }
+
+    public void adicionar(String elemento) {
+        long h1 = hash(elemento);
+        long h2 = misturar(h1);
+        for (int i = 0; i < this.quantidadeHashes; i++) {
+            int posicao = (int) Long.remainderUnsigned(h1 + i * h2, this.quantidadeBits);
+            this.bits[posicao >>> 6] |= 1L << posicao;
+        }
+        this.quantidade++;
+    }
+
+    public boolean talvezContenha(String elemento) {
+        long h1 = hash(elemento);
+        long h2 = misturar(h1);
+        for (int i = 0; i < this.quantidadeHashes; i++) {
+            int posicao = (int) Long.remainderUnsigned(h1 + i * h2, this.quantidadeBits);
+            if ((this.bits[posicao >>> 6] & (1L << posicao)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return {@code true} quando já recebeu mais elementos do que a capacidade e a taxa de falsos positivos passou da pedida.
+     */
+    public boolean isCheio() {
+        return this.quantidade > this.capacidade;
+    }
+
+    public int getCapacidade() {
+        return this.capacidade;
+    }
+
+    private static long hash(String elemento) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < elemento.length(); i++) {
+            hash ^= elemento.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private static long misturar(long valor) {
+        long z = valor + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return (z ^ (z >>> 31)) | 1;
+    }
+}
@@ -2,20 +2,47 @@ package utilsBank;
 
 import utilsBank.arquivo.GerenciadorArquivo;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Random;
 import java.util.Set;
 
+/**
+ * Geração de números e chaves do banco.
+ * <p>
+ * Nossos números e números de cartão vêm de contadores permutados ({@link GeradorSequencial}), que só gravam
+ * o limite do bloco reservado, e os ids de conta de um mapa de bits ({@link AlocadorIdConta}).
+ * Com {@code -Dbanco.geracao.aleatoria=true} volta a geração antiga: dígitos sorteados, conferidos no conjunto
+ * de ids emitidos e gravados no arquivo do conjunto a cada id. O sorteio também descarta os ids que o contador
+ * pode ter emitido ({@link GeradorSequencial#jaEmitido(String)}), então a troca vale nos dois sentidos.
+ * <p>
+ * As chaves aleatórias do Pix são sorteadas por {@link GeradorChaves} e conferidas primeiro num {@link FiltroBloom};
+ * o conjunto exato só é consultado quando o filtro acusa uma possível repetição, e é gravado a cada
+ * {@code banco.chaves.lote} chaves novas (padrão 100) e na atualização dos arquivos.
+ */
 public class GeracaoAleatoria {
-    public static final int TAMANHO_ID_CONTA = 4;
+    public static final int TAMANHO_ID_CONTA = Integer.getInteger("banco.conta.digitos", 4);
     public static final int TAMANHO_CHAVE_ALEATORIA = 48;
     private static final int NUMERO_CARTAO_SEM_AGENCIA = 12;
     private static final Set<String> CHAVES_NOSSO_NUMEROS = GerenciadorGeracaoAleatoria.inicializarGeracaoAleatoria(GerenciadorArquivo.PATH_CHAVES_NOSSO_NUMEROS);
     private static final Set<String> CHAVES_GERADAS_ALEATORIA = GerenciadorGeracaoAleatoria.inicializarGeracaoAleatoria(GerenciadorArquivo.PATH_CHAVES_GERADAS_ALEATORIA);
     private static final Set<String> CHAVES_GERADAS_NUMERO_CARTAO = GerenciadorGeracaoAleatoria.inicializarGeracaoAleatoria(GerenciadorArquivo.PATH_CHAVES_GERADAS_NUMERO_CARTAO);
     private static final Set<String> CHAVES_ID_CONTA = GerenciadorGeracaoAleatoria.inicializarGeracaoAleatoria(GerenciadorArquivo.PATH_CHAVES_ID_CONTA);
+    private static final boolean GERACAO_ALEATORIA = Boolean.getBoolean("banco.geracao.aleatoria");
+    private static final GeradorSequencial NOSSOS_NUMEROS = new GeradorSequencial(GerenciadorArquivo.PATH_CONTADOR_NOSSO_NUMEROS, CHAVES_NOSSO_NUMEROS);
+    private static final GeradorSequencial NUMEROS_CARTAO = new GeradorSequencial(GerenciadorArquivo.PATH_CONTADOR_NUMERO_CARTAO, CHAVES_GERADAS_NUMERO_CARTAO);
+    private static final AlocadorIdConta IDS_CONTA = new AlocadorIdConta(GerenciadorArquivo.PATH_MAPA_ID_CONTA, TAMANHO_ID_CONTA, CHAVES_ID_CONTA);
+    private static final int LOTE_CHAVES = Integer.getInteger("banco.chaves.lote", 100);
+    private static final int CAPACIDADE_MINIMA_FILTRO = 1 << 16;
+    private static final double FALSO_POSITIVO_FILTRO = 0.01;
+    private static final GeradorChaves GERADOR_CHAVES = new GeradorChaves();
+    private static FiltroBloom filtroChaves = FiltroBloom.de(CHAVES_GERADAS_ALEATORIA, CAPACIDADE_MINIMA_FILTRO, FALSO_POSITIVO_FILTRO);
+    private static int chavesNaoSalvas;
 
     public static String gerarNossosNumeros(int quantidadeNumeros) {
+        if (!GERACAO_ALEATORIA) {
+            return NOSSOS_NUMEROS.proximo(quantidadeNumeros);
+        }
         Random random = new Random();
         StringBuilder numberRandom;
         do {
@@ -24,7 +51,7 @@ public class GeracaoAleatoria {
                 numberRandom.append(random.nextInt(10));
             }
 
-        } while (CHAVES_NOSSO_NUMEROS.contains(String.valueOf(numberRandom)));
+        } while (CHAVES_NOSSO_NUMEROS.contains(String.valueOf(numberRandom)) || NOSSOS_NUMEROS.jaEmitido(String.valueOf(numberRandom)));
 
         CHAVES_NOSSO_NUMEROS.add(String.valueOf(numberRandom));
         GerenciadorGeracaoAleatoria.salvandoGeracaoAleatoria(GerenciadorArquivo.PATH_CHAVES_NOSSO_NUMEROS, (HashSet<String>) CHAVES_NOSSO_NUMEROS);
@@ -44,6 +71,9 @@ public class GeracaoAleatoria {
     }
 
     public static String gerarNumeroCartao() {
+        if (!GERACAO_ALEATORIA) {
+            return NUMEROS_CARTAO.proximo(NUMERO_CARTAO_SEM_AGENCIA);
+        }
         Random random = new Random();
         StringBuilder numberRandom;
         do {
@@ -52,33 +82,52 @@ public class GeracaoAleatoria {
                 numberRandom.append(random.nextInt(10));
             }
 
-        } while (CHAVES_GERADAS_NUMERO_CARTAO.contains(String.valueOf(numberRandom)));
+        } while (CHAVES_GERADAS_NUMERO_CARTAO.contains(String.valueOf(numberRandom)) || NUMEROS_CARTAO.jaEmitido(String.valueOf(numberRandom)));
 
         CHAVES_GERADAS_NUMERO_CARTAO.add((String.valueOf(numberRandom)));
         GerenciadorGeracaoAleatoria.salvandoGeracaoAleatoria(GerenciadorArquivo.PATH_CHAVES_GERADAS_NUMERO_CARTAO, (HashSet<String>) CHAVES_GERADAS_NUMERO_CARTAO);
         return String.valueOf(numberRandom);
     }
 
-    public static String gerarChaveAleatoria(int tamanhoChave) {
-        String caracteres = "abcdefghijklmnopqrstuvwxyz1234567890";
-        if (CHAVES_GERADAS_ALEATORIA.size() < Math.pow(caracteres.length(), tamanhoChave)) {
-            Random aleatorio = new Random();
-            String chaveAleatoria;
-            do {
-                chaveAleatoria = "";
-                for (int i = 0; i < tamanhoChave; i++) {
-                    chaveAleatoria += caracteres.charAt(aleatorio.nextInt(caracteres.length()));
-                }
-            } while (!CHAVES_GERADAS_ALEATORIA.add(chaveAleatoria));
-            GerenciadorGeracaoAleatoria.salvandoGeracaoAleatoria(GerenciadorArquivo.PATH_CHAVES_GERADAS_ALEATORIA, (HashSet<String>) CHAVES_GERADAS_ALEATORIA);
-            return chaveAleatoria;
-        } else {
+    public static synchronized String gerarChaveAleatoria(int tamanhoChave) {
+        if (CHAVES_GERADAS_ALEATORIA.size() >= GeradorChaves.combinacoes(tamanhoChave)) {
             throw new RuntimeException("Tamanho maximo de chaves atingido");
         }
+        String chaveAleatoria;
+        do {
+            chaveAleatoria = GERADOR_CHAVES.gerar(tamanhoChave);
+        } while (filtroChaves.talvezContenha(chaveAleatoria) && CHAVES_GERADAS_ALEATORIA.contains(chaveAleatoria));
+        registrarChaveAleatoria(chaveAleatoria);
+        if (++chavesNaoSalvas >= LOTE_CHAVES) {
+            salvarChavesAleatorias();
+        }
+        return chaveAleatoria;
+    }
 
+    /**
+     * Marca como usadas as chaves aleatórias já existentes; cobre as chaves de um lote que não chegou a ser gravado.
+     */
+    public static synchronized void reservarChavesAleatorias(Collection<String> chaves) {
+        for (String chave : chaves) {
+            if (!CHAVES_GERADAS_ALEATORIA.contains(chave)) {
+                registrarChaveAleatoria(chave);
+            }
+        }
+    }
+
+    private static void registrarChaveAleatoria(String chave) {
+        CHAVES_GERADAS_ALEATORIA.add(chave);
+        if (filtroChaves.isCheio()) {
+            filtroChaves = FiltroBloom.de(CHAVES_GERADAS_ALEATORIA, 2 * filtroChaves.getCapacidade(), FALSO_POSITIVO_FILTRO);
+        } else {
+            filtroChaves.adicionar(chave);
+        }
     }
 
     public static String gerarIdConta(int quantidadeDeNumeros) {
+        if (!GERACAO_ALEATORIA) {
+            return IDS_CONTA.alocar(quantidadeDeNumeros);
+        }
         Random random = new Random();
         StringBuilder numberRandom;
         do {
@@ -95,6 +144,17 @@ public class GeracaoAleatoria {
         return numberRandom.toString();
     }
 
+    /**
+     * Marca como usados os ids de contas já existentes, para que nenhuma conta nova receba um deles.
+     */
+    public static void reservarIdsContas(Collection<String> idsContas) {
+        if (GERACAO_ALEATORIA) {
+            CHAVES_ID_CONTA.addAll(idsContas);
+        } else {
+            IDS_CONTA.marcar(idsContas);
+        }
+    }
+
     public static void salvarNossosNumeros() {
         GerenciadorGeracaoAleatoria.salvandoGeracaoAleatoria(GerenciadorArquivo.PATH_CHAVES_NOSSO_NUMEROS, (HashSet<String>) CHAVES_NOSSO_NUMEROS);
     }
@@ -103,7 +163,8 @@ public class GeracaoAleatoria {
         GerenciadorGeracaoAleatoria.salvandoGeracaoAleatoria(GerenciadorArquivo.PATH_CHAVES_GERADAS_NUMERO_CARTAO, (HashSet<String>) CHAVES_GERADAS_NUMERO_CARTAO);
     }
 
-    public static void salvarChavesAleatorias() {
+    public static synchronized void salvarChavesAleatorias() {
+        chavesNaoSalvas = 0;
         GerenciadorGeracaoAleatoria.salvandoGeracaoAleatoria(GerenciadorArquivo.PATH_CHAVES_GERADAS_ALEATORIA, (HashSet<String>) CHAVES_GERADAS_ALEATORIA);
     }
 
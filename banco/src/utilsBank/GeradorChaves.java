@@ -0,0 +1,72 @@
+package utilsBank;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Sorteia chaves alfanuméricas direto num {@code char[]}, sem concatenar Strings.
+ * <p>
+ * Cada sorteio de 64 bits (uniforme em [0, 36^12)) rende 12 caracteres, então uma chave de 48 caracteres custa
+ * quatro sorteios. Sem fonte informada usa o {@link ThreadLocalRandom} da thread; para chaves que não podem ser
+ * previsíveis basta passar um {@link java.security.SecureRandom}.
+ */
+public class GeradorChaves {
+    public static final String CARACTERES = "abcdefghijklmnopqrstuvwxyz1234567890";
+    private static final char[] ALFABETO = CARACTERES.toCharArray();
+    private static final int CARACTERES_POR_SORTEIO = 12;
+    private static final long LIMITE_SORTEIO = combinacoes(CARACTERES_POR_SORTEIO);
+    private final RandomGenerator fonte;
+    private final ThreadLocal<char[]> buffer;
+
+    public GeradorChaves() {
+        this(null);
+    }
+
+    public GeradorChaves(RandomGenerator fonte) {
+        this.fonte = fonte;
+        this.buffer = ThreadLocal.withInitial(() -> new char[GeracaoAleatoria.TAMANHO_CHAVE_ALEATORIA]);
+    }
+
+    /**
+     * Preenche {@code destino[inicio, inicio + tamanho)} com caracteres sorteados.
+     */
+    public void preencher(char[] destino, int inicio, int tamanho) {
+        RandomGenerator sorteio = this.fonte != null ? this.fonte : ThreadLocalRandom.current();
+        int fim = inicio + tamanho;
+        int posicao = inicio;
+        while (posicao < fim) {
+            long valor = sorteio.nextLong(LIMITE_SORTEIO);
+            for (int i = 0; i < CARACTERES_POR_SORTEIO && posicao < fim; i++) {
+                destino[posicao++] = ALFABETO[(int) (valor % ALFABETO.length)];
+                valor /= ALFABETO.length;
+            }
+        }
+    }
+
+    /**
+     * @return uma chave nova; o {@code char[]} de trabalho é reaproveitado entre chamadas da mesma thread.
+     */
+    public String gerar(int tamanho) {
+        char[] chave = this.buffer.get();
+        if (chave.length < tamanho) {
+            chave = new char[tamanho];
+            this.buffer.set(chave);
+        }
+        preencher(chave, 0, tamanho);
+        return new String(chave, 0, tamanho);
+    }
+
+    /**
+     * @return 36^tamanho, ou {@link Long#MAX_VALUE} quando não cabe num long.
+     */
+    public static long combinacoes(int tamanho) {
+        long resultado = 1;
+        for (int i = 0; i < tamanho; i++) {
+            if (resultado > Long.MAX_VALUE / ALFABETO.length) {
+                return Long.MAX_VALUE;
+            }
+            resultado *= ALFABETO.length;
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,204 @@
+package utilsBank;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.Set;
+
+/**
+ * Gera identificadores numéricos únicos a partir de um contador, sem consultar o conjunto de ids já emitidos.
+ * <p>
+ * O contador passa por uma rede de Feistel sobre os dígitos decimais (metade esquerda e metade direita,
+ * somadas módulo 10^n a cada rodada), que é uma permutação do intervalo [0, 10^digitos): contadores diferentes
+ * geram ids diferentes do mesmo tamanho, e os ids não aparecem em sequência.
+ * <p>
+ * Os contadores são reservados em blocos de {@code banco.geracao.bloco} (padrão 1000): o arquivo guarda só a
+ * chave da permutação e o limite do último bloco reservado, gravado com uma escrita durável por bloco.
+ * Ao reiniciar, a geração continua do limite gravado e o restante do bloco anterior é descartado.
+ */
+public class GeradorSequencial {
+    public static final int ASSINATURA = 0x42494347;
+    public static final int TAMANHO_BLOCO = Integer.getInteger("banco.geracao.bloco", 1000);
+    public static final int MAXIMO_DIGITOS = 36;
+    private static final int RODADAS = 10;
+    private static final int TAMANHO_ARQUIVO = Integer.BYTES + 2 * Long.BYTES;
+    private final String path;
+    private final int tamanhoBloco;
+    private final Set<String> emitidosAntes;
+    private boolean carregado;
+    private long chave;
+    private long proximo;
+    private long limite;
+
+    /**
+     * @param emitidosAntes ids emitidos pela geração aleatória antiga, que o contador pula para não repetir
+     */
+    public GeradorSequencial(String path, Set<String> emitidosAntes) {
+        this(path, emitidosAntes, TAMANHO_BLOCO);
+    }
+
+    public GeradorSequencial(String path, Set<String> emitidosAntes, int tamanhoBloco) {
+        if (tamanhoBloco < 1) {
+            throw new IllegalArgumentException("Tamanho do bloco deve ser positivo");
+        }
+        this.path = path;
+        this.emitidosAntes = emitidosAntes;
+        this.tamanhoBloco = tamanhoBloco;
+    }
+
+    public synchronized String proximo(int digitos) {
+        if (digitos < 1 || digitos > MAXIMO_DIGITOS) {
+            throw new IllegalArgumentException("Quantidade de digitos invalida: " + digitos);
+        }
+        carregar();
+        long dominio = digitos < 19 ? potencia(digitos) : Long.MAX_VALUE;
+        String id;
+        do {
+            if (this.proximo >= dominio) {
+                throw new RuntimeException("Tamanho maximo de ids atingido");
+            }
+            if (this.proximo == this.limite) {
+                reservar(this.limite + this.tamanhoBloco);
+            }
+            id = permutar(this.proximo++, digitos);
+        } while (this.emitidosAntes != null && this.emitidosAntes.contains(id));
+        return id;
+    }
+
+    /**
+     * Desfaz a permutação de {@code id} e confere se o contador dele já foi reservado. Todo o bloco reservado conta
+     * como emitido, mesmo a parte descartada numa reinicialização, então nada que o contador possa ter entregue
+     * escapa; assim a geração aleatória não precisa de um conjunto com os ids vindos do contador.
+     *
+     * @return {@code true} se {@code id} pode ter sido emitido por este gerador
+     */
+    public synchronized boolean jaEmitido(String id) {
+        int digitos = id.length();
+        if (digitos < 1 || digitos > MAXIMO_DIGITOS || !id.chars().allMatch(Character::isDigit)) {
+            return false;
+        }
+        carregar();
+        int digitosEsquerda = digitos / 2;
+        int digitosDireita = digitos - digitosEsquerda;
+        long esquerda = digitosEsquerda == 0 ? 0 : Long.parseLong(id.substring(0, digitosEsquerda));
+        long direita = Long.parseLong(id.substring(digitosEsquerda));
+        for (int rodada = RODADAS - 1; rodada >= 0; rodada--) {
+            long modulo = potencia(rodada % 2 == 0 ? digitosEsquerda : digitosDireita);
+            long anterior = Math.floorMod(direita - Math.floorMod(misturar(rodada, esquerda), modulo), modulo);
+            direita = esquerda;
+            esquerda = anterior;
+        }
+        // Compara sem montar o contador, que não cabe num long com 19 dígitos ou mais
+        long fator = potencia(digitosDireita);
+        return esquerda < this.limite / fator || (esquerda == this.limite / fator && direita < this.limite % fator);
+    }
+
+    /**
+     * @return o primeiro contador ainda não reservado, isto é, o limite gravado no arquivo.
+     */
+    public synchronized long getLimite() {
+        carregar();
+        return this.limite;
+    }
+
+    private void carregar() {
+        if (this.carregado) {
+            return;
+        }
+        try (DataInputStream arquivo = new DataInputStream(new FileInputStream(this.path))) {
+            if (arquivo.readInt() != ASSINATURA) {
+                throw new RuntimeException("Arquivo de ids " + this.path + " invalido");
+            }
+            this.chave = arquivo.readLong();
+            this.limite = arquivo.readLong();
+            this.proximo = this.limite;
+        } catch (FileNotFoundException ex) {
+            /* Primeira execucao: a chave da permutacao e sorteada uma vez e fica no arquivo */
+            this.chave = new SecureRandom().nextLong();
+            this.proximo = 0;
+            this.limite = 0;
+        } catch (EOFException ex) {
+            throw new RuntimeException("Arquivo de ids " + this.path + " incompleto");
+        } catch (IOException ex) {
+            throw new RuntimeException("Arquivo de ids " + this.path + " nao pode ser acessado");
+        }
+        this.carregado = true;
+    }
+
+    /**
+     * Grava o novo limite num arquivo temporário, força para o disco e o move para o lugar do anterior,
+     * antes de emitir qualquer id do bloco.
+     */
+    private void reservar(long novoLimite) {
+        Path destino = Paths.get(this.path);
+        Path temporario = Paths.get(this.path + ".tmp");
+        ByteBuffer conteudo = ByteBuffer.allocate(TAMANHO_ARQUIVO).putInt(ASSINATURA).putLong(this.chave).putLong(novoLimite);
+        conteudo.flip();
+        try {
+            if (destino.getParent() != null) {
+                Files.createDirectories(destino.getParent());
+            }
+            try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (conteudo.hasRemaining()) {
+                    canal.write(conteudo);
+                }
+                canal.force(true);
+            }
+            Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new RuntimeException("Reserva de ids nao pode ser gravada em " + this.path);
+        }
+        this.limite = novoLimite;
+    }
+
+    private String permutar(long contador, int digitos) {
+        int digitosEsquerda = digitos / 2;
+        int digitosDireita = digitos - digitosEsquerda;
+        long esquerda = contador / potencia(digitosDireita);
+        long direita = contador % potencia(digitosDireita);
+        for (int rodada = 0; rodada < RODADAS; rodada++) {
+            long modulo = potencia(rodada % 2 == 0 ? digitosEsquerda : digitosDireita);
+            long soma = Math.floorMod(esquerda + Math.floorMod(misturar(rodada, direita), modulo), modulo);
+            esquerda = direita;
+            direita = soma;
+        }
+        // Com um número par de rodadas cada metade volta ao seu tamanho original
+        return completar(esquerda, digitosEsquerda) + completar(direita, digitosDireita);
+    }
+
+    private long misturar(int rodada, long valor) {
+        long z = this.chave + (rodada + 1) * 0x9E3779B97F4A7C15L + valor * 0xD1B54A32D192ED03L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String completar(long valor, int digitos) {
+        if (digitos == 0) {
+            return "";
+        }
+        StringBuilder texto = new StringBuilder(Long.toString(valor));
+        while (texto.length() < digitos) {
+            texto.insert(0, '0');
+        }
+        return texto.toString();
+    }
+
+    private static long potencia(int expoente) {
+        long resultado = 1;
+        for (int i = 0; i < expoente; i++) {
+            resultado *= 10;
+        }
+        return resultado;
+    }
+}
@@ -5,77 +5,227 @@ import cartao.Fatura;
 import cliente.Cliente;
 import conta.Conta;
 import conta.GerenciamentoCartao;
+import transacao.Boleto;
 import transacao.Transacao;
 import transacao.exceptions.TransacaoException;
 import utilsBank.arquivo.GerenciadorArquivo;
+import utilsBank.arquivo.exception.EscritaArquivoException;
 import utilsBank.databank.Data;
 import utilsBank.databank.DataBank;
 
-import java.util.ArrayList;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Set;
+import java.util.function.IntSupplier;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
-public class VerificadorDiario extends Thread {
+/**
+ * Processamento diário do banco: transferências agendadas, débito automático das faturas, rendimento das contas
+ * e arquivamento dos históricos, executados nessa ordem.
+ * <p>
+ * Ao iniciar, processa o dia atual caso a última atualização seja anterior a ele; depois, agenda a próxima
+ * execução para a meia-noite seguinte do relógio informado, sem manter uma thread ocupada esperando.
+ */
+public class VerificadorDiario {
+	public static final int JANELA_HISTORICO_DIAS = 90;
+	private static final long ESPERA_ENCERRAMENTO_SEGUNDOS = 30;
 	private static VerificadorDiario instance;
-	private boolean loop;
-	private Data ultimaAtualizacao;
+	private final Clock relogio;
+	private final ScheduledThreadPoolExecutor agendador;
+	private final Thread ganchoEncerramento;
+	private volatile Data ultimaAtualizacao;
 
-	private VerificadorDiario() {
-		this.loop = true;
-		this.ultimaAtualizacao = GerenciadorArquivo.lerData(GerenciadorArquivo.PATH_DATA);
+	VerificadorDiario(Clock relogio, Data ultimaAtualizacao) {
+		this.relogio = relogio;
+		this.ultimaAtualizacao = ultimaAtualizacao;
+		this.agendador = new ScheduledThreadPoolExecutor(1, tarefa -> {
+			Thread thread = new Thread(tarefa, "verificador-diario");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.agendador.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+		this.ganchoEncerramento = new Thread(this::encerrar, "verificador-diario-encerramento");
 	}
 
-	public static VerificadorDiario getInstance() {
+	public static synchronized VerificadorDiario getInstance() {
 		if (instance == null) {
-			instance = new VerificadorDiario();
-			instance.start();
+			instance = new VerificadorDiario(Clock.systemDefaultZone(), GerenciadorArquivo.lerData(GerenciadorArquivo.PATH_DATA));
+			instance.iniciar();
 		}
 		return instance;
 	}
 
-	@Override
-	public void run() {
-		while (loop) {
-			Data dataAtual = DataBank.criarData(DataBank.SEM_HORA);
-			if (dataAtual.depoisDe(this.ultimaAtualizacao)) {
-				System.out.println("ATUALIZANDO...");
-				verificarTransacoesAgendadas(dataAtual);
-				verificarFaturas(dataAtual);
-				Agencia.getInstance().renderContas();
-				this.ultimaAtualizacao = dataAtual;
-				System.out.println("ATUALIZACAO FINALIZADA!");
+	/**
+	 * Processa o dia atual, se ainda não foi processado, agenda a próxima meia-noite e registra o gancho
+	 * que termina o processamento em andamento quando a JVM for encerrada.
+	 */
+	void iniciar() {
+		Runtime.getRuntime().addShutdownHook(this.ganchoEncerramento);
+		this.agendador.execute(this::executarEAgendar);
+	}
+
+	private void executarEAgendar() {
+		try {
+			verificar();
+		} finally {
+			try {
+				this.agendador.schedule(this::executarEAgendar, ateProximaMeiaNoite().toMillis(), TimeUnit.MILLISECONDS);
+			} catch (RejectedExecutionException ignore) {
+				/* Verificador encerrado */
 			}
 		}
 	}
 
+	/**
+	 * Executa as fases do processamento diário caso a data do relógio seja posterior à última atualização.
+	 * <p>
+	 * Se o banco ficou fora do ar por vários dias, os eventos de cada dia perdido são reaplicados dia a dia, em ordem:
+	 * as transferências agendadas e depois os débitos automáticos do dia, antes de passar ao dia seguinte. O rendimento
+	 * dos dias perdidos é aplicado de uma vez com o fator composto.
+	 * As fases rodam com {@link Agencia#TRAVA_PROCESSAMENTO_DIARIO}, então nenhum snapshot é gravado no meio do lote.
+	 *
+	 * @return {@code true} se o processamento foi executado
+	 */
+	public synchronized boolean verificar() {
+		Data dataAtual = DataBank.restaurarDataDoDia(LocalDate.now(this.relogio).toEpochDay());
+		if (!dataAtual.depoisDe(this.ultimaAtualizacao)) {
+			return false;
+		}
+		int dias = diasDesdeUltimaAtualizacao(dataAtual);
+		System.out.println(dias > 1 ? "ATUALIZANDO " + dias + " DIAS..." : "ATUALIZANDO...");
+		synchronized (Agencia.TRAVA_PROCESSAMENTO_DIARIO) {
+			long hoje = dataAtual.getDiaEpoch();
+			executarFase("TRANSACOES AGENDADAS E DEBITO AUTOMATICO", () -> {
+				int processados = 0;
+				for (long dia = hoje - dias + 1; dia <= hoje; dia++) {
+					Data data = DataBank.restaurarDataDoDia(dia);
+					processados += verificarTransacoesAgendadas(data);
+					processados += verificarFaturas(data);
+				}
+				return processados;
+			});
+			executarFase("BOLETOS VENCIDOS", () -> verificarBoletosVencidos(dataAtual));
+			executarFase("RENDIMENTO DAS CONTAS", () -> Agencia.getInstance().renderContas(dias));
+			executarFase("ARQUIVAMENTO DE HISTORICOS", () -> arquivarHistoricos(dataAtual));
+			Agencia.getInstance().solicitarSnapshot();
+			this.ultimaAtualizacao = dataAtual;
+		}
+		System.out.println("ATUALIZACAO FINALIZADA!");
+		return true;
+	}
+
+	/**
+	 * Conta os dias de calendário entre a última atualização e {@code dataAtual}. Sem atualização anterior,
+	 * só o dia atual é processado.
+	 * <p>
+	 * A conta é feita pelo dia de cada data e não por {@link Data#calcularIntervalo(Data)}, que conta blocos de
+	 * 24 horas e perde um dia quando o intervalo atravessa o início do horário de verão.
+	 */
+	int diasDesdeUltimaAtualizacao(Data dataAtual) {
+		long ultimoDia = this.ultimaAtualizacao.getDiaEpoch();
+		if (ultimoDia == DataBank.criarData(GerenciadorArquivo.DATA_SEM_ATUALIZACAO, DataBank.SEM_HORA).getDiaEpoch()) {
+			return 1;
+		}
+		return (int) Math.max(1, dataAtual.getDiaEpoch() - ultimoDia);
+	}
+
+	/**
+	 * Executa uma fase e informa quantos itens ela processou e quanto tempo levou.
+	 */
+	private static void executarFase(String nome, IntSupplier fase) {
+		long inicio = System.nanoTime();
+		int processados = fase.getAsInt();
+		System.out.printf("%s: %d PROCESSADOS EM %d MS%n", nome, processados, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+	}
+
+	Duration ateProximaMeiaNoite() {
+		ZonedDateTime agora = ZonedDateTime.now(this.relogio);
+		ZonedDateTime proximaMeiaNoite = agora.toLocalDate().plusDays(1).atStartOfDay(agora.getZone());
+		return Duration.between(agora, proximaMeiaNoite);
+	}
+
 	public void end() {
-		this.loop = false;
+		encerrar();
+		try {
+			Runtime.getRuntime().removeShutdownHook(this.ganchoEncerramento);
+		} catch (IllegalStateException ignore) {
+			/* JVM ja esta sendo encerrada */
+		}
+	}
+
+	/**
+	 * Cancela as próximas execuções e espera o processamento em andamento terminar.
+	 */
+	private void encerrar() {
+		this.agendador.shutdown();
+		try {
+			this.agendador.awaitTermination(ESPERA_ENCERRAMENTO_SEGUNDOS, TimeUnit.SECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
 	}
 
-	public void verificarTransacoesAgendadas(Data dataAtual) {
-		ArrayList<Transacao> transacoesAgendadas = Agencia.getInstance().getTransacoes();
-		ArrayList<Transacao> transacoesRealizadas = new ArrayList<>();
-		for (Transacao transacao : transacoesAgendadas) {
-			if (transacao.getDataAgendada().equals(dataAtual) || transacao.getDataAgendada().antesDe(dataAtual)) {
-				Conta origem = transacao.getContaOrigem();
-				try {
-					if (origem.getSaldo() < transacao.getValor()) {
-						transacoesAgendadas.remove(transacao);
-						origem.apagarTransacaoAgendada(transacao);
-					} else {
-						transacoesRealizadas.add(origem.realizarTransacaoAgendada(transacao));
-					}
-				} catch (TransacaoException ignore) {
+	/**
+	 * @return quantidade de transferências vencidas processadas
+	 */
+	public int verificarTransacoesAgendadas(Data dataAtual) {
+		List<Transacao> vencidas = Agencia.getInstance().retirarTransacoesVencidas(dataAtual);
+		for (Transacao transacao : vencidas) {
+			Conta origem = transacao.getContaOrigem();
+			try {
+				if (origem.getSaldo() < transacao.getValor()) {
+					origem.apagarTransacaoAgendada(transacao);
+				} else {
+					origem.realizarTransacaoAgendada(transacao);
 				}
+			} catch (TransacaoException ignore) {
 			}
 		}
+		return vencidas.size();
+	}
+
+	/**
+	 * Manda para o arquivo de transações tudo o que saiu da janela de {@value #JANELA_HISTORICO_DIAS} dias.
+	 *
+	 * @return quantidade de transações arquivadas
+	 */
+	public int arquivarHistoricos(Data dataAtual) {
 		try {
-			transacoesAgendadas.removeAll(transacoesRealizadas);
-		} catch (Exception ignore) {
+			return Agencia.getInstance().arquivarHistoricos(DataBank.restaurarDataDoDia(dataAtual.getDiaEpoch() - JANELA_HISTORICO_DIAS));
+		} catch (EscritaArquivoException ignore) {
+			/* Transacoes continuam no historico e serao arquivadas na proxima atualizacao */
+			return 0;
+		}
+	}
+
+	/**
+	 * Avisa o emissor de cada boleto que venceu sem pagamento desde a última atualização. A multa não precisa ser
+	 * somada dia a dia: {@link Conta#pagarBoleto} a calcula pelos dias de atraso no momento do pagamento.
+	 *
+	 * @return quantidade de boletos que venceram
+	 */
+	public int verificarBoletosVencidos(Data dataAtual) {
+		List<Boleto> vencidos = Agencia.getInstance().buscarBoletosVencimentoEntre(this.ultimaAtualizacao, dataAtual);
+		for (Boleto boleto : vencidos) {
+			try {
+				boleto.getContaDestino().addNotificacao(boleto);
+			} catch (TransacaoException ignore) {
+				/* Aviso nao entregue; o boleto continua no indice de vencimentos */
+			}
 		}
+		return vencidos.size();
 	}
 
-	public void verificarFaturas(Data dataAtual) {
-		Set<Cliente> clientes = Agencia.getInstance().getClientes();
+	/**
+	 * @return quantidade de clientes com débito automático no dia
+	 */
+	public int verificarFaturas(Data dataAtual) {
+		Set<Cliente> clientes = Agencia.getInstance().getClientesDebitoAutomatico(dataAtual.getDia());
 		for (Cliente cliente : clientes) {
 			GerenciamentoCartao carteira = cliente.getConta().getCARTEIRA();
 			if (carteira.isDebitoAutomatico() && dataAtual.getDia() == carteira.getDataDebitoAutomatico()) {
@@ -87,6 +237,7 @@ public class VerificadorDiario extends Thread {
 				}
 			}
 		}
+		return clientes.size();
 	}
 
 	public Data getUltimaAtualizacao() {
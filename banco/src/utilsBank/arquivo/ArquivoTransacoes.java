@@ -0,0 +1,280 @@
+package utilsBank.arquivo;
+
+import transacao.Transacao;
+import transacao.TransacaoArquivada;
+import utilsBank.Dinheiro;
+import utilsBank.arquivo.exception.EscritaArquivoException;
+import utilsBank.arquivo.exception.LeituraArquivoException;
+import utilsBank.databank.Data;
+import utilsBank.databank.DataBank;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Arquivo de transações antigas, com registros de largura fixa lidos por {@link MappedByteBuffer}.
+ * <p>
+ * Cabeçalho: assinatura (int), versão (short), reservado (short), quantidade de registros (long) e o dia até o qual
+ * (exclusive) tudo já foi arquivado (long, em dias desde 01/01/1970). Cada registro guarda valor em centavos (long),
+ * nosso número, ids das contas de origem e destino (ASCII de largura fixa) e as datas de emissão e agendamento em dias
+ * desde 01/01/1970 (int, -1 sem agendamento). Um arquivo da versão 1 (valor em reais, sem o dia arquivado) é
+ * convertido ao ser aberto.
+ * <p>
+ * As consultas mapeiam só a janela de registros que precisam, então o histórico de vários anos fica em disco
+ * e não é desserializado para a memória.
+ */
+public class ArquivoTransacoes implements Closeable {
+	public static final int ASSINATURA = 0x42494354;
+	public static final short VERSAO = 2;
+	private static final short VERSAO_REAIS = 1;
+	private static final int TAMANHO_CABECALHO = 24;
+	private static final int TAMANHO_CABECALHO_REAIS = 16;
+	private static final int POSICAO_QUANTIDADE = 8;
+	private static final long SEM_DIA_ARQUIVADO = Long.MIN_VALUE;
+	private static final int TAMANHO_NOSSO_NUMERO = 32;
+	private static final int TAMANHO_ID_CONTA = 16;
+	public static final int TAMANHO_REGISTRO = Long.BYTES + TAMANHO_NOSSO_NUMERO + 2 * TAMANHO_ID_CONTA + 2 * Integer.BYTES;
+	private static final int REGISTROS_POR_JANELA = 1 << 16;
+	private final FileChannel canal;
+	private long quantidade;
+	private long arquivadoAte;
+
+	public ArquivoTransacoes(String path) throws IOException {
+		FileChannel aberto = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		if (aberto.size() < TAMANHO_CABECALHO_REAIS) {
+			escreverCabecalho(aberto, 0, SEM_DIA_ARQUIVADO);
+			this.canal = aberto;
+			this.quantidade = 0;
+			this.arquivadoAte = SEM_DIA_ARQUIVADO;
+			return;
+		}
+		ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+		aberto.read(cabecalho, 0);
+		cabecalho.flip();
+		short versao = cabecalho.getInt() == ASSINATURA ? cabecalho.getShort() : -1;
+		if (versao < VERSAO_REAIS || versao > VERSAO) {
+			aberto.close();
+			throw new IOException("Arquivo de transacoes invalido");
+		}
+		if (versao == VERSAO_REAIS) {
+			aberto = converterDeReais(aberto, Paths.get(path));
+			cabecalho.clear();
+			aberto.read(cabecalho, 0);
+			cabecalho.flip();
+			cabecalho.getInt();
+			cabecalho.getShort();
+		}
+		this.canal = aberto;
+		cabecalho.getShort();
+		// Registros gravados depois da última atualização do cabeçalho (queda no meio do arquivamento) são ignorados
+		long gravados = (this.canal.size() - TAMANHO_CABECALHO) / TAMANHO_REGISTRO;
+		this.quantidade = Math.min(cabecalho.getLong(), gravados);
+		this.arquivadoAte = cabecalho.getLong();
+	}
+
+	public synchronized long getQuantidade() {
+		return this.quantidade;
+	}
+
+	/**
+	 * @return o dia até o qual (exclusive) todas as transações já foram arquivadas, ou null se nada foi arquivado.
+	 * Uma transação emitida antes dele que volte à memória (snapshot anterior ao arquivamento) não é gravada de novo.
+	 */
+	public synchronized Data getArquivadoAte() {
+		return this.arquivadoAte == SEM_DIA_ARQUIVADO ? null : DataBank.restaurarDataDoDia(this.arquivadoAte);
+	}
+
+	/**
+	 * Acrescenta ao fim do arquivo as transações emitidas antes de {@code limite} e só então atualiza, no cabeçalho,
+	 * a quantidade e o dia arquivado. Quem chama deve passar todas as transações emitidas antes de {@code limite}
+	 * que ainda não foram arquivadas.
+	 */
+	public synchronized void arquivar(Collection<Transacao> transacoes, Data limite) throws EscritaArquivoException {
+		long novoArquivadoAte = Math.max(this.arquivadoAte, limite.getDiaEpoch());
+		if (transacoes.isEmpty() && novoArquivadoAte == this.arquivadoAte) {
+			return;
+		}
+		ByteBuffer registros = ByteBuffer.allocate(transacoes.size() * TAMANHO_REGISTRO);
+		for (Transacao transacao : transacoes) {
+			registros.putLong(transacao.getValorCentavos());
+			escreverCampo(registros, transacao.getNossoNumero(), TAMANHO_NOSSO_NUMERO);
+			escreverCampo(registros, transacao.getOrigem() != null ? transacao.getContaOrigem().getIdConta() : null, TAMANHO_ID_CONTA);
+			escreverCampo(registros, transacao.getDestino() != null ? transacao.getContaDestino().getIdConta() : null, TAMANHO_ID_CONTA);
+			registros.putInt((int) transacao.getDataEmissaoTransacao().getDiaEpoch());
+			registros.putInt(transacao.hasDataAgendada() ? (int) transacao.getDataAgendada().getDiaEpoch() : -1);
+		}
+		registros.flip();
+		try {
+			long posicao = TAMANHO_CABECALHO + this.quantidade * TAMANHO_REGISTRO;
+			while (registros.hasRemaining()) {
+				posicao += this.canal.write(registros, posicao);
+			}
+			this.canal.force(false);
+			ByteBuffer novaQuantidade = ByteBuffer.allocate(2 * Long.BYTES).putLong(this.quantidade + transacoes.size()).putLong(novoArquivadoAte);
+			novaQuantidade.flip();
+			this.canal.write(novaQuantidade, POSICAO_QUANTIDADE);
+			this.canal.force(false);
+			this.quantidade += transacoes.size();
+			this.arquivadoAte = novoArquivadoAte;
+		} catch (IOException ex) {
+			throw new EscritaArquivoException("Arquivo de transacoes nao pode ser escrito");
+		}
+	}
+
+	/**
+	 * @param inicio índice do primeiro registro, na ordem em que foram arquivados
+	 * @param limite quantidade máxima de registros
+	 */
+	public synchronized List<TransacaoArquivada> listar(long inicio, int limite) {
+		List<TransacaoArquivada> pagina = new ArrayList<>();
+		long fim = Math.min(this.quantidade, inicio + limite);
+		if (inicio >= fim) {
+			return pagina;
+		}
+		MappedByteBuffer janela = mapear(inicio, (int) (fim - inicio));
+		for (int i = 0; i < fim - inicio; i++) {
+			pagina.add(ler(janela, i));
+		}
+		return pagina;
+	}
+
+	/**
+	 * Pagina as transações arquivadas de uma conta, das mais recentes para as mais antigas.
+	 * A comparação do id é feita direto nos bytes mapeados; só as transações da página são criadas.
+	 *
+	 * @param pagina número da página, começando em 0
+	 */
+	public synchronized List<TransacaoArquivada> buscarPorConta(String idConta, int pagina, int tamanhoPagina) {
+		List<TransacaoArquivada> encontradas = new ArrayList<>();
+		byte[] id = campo(idConta, TAMANHO_ID_CONTA);
+		byte[] lido = new byte[TAMANHO_ID_CONTA];
+		long pular = (long) pagina * tamanhoPagina;
+		long fim = this.quantidade;
+		while (fim > 0 && encontradas.size() < tamanhoPagina) {
+			long inicio = Math.max(0, fim - REGISTROS_POR_JANELA);
+			MappedByteBuffer janela = mapear(inicio, (int) (fim - inicio));
+			for (int i = (int) (fim - inicio) - 1; i >= 0 && encontradas.size() < tamanhoPagina; i--) {
+				int base = i * TAMANHO_REGISTRO + Long.BYTES + TAMANHO_NOSSO_NUMERO;
+				if (mesmoCampo(janela, base, lido, id) || mesmoCampo(janela, base + TAMANHO_ID_CONTA, lido, id)) {
+					if (pular > 0) {
+						pular--;
+					} else {
+						encontradas.add(ler(janela, i));
+					}
+				}
+			}
+			fim = inicio;
+		}
+		return encontradas;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		this.canal.close();
+	}
+
+	private static void escreverCabecalho(FileChannel canal, long quantidade, long arquivadoAte) throws IOException {
+		ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+		cabecalho.putInt(ASSINATURA).putShort(VERSAO).putShort((short) 0).putLong(quantidade).putLong(arquivadoAte);
+		cabecalho.flip();
+		canal.write(cabecalho, 0);
+	}
+
+	/**
+	 * Reescreve um arquivo da versão 1 na versão atual: valores em centavos e cabeçalho com o dia arquivado.
+	 * Como a versão 1 não guardava esse dia, usa o dia seguinte à emissão mais recente arquivada: tudo o que foi
+	 * emitido antes dele já estava no arquivo. A cópia é forçada no disco antes de substituir o original.
+	 *
+	 * @return o canal do arquivo convertido
+	 */
+	private static FileChannel converterDeReais(FileChannel antigo, Path path) throws IOException {
+		// O valor em reais (double) e em centavos (long) ocupam o mesmo espaço: só o cabeçalho muda de tamanho
+		ByteBuffer cabecalho = ByteBuffer.allocate(Long.BYTES);
+		antigo.read(cabecalho, POSICAO_QUANTIDADE);
+		cabecalho.flip();
+		long quantidade = Math.min(cabecalho.getLong(), (antigo.size() - TAMANHO_CABECALHO_REAIS) / TAMANHO_REGISTRO);
+		long arquivadoAte = SEM_DIA_ARQUIVADO;
+		Path temporario = Paths.get(path + ".tmp");
+		try (FileChannel novo = FileChannel.open(temporario, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer registro = ByteBuffer.allocate(TAMANHO_REGISTRO);
+			for (long i = 0; i < quantidade; i++) {
+				registro.clear();
+				antigo.read(registro, TAMANHO_CABECALHO_REAIS + i * TAMANHO_REGISTRO);
+				registro.flip();
+				registro.putLong(0, Dinheiro.paraCentavos(registro.getDouble(0)));
+				arquivadoAte = Math.max(arquivadoAte, registro.getInt(Long.BYTES + TAMANHO_NOSSO_NUMERO + 2 * TAMANHO_ID_CONTA) + 1L);
+				novo.write(registro, TAMANHO_CABECALHO + i * TAMANHO_REGISTRO);
+			}
+			escreverCabecalho(novo, quantidade, arquivadoAte);
+			novo.force(true);
+		}
+		antigo.close();
+		Files.move(temporario, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		return FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+	}
+
+	private MappedByteBuffer mapear(long inicio, int registros) {
+		try {
+			return this.canal.map(FileChannel.MapMode.READ_ONLY, TAMANHO_CABECALHO + inicio * TAMANHO_REGISTRO, (long) registros * TAMANHO_REGISTRO);
+		} catch (IOException ex) {
+			throw new LeituraArquivoException("Arquivo de transacoes nao pode ser lido");
+		}
+	}
+
+	private static TransacaoArquivada ler(ByteBuffer janela, int indice) {
+		int base = indice * TAMANHO_REGISTRO;
+		long valorCentavos = janela.getLong(base);
+		base += Long.BYTES;
+		String nossoNumero = lerCampo(janela, base, TAMANHO_NOSSO_NUMERO);
+		base += TAMANHO_NOSSO_NUMERO;
+		String origem = lerCampo(janela, base, TAMANHO_ID_CONTA);
+		base += TAMANHO_ID_CONTA;
+		String destino = lerCampo(janela, base, TAMANHO_ID_CONTA);
+		base += TAMANHO_ID_CONTA;
+		return new TransacaoArquivada(valorCentavos, nossoNumero, origem, destino, janela.getInt(base), janela.getInt(base + Integer.BYTES));
+	}
+
+	private static boolean mesmoCampo(ByteBuffer janela, int posicao, byte[] lido, byte[] esperado) {
+		janela.get(posicao, lido);
+		return Arrays.equals(lido, esperado);
+	}
+
+	private static byte[] campo(String texto, int tamanho) {
+		byte[] campo = new byte[tamanho];
+		if (texto != null) {
+			byte[] bytes = texto.getBytes(StandardCharsets.ISO_8859_1);
+			System.arraycopy(bytes, 0, campo, 0, Math.min(bytes.length, tamanho));
+		}
+		return campo;
+	}
+
+	private static void escreverCampo(ByteBuffer registros, String texto, int tamanho) {
+		registros.put(campo(texto, tamanho));
+	}
+
+	private static String lerCampo(ByteBuffer janela, int posicao, int tamanho) {
+		int comprimento = 0;
+		while (comprimento < tamanho && janela.get(posicao + comprimento) != 0) {
+			comprimento++;
+		}
+		if (comprimento == 0) {
+			return null;
+		}
+		byte[] bytes = new byte[comprimento];
+		janela.get(posicao, bytes);
+		return new String(bytes, StandardCharsets.ISO_8859_1);
+	}
+}
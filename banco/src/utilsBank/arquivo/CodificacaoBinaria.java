@@ -0,0 +1,61 @@
+package utilsBank.arquivo;
+
+import utilsBank.databank.Data;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Leitura e escrita de campos que podem ser nulos nos formatos binários do banco.
+ * Cada campo anulável é precedido por um boolean indicando se há valor.
+ */
+public class CodificacaoBinaria {
+
+	private CodificacaoBinaria() {
+	}
+
+	public static void escreverTexto(DataOutputStream saida, String texto) throws IOException {
+		saida.writeBoolean(texto != null);
+		if (texto != null) {
+			saida.writeUTF(texto);
+		}
+	}
+
+	public static String lerTexto(DataInputStream entrada) throws IOException {
+		return entrada.readBoolean() ? entrada.readUTF() : null;
+	}
+
+	public static void escreverDouble(DataOutputStream saida, Double valor) throws IOException {
+		saida.writeBoolean(valor != null);
+		if (valor != null) {
+			saida.writeDouble(valor);
+		}
+	}
+
+	public static Double lerDouble(DataInputStream entrada) throws IOException {
+		return entrada.readBoolean() ? entrada.readDouble() : null;
+	}
+
+	public static void escreverInteiro(DataOutputStream saida, Integer valor) throws IOException {
+		saida.writeBoolean(valor != null);
+		if (valor != null) {
+			saida.writeInt(valor);
+		}
+	}
+
+	public static Integer lerInteiro(DataInputStream entrada) throws IOException {
+		return entrada.readBoolean() ? entrada.readInt() : null;
+	}
+
+	public static void escreverData(DataOutputStream saida, Data data) throws IOException {
+		saida.writeBoolean(data != null);
+		if (data != null) {
+			data.gravar(saida);
+		}
+	}
+
+	public static Data lerData(DataInputStream entrada) throws IOException {
+		return entrada.readBoolean() ? Data.ler(entrada) : null;
+	}
+}
@@ -10,6 +10,7 @@ import utilsBank.databank.DataBank;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 
 public class GerenciadorArquivo {
@@ -18,9 +19,18 @@ public class GerenciadorArquivo {
 	public static final String PATH_CHAVES_GERADAS_ALEATORIA = "banco/chaves_geradas_aleatoria.dat";
 	public static final String PATH_CHAVES_GERADAS_NUMERO_CARTAO = "banco/geradas_numero_cartao.dat";
 	public static final String PATH_CHAVES_ID_CONTA = "banco/chaves_id_conta.dat";
+	public static final String PATH_CONTADOR_NOSSO_NUMEROS = "banco/contador_nossos_numeros.dat";
+	public static final String PATH_CONTADOR_NUMERO_CARTAO = "banco/contador_numero_cartao.dat";
+	public static final String PATH_MAPA_ID_CONTA = "banco/mapa_id_conta.dat";
 	public static final String PATH_BOLETOS = "banco/boletos.dat";
 	public static final String PATH_DATA = "banco/data.dat";
 	public static final String PATH_TRANSACOES = "banco/transacoes.dat";
+	public static final String PATH_OPERACOES = "banco/operacoes.log";
+	public static final String PATH_TRANSACOES_ARQUIVADAS = "banco/transacoes_arquivadas.dat";
+	/**
+	 * Data devolvida por {@link #lerData(String)} quando o banco ainda não foi atualizado nenhuma vez.
+	 */
+	public static final String DATA_SEM_ATUALIZACAO = "01/01/2000";
 
 	public static Data lerData(String path) throws RuntimeException {
 		try {
@@ -30,10 +40,10 @@ public class GerenciadorArquivo {
 			if (data != null) {
 				return data;
 			}
-			return DataBank.criarData("01/01/2000", DataBank.SEM_HORA);
+			return DataBank.criarData(DATA_SEM_ATUALIZACAO, DataBank.SEM_HORA);
 		} catch (FileNotFoundException ex) {
 			/* Arquivo nao encontrado */
-			return DataBank.criarData("01/01/2000", DataBank.SEM_HORA);
+			return DataBank.criarData(DATA_SEM_ATUALIZACAO, DataBank.SEM_HORA);
 		} catch (IOException ex) {
 			/* Arquivo nao pode ser acessado */
 			throw new RuntimeException("Arquivo nao pode ser acessado");
@@ -43,8 +53,15 @@ public class GerenciadorArquivo {
 		}
 	}
 
+	/**
+	 * Lê o conjunto de clientes. Aceita tanto o formato binário de {@link SnapshotClientes}
+	 * quanto o formato antigo, gravado com serialização Java.
+	 */
 	public static HashSet<Cliente> listarSet(String path) throws RuntimeException {
 		try {
+			if (SnapshotClientes.isFormatoBinario(path)) {
+				return SnapshotClientes.carregar(path);
+			}
 			ObjectInputStream arquivo = new ObjectInputStream(new FileInputStream(path));
 			HashSet<Cliente> dados = (HashSet<Cliente>) arquivo.readObject();
 			arquivo.close();
@@ -110,11 +127,9 @@ public class GerenciadorArquivo {
 		}
 	}
 
-	public static void salvarClientes(HashSet<Cliente> clientes) throws LeituraArquivoException, EscritaArquivoException {
+	public static void salvarClientes(Collection<Cliente> clientes) throws LeituraArquivoException, EscritaArquivoException {
 		try {
-			ObjectOutputStream arquivo = new ObjectOutputStream(new FileOutputStream(GerenciadorArquivo.PATH_CLIENTES));
-			arquivo.writeObject(clientes);
-			arquivo.close();
+			SnapshotClientes.salvar(GerenciadorArquivo.PATH_CLIENTES, clientes);
 		} catch (FileNotFoundException ex) {
 			/* Diretorio nao encontrado */
 			throw new LeituraArquivoException("Diretorio nao encontrado");
@@ -0,0 +1,34 @@
+package utilsBank.arquivo;
+
+import cliente.Cliente;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+
+/**
+ * Converte, uma única vez, um arquivo de clientes no formato antigo (serialização Java) para o formato
+ * binário de {@link SnapshotClientes}. O arquivo original é preservado com a extensão ".legado".
+ * <p>
+ * Uso: {@code java utilsBank.arquivo.MigracaoClientes [caminho]}, por padrão {@value GerenciadorArquivo#PATH_CLIENTES}.
+ */
+public class MigracaoClientes {
+
+	public static void main(String[] args) {
+		String path = (args.length > 0) ? args[0] : GerenciadorArquivo.PATH_CLIENTES;
+		try {
+			if (SnapshotClientes.isFormatoBinario(path)) {
+				System.out.println("O arquivo " + path + " ja esta no formato binario");
+				return;
+			}
+			HashSet<Cliente> clientes = GerenciadorArquivo.listarSet(path);
+			Files.copy(Paths.get(path), Paths.get(path + ".legado"), StandardCopyOption.REPLACE_EXISTING);
+			SnapshotClientes.salvar(path, clientes);
+			System.out.println(clientes.size() + " clientes migrados para o formato binario em " + path);
+		} catch (IOException ex) {
+			System.out.println("Nao foi possivel migrar o arquivo " + path + ": " + ex.getMessage());
+		}
+	}
+}
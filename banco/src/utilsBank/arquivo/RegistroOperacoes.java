@@ -0,0 +1,400 @@
+package utilsBank.arquivo;
+
+import agencia.Agencia;
+import agencia.exceptions.BuscaException;
+import agencia.exceptions.InsercaoException;
+import cliente.Cliente;
+import transacao.Boleto;
+import transacao.Transacao;
+import transacao.exceptions.TransacaoException;
+import utilsBank.arquivo.exception.EscritaArquivoException;
+import utilsBank.arquivo.exception.LeituraArquivoException;
+import utilsBank.databank.DataBank;
+
+import java.io.*;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import static utilsBank.arquivo.CodificacaoBinaria.escreverTexto;
+import static utilsBank.arquivo.CodificacaoBinaria.lerTexto;
+
+/**
+ * Registro de operações (journal) somente de acréscimo.
+ * <p>
+ * Transferências, depósitos, pagamentos de boleto, trocas de chave Pix e criação de clientes são gravados
+ * como um registro pequeno cada, em vez de reescrever todos os arquivos do banco a cada ação. Um lote de pagamentos
+ * de uma mesma origem é gravado num registro só.
+ * Cada registro sai do buffer da JVM assim que é acrescentado, então uma queda do processo não o perde; a gravação
+ * física no disco ({@code force}) é feita em grupos, por quantidade de registros ou, no máximo, a cada
+ * {@value #INTERVALO_SINCRONIZACAO_MS} ms por uma tarefa agendada. Na inicialização, os registros são reaplicados
+ * sobre o último snapshot.
+ * <p>
+ * Formato de cada registro: tamanho (int), CRC32 do conteúdo (int) e conteúdo, que começa pelo tipo (byte).
+ * Um registro incompleto no final do arquivo (queda durante a escrita) é descartado.
+ */
+public class RegistroOperacoes {
+	public static final byte TRANSFERENCIA = 1;
+	public static final byte PAGAMENTO_BOLETO = 2;
+	public static final byte CHAVE_PIX = 3;
+	public static final byte CLIENTE = 4;
+	public static final byte LOTE = 5;
+	private static final int REGISTROS_POR_SINCRONIZACAO = 16;
+	private static final long INTERVALO_SINCRONIZACAO_MS = 2000;
+	private static final int REGISTROS_POR_SNAPSHOT = 1000;
+	private static final int TAMANHO_MAXIMO_REGISTRO = 1 << 24;
+	private static final ScheduledExecutorService SINCRONIZADOR = criarSincronizador();
+	private final String PATH;
+	private FileOutputStream arquivo;
+	private DataOutputStream saida;
+	private int registros;
+	private int pendentes;
+	private long ultimaSincronizacao;
+	private ScheduledFuture<?> sincronizacaoAgendada;
+
+	public RegistroOperacoes(String path) {
+		this.PATH = path;
+		this.ultimaSincronizacao = System.currentTimeMillis();
+	}
+
+	/**
+	 * Registra uma transferência ou depósito já efetivado (no depósito, origem e destino são o mesmo cliente).
+	 */
+	public void registrarTransferencia(Transacao transacao) throws EscritaArquivoException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream conteudo = new DataOutputStream(bytes)) {
+			conteudo.writeByte(TRANSFERENCIA);
+			conteudo.writeDouble(transacao.getValor());
+			escreverTexto(conteudo, transacao.getNossoNumero());
+			escreverTexto(conteudo, transacao.getIdPagamento());
+			escreverTexto(conteudo, transacao.getDestino().getIdentificacao());
+			escreverTexto(conteudo, transacao.getOrigem().getIdentificacao());
+			conteudo.writeLong(transacao.getDataEmissaoTransacao().getMillis());
+		} catch (IOException ex) {
+			throw new EscritaArquivoException("Registro de operacoes nao pode ser escrito");
+		}
+		acrescentar(bytes.toByteArray());
+	}
+
+	/**
+	 * Registra, num registro só, as transferências efetivadas de um lote ({@link conta.Conta#transferirLote}).
+	 * Todas têm a mesma origem, gravada uma vez.
+	 */
+	public void registrarLote(List<Transacao> transacoes) throws EscritaArquivoException {
+		if (transacoes.isEmpty()) {
+			return;
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream conteudo = new DataOutputStream(bytes)) {
+			conteudo.writeByte(LOTE);
+			escreverTexto(conteudo, transacoes.get(0).getOrigem().getIdentificacao());
+			conteudo.writeInt(transacoes.size());
+			for (Transacao transacao : transacoes) {
+				conteudo.writeDouble(transacao.getValor());
+				escreverTexto(conteudo, transacao.getNossoNumero());
+				escreverTexto(conteudo, transacao.getIdPagamento());
+				escreverTexto(conteudo, transacao.getDestino().getIdentificacao());
+				conteudo.writeLong(transacao.getDataEmissaoTransacao().getMillis());
+			}
+		} catch (IOException ex) {
+			throw new EscritaArquivoException("Registro de operacoes nao pode ser escrito");
+		}
+		acrescentar(bytes.toByteArray());
+	}
+
+	public void registrarPagamentoBoleto(Boleto boleto, Cliente pagador, Double valorPago) throws EscritaArquivoException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream conteudo = new DataOutputStream(bytes)) {
+			conteudo.writeByte(PAGAMENTO_BOLETO);
+			escreverTexto(conteudo, boleto.getNossoNumero());
+			escreverTexto(conteudo, pagador.getIdentificacao());
+			conteudo.writeDouble(valorPago);
+		} catch (IOException ex) {
+			throw new EscritaArquivoException("Registro de operacoes nao pode ser escrito");
+		}
+		acrescentar(bytes.toByteArray());
+	}
+
+	public void registrarChavePix(String identificacao, String tipoChave, String chave) throws EscritaArquivoException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream conteudo = new DataOutputStream(bytes)) {
+			conteudo.writeByte(CHAVE_PIX);
+			escreverTexto(conteudo, identificacao);
+			escreverTexto(conteudo, tipoChave);
+			escreverTexto(conteudo, chave);
+		} catch (IOException ex) {
+			throw new EscritaArquivoException("Registro de operacoes nao pode ser escrito");
+		}
+		acrescentar(bytes.toByteArray());
+	}
+
+	/**
+	 * Registra um cliente recém-criado. O cliente é serializado sozinho, logo o registro é pequeno.
+	 */
+	public void registrarCliente(Cliente cliente) throws EscritaArquivoException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream conteudo = new DataOutputStream(bytes)) {
+			ByteArrayOutputStream objeto = new ByteArrayOutputStream();
+			try (ObjectOutputStream saidaObjeto = new ObjectOutputStream(objeto)) {
+				saidaObjeto.writeObject(cliente);
+			}
+			conteudo.writeByte(CLIENTE);
+			conteudo.writeInt(objeto.size());
+			objeto.writeTo(conteudo);
+		} catch (IOException ex) {
+			throw new EscritaArquivoException("Registro de operacoes nao pode ser escrito");
+		}
+		acrescentar(bytes.toByteArray());
+	}
+
+	/**
+	 * Confirma os registros acrescentados. A sincronização com o disco é feita em grupo: só acontece quando
+	 * há registros pendentes suficientes ou quando o intervalo máximo desde a última sincronização passou.
+	 * Os registros que sobrarem pendentes são sincronizados pela tarefa agendada, mesmo sem novas ações.
+	 */
+	public synchronized void confirmar() throws EscritaArquivoException {
+		if (this.pendentes >= REGISTROS_POR_SINCRONIZACAO
+				|| (this.pendentes > 0 && System.currentTimeMillis() - this.ultimaSincronizacao >= INTERVALO_SINCRONIZACAO_MS)) {
+			sincronizar();
+		}
+	}
+
+	/**
+	 * Força a gravação em disco de todos os registros pendentes.
+	 */
+	public synchronized void sincronizar() throws EscritaArquivoException {
+		if (this.saida == null) {
+			return;
+		}
+		try {
+			this.saida.flush();
+			this.arquivo.getChannel().force(false);
+			this.pendentes = 0;
+			this.ultimaSincronizacao = System.currentTimeMillis();
+		} catch (IOException ex) {
+			throw new EscritaArquivoException("Registro de operacoes nao pode ser sincronizado");
+		}
+	}
+
+	/**
+	 * @return {@code true} quando o registro cresceu o suficiente para valer um snapshot completo.
+	 */
+	public synchronized boolean precisaSnapshot() {
+		return this.registros >= REGISTROS_POR_SNAPSHOT;
+	}
+
+	/**
+	 * Esvazia o registro. Deve ser chamado logo após um snapshot completo ter sido salvo.
+	 */
+	public synchronized void truncar() throws EscritaArquivoException {
+		try {
+			fechar();
+			new FileOutputStream(this.PATH).close();
+			this.registros = 0;
+			this.pendentes = 0;
+		} catch (IOException ex) {
+			throw new EscritaArquivoException("Registro de operacoes nao pode ser esvaziado");
+		}
+	}
+
+	/**
+	 * Reaplica sobre a agência os registros gravados desde o último snapshot. Cada tipo de registro reconhece
+	 * se o snapshot já contém a operação (transação já realizada pela origem, boleto já pago ou apagado, cliente já
+	 * existente, chave já definida) e, nesse caso, não tem efeito.
+	 *
+	 * @param agencia agência já carregada a partir do snapshot
+	 * @throws LeituraArquivoException caso o arquivo não possa ser lido ou um registro não possa ser reaplicado
+	 *                                 (cliente inexistente, tipo desconhecido...), para que nenhuma operação se perca em silêncio
+	 */
+	public synchronized void reaplicar(Agencia agencia) throws LeituraArquivoException {
+		long tamanhoValido = 0;
+		File arquivoRegistro = new File(this.PATH);
+		if (!arquivoRegistro.exists()) {
+			return;
+		}
+		try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(new FileInputStream(arquivoRegistro)))) {
+			while (true) {
+				byte[] conteudo = lerRegistro(entrada);
+				if (conteudo == null) {
+					break;
+				}
+				tamanhoValido += Integer.BYTES * 2 + conteudo.length;
+				this.registros++;
+				try {
+					aplicar(agencia, conteudo);
+				} catch (BuscaException | TransacaoException | InsercaoException | EscritaArquivoException | ClassNotFoundException ex) {
+					throw new LeituraArquivoException("Registro de operacoes " + this.registros + " nao pode ser reaplicado: " + ex.getMessage());
+				}
+			}
+		} catch (IOException ex) {
+			throw new LeituraArquivoException("Registro de operacoes nao pode ser lido");
+		}
+		if (tamanhoValido < arquivoRegistro.length()) {
+			try (RandomAccessFile descarte = new RandomAccessFile(arquivoRegistro, "rw")) {
+				descarte.setLength(tamanhoValido);
+			} catch (IOException ex) {
+				throw new LeituraArquivoException("Registro de operacoes nao pode ser reparado");
+			}
+		}
+	}
+
+	private static void aplicar(Agencia agencia, byte[] conteudo) throws IOException, BuscaException, TransacaoException,
+			InsercaoException, EscritaArquivoException, ClassNotFoundException {
+		DataInputStream registro = new DataInputStream(new ByteArrayInputStream(conteudo));
+		byte tipo = registro.readByte();
+		switch (tipo) {
+			case TRANSFERENCIA: {
+				Double valor = registro.readDouble();
+				String nossoNumero = lerTexto(registro);
+				String idPagamento = lerTexto(registro);
+				Cliente destino = agencia.buscarCliente(lerTexto(registro));
+				Cliente origem = agencia.buscarCliente(lerTexto(registro));
+				long dataEmissao = registro.readLong();
+				if (!origem.getConta().possuiTransacaoRealizada(nossoNumero)) {
+					origem.getConta().reaplicarTransferencia(Transacao.restaurar(valor, nossoNumero, idPagamento,
+							destino, origem, DataBank.restaurarData(dataEmissao)));
+				}
+				break;
+			}
+			case LOTE: {
+				Cliente origem = agencia.buscarCliente(lerTexto(registro));
+				int quantidade = registro.readInt();
+				for (int i = 0; i < quantidade; i++) {
+					Double valor = registro.readDouble();
+					String nossoNumero = lerTexto(registro);
+					String idPagamento = lerTexto(registro);
+					Cliente destino = agencia.buscarCliente(lerTexto(registro));
+					long dataEmissao = registro.readLong();
+					if (!origem.getConta().possuiTransacaoRealizada(nossoNumero)) {
+						origem.getConta().reaplicarTransferencia(Transacao.restaurar(valor, nossoNumero, idPagamento,
+								destino, origem, DataBank.restaurarData(dataEmissao)));
+					}
+				}
+				break;
+			}
+			case PAGAMENTO_BOLETO: {
+				String nossoNumero = lerTexto(registro);
+				Cliente pagador = agencia.buscarCliente(lerTexto(registro));
+				Double valorPago = registro.readDouble();
+				Boleto boleto;
+				try {
+					boleto = agencia.buscarBoleto(nossoNumero);
+				} catch (BuscaException ex) {
+					// Boletos pagos saem da agência: o snapshot já contém o pagamento
+					break;
+				}
+				if (!boleto.isPago()) {
+					pagador.getConta().reaplicarPagamentoBoleto(boleto, pagador, valorPago);
+				}
+				agencia.apagarBoleto(boleto);
+				break;
+			}
+			case CHAVE_PIX: {
+				Cliente cliente = agencia.buscarCliente(lerTexto(registro));
+				cliente.getConta().getChavesPix().definirChave(lerTexto(registro), lerTexto(registro));
+				break;
+			}
+			case CLIENTE: {
+				byte[] objeto = new byte[registro.readInt()];
+				registro.readFully(objeto);
+				try (ObjectInputStream entradaObjeto = new ObjectInputStream(new ByteArrayInputStream(objeto))) {
+					// Um cliente já existente é ignorado pela agência
+					agencia.addCliente((Cliente) entradaObjeto.readObject());
+				}
+				break;
+			}
+			default:
+				throw new LeituraArquivoException("Tipo de registro desconhecido: " + tipo);
+		}
+	}
+
+	/**
+	 * Acrescenta o registro com {@link Agencia#TRAVA_SNAPSHOT} compartilhada, tomada antes do monitor do registro:
+	 * um registro nunca é acrescentado entre a gravação do snapshot e o esvaziamento que a segue.
+	 */
+	private void acrescentar(byte[] conteudo) throws EscritaArquivoException {
+		CRC32 crc = new CRC32();
+		crc.update(conteudo);
+		Agencia.TRAVA_SNAPSHOT.readLock().lock();
+		try {
+			synchronized (this) {
+				abrir();
+				this.saida.writeInt(conteudo.length);
+				this.saida.writeInt((int) crc.getValue());
+				this.saida.write(conteudo);
+				this.saida.flush();
+				this.registros++;
+				this.pendentes++;
+			}
+		} catch (IOException ex) {
+			throw new EscritaArquivoException("Registro de operacoes nao pode ser escrito");
+		} finally {
+			Agencia.TRAVA_SNAPSHOT.readLock().unlock();
+		}
+	}
+
+	private void abrir() throws FileNotFoundException {
+		if (this.saida == null) {
+			this.arquivo = new FileOutputStream(this.PATH, true);
+			this.saida = new DataOutputStream(new BufferedOutputStream(this.arquivo));
+			this.sincronizacaoAgendada = SINCRONIZADOR.scheduleWithFixedDelay(this::sincronizarPendentes,
+					INTERVALO_SINCRONIZACAO_MS, INTERVALO_SINCRONIZACAO_MS, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Tarefa agendada: sincroniza os registros que esperam há mais que o intervalo máximo.
+	 */
+	private synchronized void sincronizarPendentes() {
+		try {
+			confirmar();
+		} catch (EscritaArquivoException ignore) {
+			/* Os registros continuam pendentes e serao sincronizados na proxima tentativa */
+		}
+	}
+
+	private void fechar() throws IOException {
+		if (this.sincronizacaoAgendada != null) {
+			this.sincronizacaoAgendada.cancel(false);
+			this.sincronizacaoAgendada = null;
+		}
+		if (this.saida != null) {
+			this.saida.close();
+			this.saida = null;
+			this.arquivo = null;
+		}
+	}
+
+	private static ScheduledExecutorService criarSincronizador() {
+		ScheduledThreadPoolExecutor sincronizador = new ScheduledThreadPoolExecutor(1, tarefa -> {
+			Thread thread = new Thread(tarefa, "registro-operacoes");
+			thread.setDaemon(true);
+			return thread;
+		});
+		sincronizador.setRemoveOnCancelPolicy(true);
+		return sincronizador;
+	}
+
+	/**
+	 * @return o conteúdo do próximo registro, ou null no fim do arquivo ou num registro incompleto/corrompido.
+	 */
+	private static byte[] lerRegistro(DataInputStream entrada) throws IOException {
+		try {
+			int tamanho = entrada.readInt();
+			int crcEsperado = entrada.readInt();
+			if (tamanho <= 0 || tamanho > TAMANHO_MAXIMO_REGISTRO) {
+				return null;
+			}
+			byte[] conteudo = new byte[tamanho];
+			entrada.readFully(conteudo);
+			CRC32 crc = new CRC32();
+			crc.update(conteudo);
+			return ((int) crc.getValue() == crcEsperado) ? conteudo : null;
+		} catch (EOFException ex) {
+			return null;
+		}
+	}
+}
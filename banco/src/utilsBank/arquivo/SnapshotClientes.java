@@ -0,0 +1,129 @@
+package utilsBank.arquivo;
+
+import cliente.Cliente;
+import transacao.Transacao;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * Formato binário versionado do snapshot de clientes.
+ * <p>
+ * Cabeçalho: assinatura (int) e versão (short). Depois, um registro por cliente: tamanho (int) seguido do
+ * cliente gravado por {@link Cliente#gravar(DataOutputStream)}, com conta, histórico e cartões.
+ * Os registros são lidos um de cada vez, sem montar o grafo inteiro de uma vez como a serialização Java;
+ * as referências entre clientes (origem e destino das transações) são religadas pela identificação no final.
+ * <p>
+ * A versão 2 grava a caixa de notificações de cada conta na ordem de chegada; arquivos da versão 1 continuam
+ * sendo lidos ({@link conta.CaixaNotificacoes#ler}).
+ */
+public class SnapshotClientes implements Closeable {
+	public static final int ASSINATURA = 0x42494331;
+	public static final short VERSAO = 2;
+	private final DataInputStream entrada;
+	private final Map<String, Transacao> transacoesLidas;
+	private byte[] registro;
+
+	public SnapshotClientes(InputStream arquivo) throws IOException {
+		this.entrada = new DataInputStream(new BufferedInputStream(arquivo));
+		if (this.entrada.readInt() != ASSINATURA) {
+			throw new IOException("Arquivo nao esta no formato binario de clientes");
+		}
+		short versao = this.entrada.readShort();
+		if (versao > VERSAO) {
+			throw new IOException("Versao " + versao + " do arquivo de clientes nao suportada");
+		}
+		this.transacoesLidas = new HashMap<>();
+		this.registro = new byte[4096];
+	}
+
+	/**
+	 * @return o próximo cliente do arquivo, ou null quando não houver mais registros.
+	 */
+	public Cliente proximo() throws IOException {
+		int tamanho;
+		try {
+			tamanho = this.entrada.readInt();
+		} catch (EOFException ex) {
+			return null;
+		}
+		if (this.registro.length < tamanho) {
+			this.registro = new byte[Math.max(tamanho, this.registro.length * 2)];
+		}
+		this.entrada.readFully(this.registro, 0, tamanho);
+		return Cliente.ler(new DataInputStream(new ByteArrayInputStream(this.registro, 0, tamanho)), this.transacoesLidas);
+	}
+
+	/**
+	 * Religa origem e destino de todas as transações lidas até agora.
+	 *
+	 * @param clientes clientes carregados, indexados pela identificação
+	 */
+	public void vincularClientes(Map<String, Cliente> clientes) {
+		for (Transacao transacao : this.transacoesLidas.values()) {
+			transacao.vincularClientes(clientes);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.entrada.close();
+	}
+
+	/**
+	 * @return {@code true} se o arquivo começa com a assinatura do formato binário; {@code false} para o formato antigo.
+	 * @throws FileNotFoundException caso o arquivo não exista
+	 */
+	public static boolean isFormatoBinario(String path) throws IOException {
+		try (DataInputStream arquivo = new DataInputStream(new FileInputStream(path))) {
+			return arquivo.readInt() == ASSINATURA;
+		} catch (EOFException ex) {
+			return false;
+		}
+	}
+
+	public static HashSet<Cliente> carregar(String path) throws IOException {
+		try (SnapshotClientes leitor = new SnapshotClientes(new FileInputStream(path))) {
+			HashSet<Cliente> clientes = new HashSet<>();
+			Map<String, Cliente> porIdentificacao = new HashMap<>();
+			for (Cliente cliente = leitor.proximo(); cliente != null; cliente = leitor.proximo()) {
+				clientes.add(cliente);
+				porIdentificacao.put(cliente.getIdentificacao(), cliente);
+			}
+			leitor.vincularClientes(porIdentificacao);
+			return clientes;
+		}
+	}
+
+	/**
+	 * Grava os clientes num arquivo temporário, força a gravação no disco e só então o move para o lugar do anterior,
+	 * para que nem uma falha durante a escrita nem uma queda de energia logo depois deixem o snapshot pela metade.
+	 * Quem chama trunca o registro de operações em seguida, então o snapshot precisa estar no disco antes da troca.
+	 */
+	public static void salvar(String path, Collection<Cliente> clientes) throws IOException {
+		File temporario = new File(path + ".tmp");
+		try (FileOutputStream arquivo = new FileOutputStream(temporario);
+			 DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(arquivo))) {
+			saida.writeInt(ASSINATURA);
+			saida.writeShort(VERSAO);
+			ByteArrayOutputStream registro = new ByteArrayOutputStream();
+			DataOutputStream conteudo = new DataOutputStream(registro);
+			for (Cliente cliente : clientes) {
+				registro.reset();
+				cliente.gravar(conteudo);
+				conteudo.flush();
+				saida.writeInt(registro.size());
+				registro.writeTo(saida);
+			}
+			saida.flush();
+			arquivo.getChannel().force(true);
+		}
+		Files.move(temporario.toPath(), Paths.get(path), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+}
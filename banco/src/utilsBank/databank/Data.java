@@ -1,7 +1,11 @@
 package utilsBank.databank;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
+import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Calendar;
 
@@ -120,4 +124,37 @@ public class Data implements Serializable {
 	public int getDia() {
 		return this.dia;
 	}
+
+	/**
+	 * @return instante representado pela data, em milissegundos desde a época.
+	 */
+	public long getMillis() {
+		return this.CALENDAR.getTimeInMillis();
+	}
+
+	/**
+	 * @return dias desde 01/01/1970 no fuso do calendário, usado nos registros de largura fixa.
+	 */
+	public long getDiaEpoch() {
+		return Instant.ofEpochMilli(getMillis()).atZone(this.CALENDAR.getTimeZone().toZoneId()).toLocalDate().toEpochDay();
+	}
+
+	/**
+	 * Grava a data no formato binário. Dia, mês e ano são gravados à parte porque
+	 * {@link #somar(int, int)} os altera sem mexer no calendário.
+	 */
+	public void gravar(DataOutputStream saida) throws IOException {
+		saida.writeLong(getMillis());
+		saida.writeInt(this.dia);
+		saida.writeInt(this.mes);
+		saida.writeInt(this.ano);
+	}
+
+	public static Data ler(DataInputStream entrada) throws IOException {
+		Data data = DataBank.restaurarData(entrada.readLong());
+		data.dia = entrada.readInt();
+		data.mes = entrada.readInt();
+		data.ano = entrada.readInt();
+		return data;
+	}
 }
@@ -1,5 +1,6 @@
 package utilsBank.databank;
 
+import java.time.LocalDate;
 import java.util.Calendar;
 import java.util.Locale;
 
@@ -10,6 +11,7 @@ public class DataBank {
     public static final int SEM_ANO = 4;
     public static final int SEM_MES = 6;
     private static final Locale IDIOMA = new Locale("pt", "BR");
+    private static final Calendar CALENDARIO_BASE = Calendar.getInstance(IDIOMA);
 
     /**
      * @return Objeto Data a partir da hora atual.
@@ -26,6 +28,32 @@ public class DataBank {
         return new Data(data);
     }
 
+    /**
+     * Recria uma data persistida a partir do instante em milissegundos.
+     *
+     * @param millis valor obtido de {@link Data#getMillis()}.
+     * @return Objeto Data equivalente ao que foi salvo.
+     */
+    public static Data restaurarData(long millis) {
+        // Clonar um calendário pronto evita refazer a busca de fuso e localidade de Calendar.getInstance
+        Calendar data = (Calendar) CALENDARIO_BASE.clone();
+        data.setTimeInMillis(millis);
+        return new Data(data);
+    }
+
+    /**
+     * Recria uma data sem hora a partir da quantidade de dias desde 01/01/1970.
+     *
+     * @param diaEpoch valor obtido de {@link Data#getDiaEpoch()}.
+     */
+    public static Data restaurarDataDoDia(long diaEpoch) {
+        LocalDate dia = LocalDate.ofEpochDay(diaEpoch);
+        Calendar data = (Calendar) CALENDARIO_BASE.clone();
+        data.clear();
+        data.set(dia.getYear(), dia.getMonthValue() - 1, dia.getDayOfMonth(), 0, 0, 0);
+        return new Data(data);
+    }
+
     /**
      * Gera a data a partir da string dataTexto.
      *
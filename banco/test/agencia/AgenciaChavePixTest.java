@@ -0,0 +1,86 @@
+package agencia;
+
+import agencia.exceptions.BuscaException;
+import cliente.Cliente;
+import conta.Conta;
+import conta.GerenciamentoCartao;
+import interfaceUsuario.dados.DadosChavesPix;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import transacao.ChavePix;
+import utilsBank.GerenciadorBanco;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class AgenciaChavePixTest {
+    private MockedStatic<Agencia> agenciaEstatica;
+    private Agencia agencia;
+
+    private static Cliente cliente(String identificacao, ChavePix chaves) {
+        Conta conta = mock(Conta.class, withSettings().stubOnly());
+        when(conta.getChavesPix()).thenReturn(chaves);
+        when(conta.getCARTEIRA()).thenReturn(mock(GerenciamentoCartao.class, withSettings().stubOnly()));
+        Cliente cliente = mock(Cliente.class, withSettings().stubOnly());
+        when(cliente.getIdentificacao()).thenReturn(identificacao);
+        when(cliente.getConta()).thenReturn(conta);
+        return cliente;
+    }
+
+    @BeforeEach
+    public void setUp() throws ReflectiveOperationException {
+        try (MockedStatic<GerenciadorBanco> gerenciador = mockStatic(GerenciadorBanco.class)) {
+            gerenciador.when(GerenciadorBanco::inicializarClientes).thenReturn(new HashSet<>());
+            gerenciador.when(GerenciadorBanco::inicializarBoletos).thenReturn(new HashSet<>());
+            gerenciador.when(GerenciadorBanco::inicializarTransacoes).thenReturn(new ArrayList<>());
+            Constructor<Agencia> construtor = Agencia.class.getDeclaredConstructor();
+            construtor.setAccessible(true);
+            agencia = construtor.newInstance();
+        }
+        agenciaEstatica = mockStatic(Agencia.class);
+        agenciaEstatica.when(Agencia::getInstance).thenReturn(agencia);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        agenciaEstatica.close();
+    }
+
+    @Test
+    public void definirChave_ChaveDeOutroClienteERecusada() throws Exception {
+        ChavePix chavesA = new ChavePix("21999990001", null, "a@bic.com", "11111111111");
+        ChavePix chavesB = new ChavePix("21999990002", null, "b@bic.com", "22222222222");
+        Cliente a = cliente("11111111111", chavesA);
+        Cliente b = cliente("22222222222", chavesB);
+        agencia.addCliente(a);
+        agencia.addCliente(b);
+
+        assertFalse(chavesB.definirChave(DadosChavesPix.EMAIL, "a@bic.com"));
+
+        assertEquals("b@bic.com", chavesB.getEmail());
+        assertSame(a, agencia.buscarClientePorChavePix(DadosChavesPix.EMAIL, "a@bic.com"));
+        assertSame(b, agencia.buscarClientePorChavePix(DadosChavesPix.EMAIL, "b@bic.com"));
+
+        assertTrue(chavesA.definirChave(DadosChavesPix.EMAIL, "a2@bic.com"));
+        assertThrows(BuscaException.class, () -> agencia.buscarClientePorChavePix(DadosChavesPix.EMAIL, "a@bic.com"));
+        assertTrue(chavesB.definirChave(DadosChavesPix.EMAIL, "a@bic.com"));
+        assertSame(b, agencia.buscarClientePorChavePix(DadosChavesPix.EMAIL, "a@bic.com"));
+        assertSame(a, agencia.buscarClientePorChavePix(DadosChavesPix.EMAIL, "a2@bic.com"));
+    }
+
+    @Test
+    public void addCliente_ChaveJaIndexadaContinuaComOPrimeiroDono() throws Exception {
+        Cliente a = cliente("11111111111", new ChavePix("21999990001", null, "a@bic.com", "11111111111"));
+        Cliente b = cliente("22222222222", new ChavePix("21999990001", null, "b@bic.com", "22222222222"));
+        agencia.addCliente(a);
+        agencia.addCliente(b);
+
+        assertSame(a, agencia.buscarClientePorChavePix(DadosChavesPix.TELEFONE, "21999990001"));
+    }
+}
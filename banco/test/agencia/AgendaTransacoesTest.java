@@ -0,0 +1,60 @@
+package agencia;
+
+import org.junit.jupiter.api.Test;
+import transacao.Transacao;
+import utilsBank.databank.Data;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class AgendaTransacoesTest {
+
+    private static Transacao agendadaPara(long dia) {
+        Transacao t = mock(Transacao.class);
+        Data d = mock(Data.class);
+        when(d.getDiaEpoch()).thenReturn(dia);
+        when(t.hasDataAgendada()).thenReturn(true);
+        when(t.getDataAgendada()).thenReturn(d);
+        return t;
+    }
+
+    private static Data dia(long dia) {
+        Data d = mock(Data.class);
+        when(d.getDiaEpoch()).thenReturn(dia);
+        return d;
+    }
+
+    @Test
+    public void listar_OrdenaPorVencimento() {
+        Transacao depois = agendadaPara(20);
+        Transacao antes = agendadaPara(10);
+        AgendaTransacoes agenda = new AgendaTransacoes(List.of(depois, antes));
+
+        assertEquals(List.of(antes, depois), agenda.listar());
+    }
+
+    @Test
+    public void retirarVencidas_RetiraSoAteODiaAtual() {
+        Transacao ontem = agendadaPara(9);
+        Transacao hoje = agendadaPara(10);
+        Transacao amanha = agendadaPara(11);
+        AgendaTransacoes agenda = new AgendaTransacoes(List.of(amanha, hoje, ontem));
+
+        assertEquals(List.of(ontem, hoje), agenda.retirarVencidas(dia(10)));
+        assertEquals(List.of(amanha), agenda.listar());
+        assertEquals(1, agenda.size());
+        assertTrue(agenda.retirarVencidas(dia(10)).isEmpty());
+    }
+
+    @Test
+    public void remover_TiraTransacaoDaAgenda() {
+        Transacao t = agendadaPara(5);
+        AgendaTransacoes agenda = new AgendaTransacoes(List.of(t));
+
+        assertTrue(agenda.remover(t));
+        assertFalse(agenda.remover(t));
+        assertEquals(0, agenda.size());
+    }
+}
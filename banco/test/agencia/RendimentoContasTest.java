@@ -0,0 +1,82 @@
+package agencia;
+
+import cliente.Cliente;
+import conta.Conta;
+import conta.ContaDiamond;
+import conta.ContaPremium;
+import conta.ContaStandard;
+import conta.Rentavel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RendimentoContasTest {
+
+    private static List<Cliente> clientes(int quantidade) {
+        List<Cliente> clientes = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            Conta conta = switch (i % 3) {
+                case 0 -> new ContaStandard();
+                case 1 -> new ContaPremium();
+                default -> new ContaDiamond();
+            };
+            conta.aumentarSaldo(100.0 + i * 0.37);
+            Cliente cliente = mock(Cliente.class);
+            when(cliente.getConta()).thenReturn(conta);
+            clientes.add(cliente);
+        }
+        return clientes;
+    }
+
+    @Test
+    public void render_ParaleloIgualAoSequencial() {
+        List<Cliente> sequencial = clientes(300);
+        List<Cliente> paralelo = clientes(300);
+
+        assertEquals(300, new RendimentoContas(1).render(sequencial));
+        assertEquals(300, new RendimentoContas(4, 8).render(paralelo));
+
+        for (int i = 0; i < 300; i++) {
+            assertEquals(sequencial.get(i).getConta().getSaldo(), paralelo.get(i).getConta().getSaldo());
+            assertEquals(sequencial.get(i).getConta().getDinheiroGuardado(), paralelo.get(i).getConta().getDinheiroGuardado());
+        }
+    }
+
+    @Test
+    public void render_RendeCadaContaUmaVez() {
+        List<Cliente> clientes = clientes(50);
+
+        new RendimentoContas(3, 4).render(clientes);
+
+        Conta primeira = clientes.get(0).getConta();
+        assertEquals(100.0 + 100.0 * 0.0002, primeira.getSaldo(), 1e-9);
+    }
+
+    @Test
+    public void render_VariosDias_CompoeOFator() {
+        List<Cliente> umPorDia = clientes(3);
+        List<Cliente> deUmaVez = clientes(3);
+        RendimentoContas rendimento = new RendimentoContas(1);
+
+        for (int i = 0; i < 5; i++) {
+            rendimento.render(umPorDia);
+        }
+        rendimento.render(deUmaVez, 5);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(umPorDia.get(i).getConta().getSaldo(), deUmaVez.get(i).getConta().getSaldo(), 1e-9);
+        }
+    }
+
+    @Test
+    public void render_VariosDias_ArredondaUmaVez() {
+        // Um dia de cada vez: 10001 -> 15001 -> 22501; de uma vez: 10001 * 1.5^2 = 22502.25
+        assertEquals(22_502, Rentavel.render(10_001, 0.5, 2));
+        assertEquals(10_003, Rentavel.render(10_001, 0.0002, 1));
+        assertEquals(10_001, Rentavel.render(10_001, 0.0002, 0));
+    }
+}
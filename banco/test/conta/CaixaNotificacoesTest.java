@@ -0,0 +1,181 @@
+package conta;
+
+import cartao.Fatura;
+import cliente.Cliente;
+import interfaceUsuario.dados.DadosBoleto;
+import interfaceUsuario.dados.DadosTransacao;
+import org.junit.jupiter.api.Test;
+import transacao.Boleto;
+import transacao.Transacao;
+import utilsBank.databank.Data;
+import utilsBank.databank.DataBank;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CaixaNotificacoesTest {
+
+    private static Transacao transacao() {
+        Transacao t = mock(Transacao.class);
+        when(t.getDataEmissaoTransacao()).thenReturn(mock(Data.class));
+        return t;
+    }
+
+    @Test
+    public void adicionar_ContaNaoLidasEOrdenaDaMaisRecente() throws Exception {
+        CaixaNotificacoes caixa = new CaixaNotificacoes(3, new Historico());
+        Transacao t1 = transacao();
+        Transacao t2 = transacao();
+        Fatura f = mock(Fatura.class);
+
+        caixa.addTransacao(t1);
+        caixa.addTransacao(t2);
+        caixa.addFatura(f);
+
+        assertEquals(3, caixa.getNaoLidas());
+        assertEquals(List.of(f, t2, t1), caixa.getNotificacoes());
+    }
+
+    @Test
+    public void adicionar_CaixaCheia_MaisAntigaVaiParaOHistorico() throws Exception {
+        Historico historico = new Historico();
+        CaixaNotificacoes caixa = new CaixaNotificacoes(2, historico);
+        Transacao t1 = transacao();
+        Transacao t2 = transacao();
+        Transacao t3 = transacao();
+
+        caixa.addTransacao(t1);
+        caixa.addTransacao(t2);
+        caixa.addTransacao(t3);
+
+        assertEquals(2, caixa.getNaoLidas());
+        assertEquals(List.of(t3, t2), caixa.getNotificacoes());
+        assertEquals(List.of(t1), historico.getTransacoes());
+    }
+
+    @Test
+    public void adicionar_NaoLidaRepetida_NaoDuplica() throws Exception {
+        CaixaNotificacoes caixa = new CaixaNotificacoes(2, new Historico());
+        Transacao t = transacao();
+
+        caixa.addTransacao(t);
+        caixa.addTransacao(t);
+
+        assertEquals(1, caixa.getNaoLidas());
+    }
+
+    private static Cliente cliente(String identificacao) {
+        Conta conta = mock(Conta.class, withSettings().stubOnly());
+        when(conta.getIdConta()).thenReturn("1001");
+        Cliente cliente = mock(Cliente.class, withSettings().stubOnly());
+        when(cliente.getIdentificacao()).thenReturn(identificacao);
+        when(cliente.getNome()).thenReturn("Cliente");
+        when(cliente.getConta()).thenReturn(conta);
+        return cliente;
+    }
+
+    private static Transacao transacao(String nossoNumero) {
+        return Transacao.restaurar(10.0, nossoNumero, nossoNumero, cliente("1"), cliente("2"), DataBank.criarData(DataBank.COM_HORA));
+    }
+
+    private static List<Notificacao> regravar(byte[] gravado) throws IOException {
+        return CaixaNotificacoes.ler(new DataInputStream(new ByteArrayInputStream(gravado)), new HashMap<>());
+    }
+
+    @Test
+    public void gravar_MantemAOrdemDeChegada() throws Exception {
+        CaixaNotificacoes caixa = new CaixaNotificacoes(3, new Historico());
+        caixa.addTransacao(transacao("1"));
+        caixa.addFatura(new Fatura(25.0, cliente("2")));
+        caixa.addTransacao(transacao("2"));
+        ByteArrayOutputStream gravado = new ByteArrayOutputStream();
+        caixa.gravar(new DataOutputStream(gravado));
+
+        CaixaNotificacoes lida = CaixaNotificacoes.de(regravar(gravado.toByteArray()), 3, new Historico());
+
+        List<Notificacao> notificacoes = lida.getNotificacoes();
+        assertEquals(3, lida.getNaoLidas());
+        assertEquals("2", ((Transacao) notificacoes.get(0)).getNossoNumero());
+        assertInstanceOf(Fatura.class, notificacoes.get(1));
+        assertEquals("1", ((Transacao) notificacoes.get(2)).getNossoNumero());
+    }
+
+    @Test
+    public void ler_FormatoAntigoDoHistorico() throws Exception {
+        Historico antigo = new Historico();
+        antigo.addTransacao(transacao("1"));
+        antigo.addTransacao(transacao("2"));
+        antigo.addFaturas(new Fatura(25.0, cliente("2")));
+        ByteArrayOutputStream gravado = new ByteArrayOutputStream();
+        antigo.gravar(new DataOutputStream(gravado));
+
+        List<Notificacao> notificacoes = regravar(gravado.toByteArray());
+
+        assertEquals(3, notificacoes.size());
+        assertEquals("1", ((Transacao) notificacoes.get(0)).getNossoNumero());
+        assertEquals("2", ((Transacao) notificacoes.get(1)).getNossoNumero());
+        assertInstanceOf(Fatura.class, notificacoes.get(2));
+    }
+
+    private static Cliente cliente(Conta conta) {
+        Cliente cliente = mock(Cliente.class, withSettings().stubOnly());
+        when(cliente.getConta()).thenReturn(conta);
+        return cliente;
+    }
+
+    @Test
+    public void avisoDeVencimento_TransbordaSemIrParaOHistoricoEOBoletoEPagoDepois() throws Exception {
+        Conta emissor = new ContaStandard();
+        Conta pagador = new ContaStandard();
+        pagador.aumentarSaldo(100.0);
+        Cliente clientePagador = cliente(pagador);
+        Boleto boleto = new Boleto(new DadosTransacao(40.0, cliente(emissor)), new DadosBoleto("01/01/2020", 1, false));
+
+        emissor.addNotificacao(boleto);
+        for (int i = 0; i < CaixaNotificacoes.capacidadePadrao(); i++) {
+            emissor.addNotificacao(transacao(String.format("%025d", i)));
+        }
+        assertFalse(emissor.getHistorico().getTransacoes().contains(boleto));
+
+        pagador.quitarBoleto(boleto, clientePagador, 40.0);
+
+        assertTrue(boleto.isPago());
+        assertEquals(60.0, pagador.getSaldo());
+        assertEquals(40.0, emissor.getSaldo());
+        assertEquals(1, emissor.getHistorico().getTransacoes().stream().filter(t -> t == boleto).count());
+        assertTrue(pagador.getHistorico().getTransacoes().contains(boleto));
+    }
+
+    @Test
+    public void pagarBoleto_JaNoHistoricoDoEmissorNaoFalha() throws Exception {
+        Conta emissor = new ContaStandard();
+        Conta pagador = new ContaStandard();
+        pagador.aumentarSaldo(100.0);
+        Boleto boleto = new Boleto(new DadosTransacao(40.0, cliente(emissor)), new DadosBoleto("01/01/2020", 1, false));
+        emissor.addHistorico(boleto);
+
+        pagador.quitarBoleto(boleto, cliente(pagador), 40.0);
+
+        assertEquals(40.0, emissor.getSaldo());
+        assertEquals(1, emissor.getHistorico().getTransacoes().size());
+    }
+
+    @Test
+    public void marcarComoLidas_EsvaziaACaixa() throws Exception {
+        CaixaNotificacoes caixa = new CaixaNotificacoes(2, new Historico());
+        caixa.addTransacao(transacao());
+
+        caixa.marcarComoLidas();
+
+        assertEquals(0, caixa.getNaoLidas());
+        assertTrue(caixa.getNotificacoes().isEmpty());
+    }
+}
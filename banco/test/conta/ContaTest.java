@@ -12,6 +12,7 @@ import cliente.Cliente;
 import funcionalidades.exceptions.EmprestimoException;
 import transacao.Boleto;
 import transacao.exceptions.TransacaoException;
+import utilsBank.Dinheiro;
 import utilsBank.databank.Data;
 import utilsBank.databank.DataBank;
 import cartao.Cartao;
@@ -61,8 +62,8 @@ public class ContaTest {
     public void pagarEmprestimo_LancarSeSaldoInsuficiente() {
 
         // cenário: pagar empréstimo e não ter saldo suficiente para quitar
-        conta.emprestimo = 1000.0;
-        conta.saldo = 100.0;
+        conta.emprestimoCentavos = Dinheiro.paraCentavos(1000.0);
+        conta.saldoCentavos = Dinheiro.paraCentavos(100.0);
 
         // valida que a exceção é lançada quando saldo for menor que valor do empréstimo:
         assertThrows(EmprestimoException.class, () -> conta.pagarEmprestimo());
@@ -89,9 +90,9 @@ public class ContaTest {
     public void pagarParcelaEmprestimo_PagarSomenteORestanteDoEmprestimo() throws EmprestimoException {
 
         // cenário: quando temos uma última parcela restante (exemplo, 50,00) e ela é menor que a parcela normal (100,00)
-        conta.emprestimo = 50.0;
-        conta.parcelaEmprestimo = 100.0;
-        conta.saldo = 100.0; // garante ter saldo suficiente para pagar os 50,00
+        conta.emprestimoCentavos = Dinheiro.paraCentavos(50.0);
+        conta.parcelaEmprestimoCentavos = Dinheiro.paraCentavos(100.0);
+        conta.saldoCentavos = Dinheiro.paraCentavos(100.0); // garante ter saldo suficiente para pagar os 50,00
 
         // pagar a última parcela (50,00):
         //conta.pagarEmprestimo();
@@ -108,9 +109,9 @@ public class ContaTest {
     public void pagarParcelaEmprestimo_LancarSeSaldoInsuficiente() {
 
         // cenário: saldo tem 50,00 e a parcela é 100,00 -> erro
-        conta.emprestimo = 500.0;
-        conta.parcelaEmprestimo = 100.0;
-        conta.saldo = 50.0;
+        conta.emprestimoCentavos = Dinheiro.paraCentavos(500.0);
+        conta.parcelaEmprestimoCentavos = Dinheiro.paraCentavos(100.0);
+        conta.saldoCentavos = Dinheiro.paraCentavos(50.0);
 
         // valida que a exceção é lançada
         assertThrows(EmprestimoException.class, () -> conta.pagarParcelaEmprestimo());
@@ -122,7 +123,7 @@ public class ContaTest {
     public void pagarBoleto_ComSucesso() throws TransacaoException {
 
         // definindo um saldo inicial para o teste:
-        conta.saldo = 500.0;
+        conta.saldoCentavos = Dinheiro.paraCentavos(500.0);
 
         // criando um objeto simulado (mock) da classe Boleto:
         Boleto boletoMock = Mockito.mock(Boleto.class); // permite simular o comportamento de um boleto sem precisar de instancia real
@@ -171,7 +172,7 @@ public class ContaTest {
 
         // cenário: se ao pagar conta tiver saldo insuficiente, deve lançar exceção:
 
-        conta.saldo = 100.0; // definindo saldo inicial para o teste
+        conta.saldoCentavos = Dinheiro.paraCentavos(100.0); // definindo saldo inicial para o teste
 
         // cria um mock da classe Boleto:
         Boleto boletoMock = Mockito.mock(Boleto.class);
@@ -263,7 +264,7 @@ public class ContaTest {
     @Test
     public void pagarBoleto_MultaDeAtraso() throws TransacaoException{
 
-        conta.saldo = 1000.0;
+        conta.saldoCentavos = Dinheiro.paraCentavos(1000.0);
 
         // mockando boleto
         Boleto boletoMock = mock(Boleto.class);
@@ -6,6 +6,8 @@ import transacao.Transacao;
 import transacao.exceptions.TransacaoException;
 import utilsBank.databank.Data;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -77,6 +79,95 @@ public class HistoricoTest {
         assertEquals(t1, h.getTransacoes().get(1));
     }
 
+    @Test
+    public void adicionarTransacao_MesmoNossoNumero_DeveLancarExcecao() throws Exception {
+        Historico h = new Historico();
+
+        Transacao t1 = mock(Transacao.class);
+        Transacao t2 = mock(Transacao.class);
+        Data d = mock(Data.class);
+
+        when(t1.getNossoNumero()).thenReturn("123");
+        when(t2.getNossoNumero()).thenReturn("123");
+        when(t1.getDataEmissaoTransacao()).thenReturn(d);
+        when(t2.getDataEmissaoTransacao()).thenReturn(d);
+
+        h.addTransacao(t1);
+
+        assertThrows(TransacaoException.class, () -> h.addTransacao(t2));
+        assertEquals(1, h.getTransacoes().size());
+    }
+
+    @Test
+    public void adicionarTransacao_DataIntermediaria_InsereNoMeio() throws Exception {
+        Historico h = new Historico();
+
+        Transacao antiga = mock(Transacao.class);
+        Transacao media = mock(Transacao.class);
+        Transacao recente = mock(Transacao.class);
+
+        Data dAntiga = mock(Data.class);
+        Data dMedia = mock(Data.class);
+        Data dRecente = mock(Data.class);
+
+        when(antiga.getDataEmissaoTransacao()).thenReturn(dAntiga);
+        when(media.getDataEmissaoTransacao()).thenReturn(dMedia);
+        when(recente.getDataEmissaoTransacao()).thenReturn(dRecente);
+
+        when(dMedia.depoisDe(dAntiga)).thenReturn(true);
+        when(dRecente.depoisDe(dAntiga)).thenReturn(true);
+        when(dRecente.depoisDe(dMedia)).thenReturn(true);
+
+        h.addTransacao(antiga);
+        h.addTransacao(recente);
+        h.addTransacao(media);
+
+        assertEquals(recente, h.getTransacoes().get(0));
+        assertEquals(media, h.getTransacoes().get(1));
+        assertEquals(antiga, h.getTransacoes().get(2));
+    }
+
+    @Test
+    public void pagina_RetornaTrechoDoHistorico() throws Exception {
+        Historico h = new Historico();
+        Transacao[] transacoes = new Transacao[5];
+        for (int i = 0; i < transacoes.length; i++) {
+            transacoes[i] = mock(Transacao.class);
+            when(transacoes[i].getDataEmissaoTransacao()).thenReturn(mock(Data.class));
+            h.addTransacao(transacoes[i]);
+        }
+
+        assertEquals(List.of(transacoes[2], transacoes[3]), h.pagina(2, 2));
+        assertEquals(List.of(transacoes[4]), h.pagina(4, 10));
+        assertTrue(h.pagina(10, 2).isEmpty());
+    }
+
+    @Test
+    public void entre_RetornaSoOPeriodo() throws Exception {
+        Historico h = new Historico();
+
+        Transacao antiga = mock(Transacao.class);
+        Transacao recente = mock(Transacao.class);
+        Data dAntiga = mock(Data.class);
+        Data dRecente = mock(Data.class);
+        Data inicio = mock(Data.class);
+        Data fim = mock(Data.class);
+
+        when(antiga.getDataEmissaoTransacao()).thenReturn(dAntiga);
+        when(recente.getDataEmissaoTransacao()).thenReturn(dRecente);
+        when(dRecente.depoisDe(dAntiga)).thenReturn(true);
+
+        // periodo [inicio, fim) contém só a transação recente
+        when(dAntiga.antesDe(inicio)).thenReturn(true);
+        when(dAntiga.antesDe(fim)).thenReturn(true);
+        when(dRecente.antesDe(fim)).thenReturn(true);
+
+        h.addTransacao(antiga);
+        h.addTransacao(recente);
+
+        assertEquals(List.of(recente), h.entre(inicio, fim));
+    }
+
     @Test
     public void adicionarFatura_ComSucesso() {
         Historico h = new Historico();
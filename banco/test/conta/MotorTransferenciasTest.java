@@ -0,0 +1,220 @@
+package conta;
+
+import agencia.Agencia;
+import cliente.Cliente;
+import org.junit.jupiter.api.Test;
+import transacao.Transacao;
+import transacao.exceptions.TransacaoException;
+import utilsBank.databank.Data;
+import utilsBank.databank.DataBank;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class MotorTransferenciasTest {
+    private final AtomicLong nossoNumero = new AtomicLong();
+
+    private static Cliente cliente(Conta conta) {
+        Cliente cliente = mock(Cliente.class, withSettings().stubOnly());
+        when(cliente.getConta()).thenReturn(conta);
+        return cliente;
+    }
+
+    private Transacao transacao(double valor, Cliente origem, Cliente destino) {
+        String numero = String.format("%025d", nossoNumero.incrementAndGet());
+        return Transacao.restaurar(valor, numero, numero, destino, origem, DataBank.criarData(DataBank.COM_HORA));
+    }
+
+    @Test
+    public void transferir_SaldoInsuficienteNaoMovimenta() throws TransacaoException {
+        Conta origem = new ContaStandard();
+        Conta destino = new ContaStandard();
+        origem.aumentarSaldo(50.0);
+
+        Transacao transacao = transacao(80.0, cliente(origem), cliente(destino));
+        assertEquals(ResultadoTransferencia.SALDO_INSUFICIENTE, MotorTransferencias.transferir(transacao));
+        assertEquals(50.0, origem.getSaldo());
+        assertEquals(0.0, destino.getSaldo());
+        assertFalse(origem.possuiTransacaoRealizada(transacao.getNossoNumero()));
+    }
+
+    @Test
+    public void transferir_MesmaTransacaoDuasVezes() throws TransacaoException {
+        Conta origem = new ContaStandard();
+        Conta destino = new ContaStandard();
+        origem.aumentarSaldo(100.0);
+
+        Transacao transacao = transacao(30.0, cliente(origem), cliente(destino));
+        assertEquals(ResultadoTransferencia.EFETIVADA, MotorTransferencias.transferir(transacao));
+        assertEquals(ResultadoTransferencia.JA_REALIZADA, MotorTransferencias.transferir(transacao));
+        assertEquals(70.0, origem.getSaldo());
+        assertEquals(30.0, destino.getSaldo());
+    }
+
+    @Test
+    public void transferir_ValorInvalido() throws TransacaoException {
+        Conta origem = new ContaStandard();
+        origem.aumentarSaldo(100.0);
+        Cliente cliente = cliente(origem);
+
+        assertEquals(ResultadoTransferencia.VALOR_INVALIDO, MotorTransferencias.transferir(transacao(0.0, cliente, cliente(new ContaStandard()))));
+        assertEquals(ResultadoTransferencia.VALOR_INVALIDO, MotorTransferencias.transferir(transacao(-5.0, cliente, cliente(new ContaStandard()))));
+        assertEquals(100.0, origem.getSaldo());
+    }
+
+    @Test
+    public void reaplicar_NaoConfereSaldo() throws TransacaoException {
+        Conta origem = new ContaStandard();
+        Conta destino = new ContaStandard();
+
+        assertEquals(ResultadoTransferencia.EFETIVADA, MotorTransferencias.reaplicar(transacao(10.0, cliente(origem), cliente(destino))));
+        assertEquals(-10.0, origem.getSaldo());
+        assertEquals(10.0, destino.getSaldo());
+    }
+
+    @Test
+    public void transferir_EsperaOSnapshotTerminar() throws Exception {
+        Conta origem = new ContaStandard();
+        Conta destino = new ContaStandard();
+        origem.aumentarSaldo(100.0);
+        Transacao transacao = transacao(30.0, cliente(origem), cliente(destino));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<ResultadoTransferencia> tarefa;
+        Agencia.TRAVA_SNAPSHOT.writeLock().lock();
+        try {
+            tarefa = executor.submit(() -> MotorTransferencias.transferir(transacao));
+            assertThrows(TimeoutException.class, () -> tarefa.get(200, TimeUnit.MILLISECONDS));
+            assertEquals(100.0, origem.getSaldo());
+            assertEquals(0.0, destino.getSaldo());
+        } finally {
+            Agencia.TRAVA_SNAPSHOT.writeLock().unlock();
+        }
+
+        assertEquals(ResultadoTransferencia.EFETIVADA, tarefa.get(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertEquals(70.0, origem.getSaldo());
+        assertEquals(30.0, destino.getSaldo());
+    }
+
+    @Test
+    public void transferir_ConcorrenteMantemODinheiroTotal() throws Exception {
+        int quantidadeContas = 16;
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        int transferenciasPorThread = 2_000;
+        double saldoInicial = 1_000.0;
+
+        List<Conta> contas = new ArrayList<>();
+        List<Cliente> clientes = new ArrayList<>();
+        for (int i = 0; i < quantidadeContas; i++) {
+            Conta conta = new ContaStandard();
+            conta.aumentarSaldo(saldoInicial);
+            contas.add(conta);
+            clientes.add(cliente(conta));
+        }
+        AtomicReferenceArray<Throwable> erros = new AtomicReferenceArray<>(threads);
+        AtomicLong efetivadas = new AtomicLong();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int indice = t;
+            tarefas.add(executor.submit(() -> {
+                SplittableRandom aleatorio = new SplittableRandom(indice);
+                try {
+                    largada.await();
+                    for (int i = 0; i < transferenciasPorThread; i++) {
+                        int origem = aleatorio.nextInt(quantidadeContas);
+                        int destino = aleatorio.nextInt(quantidadeContas - 1);
+                        if (destino >= origem) {
+                            destino++;
+                        }
+                        double valor = 1 + aleatorio.nextInt(200);
+                        if (MotorTransferencias.transferir(transacao(valor, clientes.get(origem), clientes.get(destino)))
+                                == ResultadoTransferencia.EFETIVADA) {
+                            efetivadas.incrementAndGet();
+                        }
+                    }
+                } catch (Throwable ex) {
+                    erros.set(indice, ex);
+                }
+            }));
+        }
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        for (int t = 0; t < threads; t++) {
+            assertNull(erros.get(t));
+        }
+        double total = 0;
+        for (Conta conta : contas) {
+            assertTrue(conta.getSaldo() >= 0, "saldo negativo: " + conta.getSaldo());
+            total += conta.getSaldo();
+        }
+        assertEquals(quantidadeContas * saldoInicial, total, 1e-6);
+        assertTrue(efetivadas.get() > 0);
+    }
+
+    @Test
+    public void transferir_HistoricoLidoEArquivadoDuranteAsTransferencias() throws Exception {
+        Conta contaA = new ContaStandard();
+        Conta contaB = new ContaStandard();
+        contaA.aumentarSaldo(1_000.0);
+        contaB.aumentarSaldo(1_000.0);
+        Cliente a = cliente(contaA);
+        Cliente b = cliente(contaB);
+        Data amanha = DataBank.restaurarDataDoDia(LocalDate.now().toEpochDay() + 1);
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < 2; t++) {
+            boolean deAParaB = t == 0;
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < 5_000; i++) {
+                    MotorTransferencias.transferir(deAParaB ? transacao(1.0, a, b) : transacao(1.0, b, a));
+                }
+                return null;
+            }));
+        }
+        tarefas.add(executor.submit(() -> {
+            largada.await();
+            for (int i = 0; i < 2_000; i++) {
+                for (Transacao transacao : contaA.getHistorico().pagina(0, 20)) {
+                    assertNotNull(transacao.getNossoNumero());
+                }
+                contaB.getHistorico().pagina(contaB, Historico.Direcao.RECEBIDAS, 0, 20);
+                contaA.getHistorico().gravar(new DataOutputStream(new ByteArrayOutputStream()));
+                if (i % 10 == 0) {
+                    contaA.retirarTransacoesAntesDe(amanha);
+                    contaB.retirarTransacoesAntesDe(amanha);
+                }
+            }
+            return null;
+        }));
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(2_000.0, contaA.getSaldo() + contaB.getSaldo(), 1e-6);
+    }
+}
@@ -0,0 +1,162 @@
+package conta;
+
+import agencia.Agencia;
+import cliente.Cliente;
+import conta.exceptions.TransacaoNaoRealizadaException;
+import interfaceUsuario.dados.DadosTransacao;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import transacao.Transacao;
+import utilsBank.arquivo.RegistroOperacoes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class RequisicoesRecentesTest {
+    private MockedStatic<Agencia> agenciaEstatica;
+    private Agencia agencia;
+    private RegistroOperacoes registro;
+
+    @BeforeEach
+    public void setUp() {
+        agencia = mock(Agencia.class);
+        registro = mock(RegistroOperacoes.class);
+        when(agencia.getRegistroOperacoes()).thenReturn(registro);
+        agenciaEstatica = comAgencia();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        agenciaEstatica.close();
+    }
+
+    /**
+     * O mock estático vale só para a thread que o cria.
+     */
+    private MockedStatic<Agencia> comAgencia() {
+        MockedStatic<Agencia> estatica = mockStatic(Agencia.class);
+        estatica.when(Agencia::getInstance).thenReturn(agencia);
+        return estatica;
+    }
+
+    private static Cliente cliente(Conta conta) {
+        Cliente cliente = mock(Cliente.class, withSettings().stubOnly());
+        when(cliente.getConta()).thenReturn(conta);
+        return cliente;
+    }
+
+    @Test
+    public void buscar_ChaveVenceDepoisDaValidade() {
+        AtomicLong agora = new AtomicLong(1_000);
+        RequisicoesRecentes requisicoes = new RequisicoesRecentes(10, 500, agora::get);
+        Transacao transacao = mock(Transacao.class);
+
+        requisicoes.registrar("a", transacao);
+        agora.addAndGet(499);
+        assertSame(transacao, requisicoes.buscar("a"));
+        agora.addAndGet(1);
+        assertNull(requisicoes.buscar("a"));
+        assertEquals(0, requisicoes.tamanho());
+    }
+
+    @Test
+    public void registrar_DescartaAMaisAntigaAlemDaCapacidade() {
+        RequisicoesRecentes requisicoes = new RequisicoesRecentes(3, Long.MAX_VALUE, () -> 0);
+        for (int i = 0; i < 5; i++) {
+            requisicoes.registrar("chave" + i, mock(Transacao.class));
+        }
+
+        assertEquals(3, requisicoes.tamanho());
+        assertNull(requisicoes.buscar("chave0"));
+        assertNull(requisicoes.buscar("chave1"));
+        assertNotNull(requisicoes.buscar("chave4"));
+    }
+
+    @Test
+    public void registrar_RemoveAsVencidasDaFrente() {
+        AtomicLong agora = new AtomicLong();
+        RequisicoesRecentes requisicoes = new RequisicoesRecentes(10, 100, agora::get);
+        requisicoes.registrar("velha1", mock(Transacao.class));
+        requisicoes.registrar("velha2", mock(Transacao.class));
+        agora.set(150);
+        requisicoes.registrar("nova", mock(Transacao.class));
+
+        assertEquals(1, requisicoes.tamanho());
+    }
+
+    @Test
+    public void transferir_MesmaChaveNaoDebitaDuasVezes() throws Exception {
+        Conta origem = new ContaStandard();
+        Conta destino = new ContaStandard();
+        origem.aumentarSaldo(100.0);
+        DadosTransacao dados = new DadosTransacao(30.0, cliente(destino), cliente(origem));
+
+        Transacao primeira = origem.transferir(dados, "req-1");
+        Transacao reenvio = origem.transferir(dados, "req-1");
+        Transacao outra = origem.transferir(dados, "req-2");
+
+        assertSame(primeira, reenvio);
+        assertNotSame(primeira, outra);
+        assertEquals(40.0, origem.getSaldo());
+        assertEquals(60.0, destino.getSaldo());
+        verify(registro).registrarTransferencia(primeira);
+        verify(registro).registrarTransferencia(outra);
+        verify(registro, times(2)).registrarTransferencia(any());
+    }
+
+    @Test
+    public void transferir_RecusadaNaoGuardaAChave() throws Exception {
+        Conta origem = new ContaStandard();
+        Conta destino = new ContaStandard();
+        DadosTransacao dados = new DadosTransacao(30.0, cliente(destino), cliente(origem));
+
+        assertThrows(TransacaoNaoRealizadaException.class, () -> origem.transferir(dados, "req-1"));
+        origem.aumentarSaldo(30.0);
+        Transacao transacao = origem.transferir(dados, "req-1");
+
+        assertEquals(0.0, origem.getSaldo());
+        assertEquals(30.0, destino.getSaldo());
+        verify(registro).registrarTransferencia(transacao);
+        verify(registro, times(1)).registrarTransferencia(any());
+    }
+
+    @Test
+    public void transferir_ReenviosConcorrentesExecutamUmaVez() throws Exception {
+        Conta origem = new ContaStandard();
+        Conta destino = new ContaStandard();
+        origem.aumentarSaldo(100.0);
+        DadosTransacao dados = new DadosTransacao(10.0, cliente(destino), cliente(origem));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Transacao>> envios = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            Callable<Transacao> envio = () -> {
+                try (MockedStatic<Agencia> estatica = comAgencia()) {
+                    return origem.transferir(dados, "req-unica");
+                }
+            };
+            envios.add(executor.submit(envio));
+        }
+        Transacao primeira = envios.get(0).get(30, TimeUnit.SECONDS);
+        for (Future<Transacao> envio : envios) {
+            assertSame(primeira, envio.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        assertEquals(90.0, origem.getSaldo());
+        assertEquals(10.0, destino.getSaldo());
+        verify(registro, times(1)).registrarTransferencia(any());
+    }
+}
@@ -0,0 +1,140 @@
+package conta;
+
+import agencia.Agencia;
+import agencia.exceptions.BuscaException;
+import cliente.Cliente;
+import interfaceUsuario.dados.DadosChavesPix;
+import interfaceUsuario.dados.DadosPagamento;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import transacao.Transacao;
+import transacao.exceptions.TransacaoException;
+import utilsBank.arquivo.RegistroOperacoes;
+import utilsBank.arquivo.exception.EscritaArquivoException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class TransferenciaLoteTest {
+    private MockedStatic<Agencia> agenciaEstatica;
+    private Agencia agencia;
+    private RegistroOperacoes registro;
+    private Conta contaOrigem;
+    private Cliente origem;
+    private Conta contaA;
+    private Conta contaB;
+
+    private static Cliente cliente(Conta conta) {
+        Cliente cliente = mock(Cliente.class, withSettings().stubOnly());
+        when(cliente.getConta()).thenReturn(conta);
+        return cliente;
+    }
+
+    private static DadosPagamento pagamento(String chave, Double valor) {
+        return new DadosPagamento(DadosChavesPix.EMAIL, chave, valor);
+    }
+
+    @BeforeEach
+    public void setUp() throws BuscaException {
+        contaOrigem = new ContaStandard();
+        contaA = new ContaStandard();
+        contaB = new ContaStandard();
+        origem = cliente(contaOrigem);
+        agencia = mock(Agencia.class);
+        registro = mock(RegistroOperacoes.class);
+        when(agencia.getRegistroOperacoes()).thenReturn(registro);
+        when(agencia.buscarClientePorChavePix(anyString(), anyString())).thenThrow(new BuscaException("Chave nao encontrada"));
+        doReturn(cliente(contaA)).when(agencia).buscarClientePorChavePix(DadosChavesPix.EMAIL, "a@banco.com");
+        doReturn(cliente(contaB)).when(agencia).buscarClientePorChavePix(DadosChavesPix.EMAIL, "b@banco.com");
+        doReturn(origem).when(agencia).buscarClientePorChavePix(DadosChavesPix.EMAIL, "origem@banco.com");
+        agenciaEstatica = mockStatic(Agencia.class);
+        agenciaEstatica.when(Agencia::getInstance).thenReturn(agencia);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        agenciaEstatica.close();
+    }
+
+    @Test
+    public void transferirLote_DevolveUmResultadoPorPagamento() throws TransacaoException, BuscaException, EscritaArquivoException {
+        contaOrigem.aumentarSaldo(100.0);
+
+        List<ResultadoPagamento> resultados = contaOrigem.transferirLote(origem, List.of(
+                pagamento("a@banco.com", 30.0),
+                pagamento("desconhecida@banco.com", 10.0),
+                pagamento("b@banco.com", 0.0),
+                pagamento("origem@banco.com", 5.0),
+                pagamento("b@banco.com", 20.5)));
+
+        assertEquals(ResultadoTransferencia.EFETIVADA, resultados.get(0).getResultado());
+        assertEquals(ResultadoTransferencia.DESTINO_NAO_ENCONTRADO, resultados.get(1).getResultado());
+        assertEquals(ResultadoTransferencia.VALOR_INVALIDO, resultados.get(2).getResultado());
+        assertEquals(ResultadoTransferencia.MESMA_CONTA, resultados.get(3).getResultado());
+        assertTrue(resultados.get(4).isEfetivado());
+        assertNull(resultados.get(1).getTransacao());
+        assertEquals(49.5, contaOrigem.getSaldo());
+        assertEquals(30.0, contaA.getSaldo());
+        assertEquals(20.5, contaB.getSaldo());
+        assertTrue(contaOrigem.possuiTransacaoRealizada(resultados.get(0).getTransacao().getNossoNumero()));
+        verify(agencia, times(5)).buscarClientePorChavePix(anyString(), anyString());
+        verify(registro).registrarLote(List.of(resultados.get(0).getTransacao(), resultados.get(4).getTransacao()));
+    }
+
+    @Test
+    public void transferirLote_SaldoInsuficienteParaOTotalNaoMoveNada() throws TransacaoException, EscritaArquivoException {
+        contaOrigem.aumentarSaldo(50.0);
+
+        List<ResultadoPagamento> resultados = contaOrigem.transferirLote(origem, List.of(
+                pagamento("a@banco.com", 30.0),
+                pagamento("b@banco.com", 30.0)));
+
+        for (ResultadoPagamento resultado : resultados) {
+            assertEquals(ResultadoTransferencia.SALDO_INSUFICIENTE, resultado.getResultado());
+        }
+        assertEquals(50.0, contaOrigem.getSaldo());
+        assertEquals(0.0, contaA.getSaldo());
+        assertEquals(0.0, contaB.getSaldo());
+        verify(registro, never()).registrarLote(any());
+    }
+
+    @Test
+    public void transferirLote_HistoricoQueFalhaNaoDeixaDestinoSemCredito() throws TransacaoException, BuscaException, EscritaArquivoException {
+        Conta contaFalha = spy(new ContaStandard());
+        doThrow(new TransacaoException("Transacao ja existe")).when(contaFalha).addHistorico(any(Transacao.class));
+        doReturn(cliente(contaFalha)).when(agencia).buscarClientePorChavePix(DadosChavesPix.EMAIL, "falha@banco.com");
+        contaOrigem.aumentarSaldo(100.0);
+
+        List<ResultadoPagamento> resultados = contaOrigem.transferirLote(origem, List.of(
+                pagamento("falha@banco.com", 30.0),
+                pagamento("b@banco.com", 20.0)));
+
+        assertTrue(resultados.get(0).isEfetivado());
+        assertTrue(resultados.get(1).isEfetivado());
+        assertEquals(50.0, contaOrigem.getSaldo());
+        assertEquals(30.0, contaFalha.getSaldo());
+        assertEquals(20.0, contaB.getSaldo());
+        verify(registro).registrarLote(List.of(resultados.get(0).getTransacao(), resultados.get(1).getTransacao()));
+    }
+
+    @Test
+    public void transferirLote_ConservaODinheiro() throws TransacaoException, EscritaArquivoException {
+        contaOrigem.aumentarSaldo(1_000.0);
+        DadosPagamento[] pagamentos = new DadosPagamento[100];
+        for (int i = 0; i < pagamentos.length; i++) {
+            pagamentos[i] = pagamento(i % 2 == 0 ? "a@banco.com" : "b@banco.com", 0.1 * (i + 1));
+        }
+
+        contaOrigem.transferirLote(origem, List.of(pagamentos));
+
+        long total = contaOrigem.saldoCentavos + contaA.saldoCentavos + contaB.saldoCentavos;
+        assertEquals(100_000, total);
+        assertEquals(495.0, contaOrigem.getSaldo());
+    }
+}
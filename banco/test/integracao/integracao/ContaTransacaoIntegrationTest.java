@@ -105,6 +105,7 @@ class ContaTransacaoIntegrationTest {
         // Arrange
         Conta contaA = new ContaStandard();
         Conta contaB = new ContaStandard();
+        contaA.aumentarSaldo(100.0);
         Cliente clienteA = mock(Cliente.class);
         Cliente clienteB = mock(Cliente.class);
         when(clienteA.getConta()).thenReturn(contaA);
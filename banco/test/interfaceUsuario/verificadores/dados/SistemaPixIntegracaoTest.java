@@ -8,6 +8,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import utilsBank.Dinheiro;
 import java.util.Scanner;
 import static interfaceUsuario.menus.MenuUsuario.TECLADO;
 import static org.junit.jupiter.api.Assertions.*;
@@ -21,17 +22,17 @@ class SistemaPixTransacaoTest {
     static class ContaTeste extends Conta {
         public ContaTeste(double saldoInicial) {
             super(); // Chama o construtor da Conta (gera ID, listas, etc)
-            this.saldo = saldoInicial; // Acessa o atributo protected 'saldo' diretamente
+            this.saldoCentavos = Dinheiro.paraCentavos(saldoInicial); // Acessa o atributo protected 'saldoCentavos' diretamente
         }
 
         // Método auxiliar para simular o débito (já que diminuirSaldo é private/protected e transferir depende de UI)
         public void simularDebito(double valor) {
-            this.saldo -= valor;
+            this.saldoCentavos -= Dinheiro.paraCentavos(valor);
         }
 
         // Método para pegar saldo (se getSaldo() não fosse público, mas ele é)
         public double getSaldoAtual() {
-            return this.saldo;
+            return getSaldo();
         }
     }
 
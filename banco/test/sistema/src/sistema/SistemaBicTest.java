@@ -40,6 +40,7 @@ class SistemaBicTest {
         new File("banco/chaves_geradas_aleatoria.dat").delete();
         new File("banco/geradas_numero_cartao.dat").delete();
         new File("banco/chaves_id_conta.dat").delete();
+        new File("banco/operacoes.log").delete();
     }
 
     @Test
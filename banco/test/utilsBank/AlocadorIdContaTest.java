@@ -0,0 +1,90 @@
+package utilsBank;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AlocadorIdContaTest {
+
+    @TempDir
+    Path diretorio;
+
+    private String arquivo() {
+        return diretorio.resolve("mapa.dat").toString();
+    }
+
+    @Test
+    public void alocar_EsgotaOEspacoSemRepetir() {
+        AlocadorIdConta alocador = new AlocadorIdConta(arquivo(), 2, null);
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            String id = alocador.alocar(2);
+            assertEquals(2, id.length());
+            assertTrue(ids.add(id));
+        }
+        assertEquals(0, alocador.getLivres());
+        RuntimeException erro = assertThrows(RuntimeException.class, () -> alocador.alocar(2));
+        assertTrue(erro.getMessage().contains("ja foram usados"));
+    }
+
+    @Test
+    public void alocar_MapaDe4DigitosGravaUmBitPorId() {
+        new AlocadorIdConta(arquivo(), 4, null).alocar(4);
+        assertEquals(2 * Integer.BYTES + (10_000 + 63) / 64 * Long.BYTES, new File(arquivo()).length());
+    }
+
+    @Test
+    public void carregar_MantemIdsUsados() {
+        AlocadorIdConta antes = new AlocadorIdConta(arquivo(), 2, null);
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 60; i++) {
+            ids.add(antes.alocar(2));
+        }
+
+        AlocadorIdConta depois = new AlocadorIdConta(arquivo(), 2, null);
+        assertEquals(40, depois.getLivres());
+        for (int i = 0; i < 40; i++) {
+            assertTrue(ids.add(depois.alocar(2)));
+        }
+    }
+
+    @Test
+    public void carregar_ImportaIdsDaGeracaoAntiga() {
+        AlocadorIdConta alocador = new AlocadorIdConta(arquivo(), 1, Set.of("0", "1", "2", "3", "4", "5", "6", "7", "8"));
+        assertEquals("9", alocador.alocar(1));
+    }
+
+    @Test
+    public void marcar_ReservaIdsDeContasExistentes() {
+        AlocadorIdConta alocador = new AlocadorIdConta(arquivo(), 1, null);
+        assertEquals(9, alocador.marcar(List.of("0", "1", "2", "3", "4", "5", "6", "7", "9", "x")));
+        assertEquals(0, alocador.marcar(List.of("0")));
+        assertEquals("8", alocador.alocar(1));
+    }
+
+    @Test
+    public void ampliar_MantemIdsAntigos() {
+        AlocadorIdConta alocador = new AlocadorIdConta(arquivo(), 1, null);
+        Set<Integer> usados = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            usados.add(Integer.parseInt(alocador.alocar(1)));
+        }
+        alocador.ampliar(2);
+
+        AlocadorIdConta recarregado = new AlocadorIdConta(arquivo(), 1, null);
+        assertEquals(2, recarregado.getDigitos());
+        assertEquals(90, recarregado.getLivres());
+        for (int i = 0; i < 90; i++) {
+            String id = recarregado.alocar(1);
+            assertEquals(2, id.length());
+            assertTrue(usados.add(Integer.parseInt(id)));
+        }
+    }
+}
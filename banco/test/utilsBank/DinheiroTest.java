@@ -0,0 +1,50 @@
+package utilsBank;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DinheiroTest {
+
+    @Test
+    public void paraCentavos_ArredondaParaOCentavoMaisProximo() {
+        assertEquals(10, Dinheiro.paraCentavos(0.1));
+        assertEquals(2_000, Dinheiro.paraCentavos(19.999));
+        assertEquals(0, Dinheiro.paraCentavos(0.004));
+        assertEquals(-1_050, Dinheiro.paraCentavos(-10.5));
+        assertEquals(0, Dinheiro.paraCentavos(null));
+    }
+
+    @Test
+    public void paraCentavos_RejeitaValorNaoFinito() {
+        assertThrows(IllegalArgumentException.class, () -> Dinheiro.paraCentavos(Double.POSITIVE_INFINITY));
+        assertThrows(IllegalArgumentException.class, () -> Dinheiro.paraCentavos(Double.NaN));
+    }
+
+    @Test
+    public void paraReais_VoltaAoMesmoValor() {
+        for (long centavos = -1_000; centavos <= 1_000_000; centavos += 7) {
+            assertEquals(centavos, Dinheiro.paraCentavos(Dinheiro.paraReais(centavos)));
+        }
+    }
+
+    @Test
+    public void somaEmCentavos_FechaExata() {
+        long total = 0;
+        double totalReais = 0;
+        for (int i = 0; i < 10; i++) {
+            total += Dinheiro.paraCentavos(0.1);
+            totalReais += 0.1;
+        }
+        assertEquals(1.0, Dinheiro.paraReais(total));
+        assertNotEquals(1.0, totalReais);
+    }
+
+    @Test
+    public void rendimento_ArredondaMetadeParaOPar() {
+        assertEquals(2, Dinheiro.rendimento(5, 0.5));
+        assertEquals(4, Dinheiro.rendimento(7, 0.5));
+        assertEquals(2, Dinheiro.rendimento(10_000, 0.0002));
+        assertEquals(0, Dinheiro.rendimento(1_000, 0.0002));
+    }
+}
@@ -0,0 +1,69 @@
+package utilsBank;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.SplittableRandom;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GeradorChavesTest {
+
+    @Test
+    public void gerar_UsaApenasOAlfabetoDaChave() {
+        GeradorChaves gerador = new GeradorChaves();
+        for (int i = 0; i < 1_000; i++) {
+            String chave = gerador.gerar(GeracaoAleatoria.TAMANHO_CHAVE_ALEATORIA);
+            assertEquals(GeracaoAleatoria.TAMANHO_CHAVE_ALEATORIA, chave.length());
+            assertTrue(chave.matches("[a-z0-9]+"));
+        }
+    }
+
+    @Test
+    public void gerar_MesmaSementeMesmaChave() {
+        assertEquals(new GeradorChaves(new SplittableRandom(7)).gerar(48), new GeradorChaves(new SplittableRandom(7)).gerar(48));
+    }
+
+    @Test
+    public void gerar_ChavesMaioresQueOBuffer() {
+        assertEquals(100, new GeradorChaves().gerar(100).length());
+        assertEquals(1, new GeradorChaves().gerar(1).length());
+    }
+
+    @Test
+    public void gerar_UsaTodosOsCaracteres() {
+        GeradorChaves gerador = new GeradorChaves(new SplittableRandom(1));
+        Set<Character> vistos = new HashSet<>();
+        for (char c : gerador.gerar(2_000).toCharArray()) {
+            vistos.add(c);
+        }
+        assertEquals(GeradorChaves.CARACTERES.length(), vistos.size());
+    }
+
+    @Test
+    public void combinacoes_LimitaNoMaiorLong() {
+        assertEquals(36 * 36, GeradorChaves.combinacoes(2));
+        assertEquals(Long.MAX_VALUE, GeradorChaves.combinacoes(48));
+    }
+
+    @Test
+    public void filtroBloom_NaoTemFalsoNegativo() {
+        GeradorChaves gerador = new GeradorChaves(new SplittableRandom(3));
+        Set<String> chaves = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            chaves.add(gerador.gerar(48));
+        }
+        FiltroBloom filtro = FiltroBloom.de(chaves, 10_000, 0.01);
+        for (String chave : chaves) {
+            assertTrue(filtro.talvezContenha(chave));
+        }
+        int falsosPositivos = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filtro.talvezContenha(gerador.gerar(48))) {
+                falsosPositivos++;
+            }
+        }
+        assertTrue(falsosPositivos < 300, "falsos positivos: " + falsosPositivos);
+    }
+}
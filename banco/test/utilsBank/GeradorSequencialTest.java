@@ -0,0 +1,141 @@
+package utilsBank;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GeradorSequencialTest {
+
+    @TempDir
+    Path diretorio;
+
+    private String arquivo() {
+        return diretorio.resolve("contador.dat").toString();
+    }
+
+    @Test
+    public void proximo_PercorreTodoODominioSemRepetir() {
+        GeradorSequencial gerador = new GeradorSequencial(arquivo(), null, 64);
+        Set<String> emitidos = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            String id = gerador.proximo(4);
+            assertEquals(4, id.length());
+            assertTrue(emitidos.add(id), "id repetido: " + id);
+        }
+        assertThrows(RuntimeException.class, () -> gerador.proximo(4));
+    }
+
+    @Test
+    public void proximo_NaoEmiteEmSequencia() {
+        GeradorSequencial gerador = new GeradorSequencial(arquivo(), null);
+        String primeiro = gerador.proximo(12);
+        String segundo = gerador.proximo(12);
+        assertNotEquals(Long.parseLong(primeiro) + 1, Long.parseLong(segundo));
+    }
+
+    @Test
+    public void proximo_NossoNumeroDe25Digitos() {
+        GeradorSequencial gerador = new GeradorSequencial(arquivo(), null);
+        Set<String> emitidos = new HashSet<>();
+        for (int i = 0; i < 5_000; i++) {
+            String id = gerador.proximo(25);
+            assertTrue(id.matches("\\d{25}"));
+            assertTrue(emitidos.add(id));
+        }
+    }
+
+    @Test
+    public void proximo_GravaApenasUmaReservaPorBloco() {
+        GeradorSequencial gerador = new GeradorSequencial(arquivo(), null, 100);
+        gerador.proximo(6);
+        assertEquals(100, gerador.getLimite());
+        for (int i = 1; i < 100; i++) {
+            gerador.proximo(6);
+        }
+        assertEquals(100, gerador.getLimite());
+        gerador.proximo(6);
+        assertEquals(200, gerador.getLimite());
+    }
+
+    @Test
+    public void proximo_ContinuaDoLimiteGravadoAoReiniciar() {
+        GeradorSequencial antes = new GeradorSequencial(arquivo(), null, 100);
+        Set<String> emitidos = new HashSet<>();
+        for (int i = 0; i < 150; i++) {
+            emitidos.add(antes.proximo(6));
+        }
+
+        GeradorSequencial depois = new GeradorSequencial(arquivo(), null, 100);
+        assertEquals(200, depois.getLimite());
+        for (int i = 0; i < 150; i++) {
+            assertTrue(emitidos.add(depois.proximo(6)));
+        }
+        assertEquals(400, depois.getLimite());
+    }
+
+    @Test
+    public void proximo_PulaIdsDaGeracaoAntiga() throws IOException {
+        gravarContador(42L, 0);
+        GeradorSequencial referencia = new GeradorSequencial(arquivo(), null);
+        String primeiro = referencia.proximo(4);
+        String segundo = referencia.proximo(4);
+
+        gravarContador(42L, 0);
+        GeradorSequencial gerador = new GeradorSequencial(arquivo(), Set.of(primeiro));
+        assertEquals(segundo, gerador.proximo(4));
+    }
+
+    @Test
+    public void jaEmitido_ReconheceTodoOBlocoReservado() {
+        GeradorSequencial gerador = new GeradorSequencial(arquivo(), null, 100);
+        List<String> emitidos = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            emitidos.add(gerador.proximo(25));
+        }
+        GeradorSequencial reaberto = new GeradorSequencial(arquivo(), null, 100);
+        for (String id : emitidos) {
+            assertTrue(reaberto.jaEmitido(id), id);
+        }
+        Set<String> bloco = new HashSet<>(emitidos);
+        for (int i = 30; i < 100; i++) {
+            bloco.add(gerador.proximo(25));
+        }
+        assertEquals(100, bloco.size());
+        for (String id : bloco) {
+            assertTrue(reaberto.jaEmitido(id), id);
+        }
+        assertFalse(reaberto.jaEmitido(gerador.proximo(25)));
+        assertFalse(reaberto.jaEmitido("12a4"));
+    }
+
+    @Test
+    public void jaEmitido_PoucosDigitos() {
+        GeradorSequencial gerador = new GeradorSequencial(arquivo(), null, 1000);
+        Set<String> emitidos = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            emitidos.add(gerador.proximo(1));
+        }
+        assertEquals(10, emitidos.size());
+        for (String id : emitidos) {
+            assertTrue(gerador.jaEmitido(id));
+        }
+    }
+
+    private void gravarContador(long chave, long limite) throws IOException {
+        try (DataOutputStream saida = new DataOutputStream(new FileOutputStream(arquivo()))) {
+            saida.writeInt(GeradorSequencial.ASSINATURA);
+            saida.writeLong(chave);
+            saida.writeLong(limite);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package utilsBank;
+
+import agencia.Agencia;
+import conta.Conta;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.MockedStatic;
+import transacao.Boleto;
+import utilsBank.databank.Data;
+import utilsBank.databank.DataBank;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class VerificadorDiarioTest {
+    private static final ZoneId FUSO = ZoneId.systemDefault();
+
+    private static Clock relogioEm(String dataHora) {
+        return Clock.fixed(LocalDateTime.parse(dataHora).atZone(FUSO).toInstant(), FUSO);
+    }
+
+    private static Data dia(String data) {
+        return DataBank.restaurarDataDoDia(LocalDate.parse(data).toEpochDay());
+    }
+
+    @Test
+    public void verificar_NovoDia_ExecutaFasesEmOrdem() throws Exception {
+        Agencia agencia = mock(Agencia.class);
+        when(agencia.retirarTransacoesVencidas(any())).thenReturn(new ArrayList<>());
+        when(agencia.getClientesDebitoAutomatico(anyInt())).thenReturn(new HashSet<>());
+
+        try (MockedStatic<Agencia> agenciaEstatica = mockStatic(Agencia.class)) {
+            agenciaEstatica.when(Agencia::getInstance).thenReturn(agencia);
+            VerificadorDiario verificador = new VerificadorDiario(relogioEm("2024-03-10T08:00:00"), dia("2024-03-09"));
+
+            assertTrue(verificador.verificar());
+
+            InOrder ordem = inOrder(agencia);
+            ordem.verify(agencia).retirarTransacoesVencidas(any());
+            ordem.verify(agencia).getClientesDebitoAutomatico(anyInt());
+            ordem.verify(agencia).renderContas(1);
+            ordem.verify(agencia).solicitarSnapshot();
+            assertTrue(verificador.getUltimaAtualizacao().equals(dia("2024-03-10")));
+        }
+    }
+
+    @Test
+    public void verificar_MesmoDia_NaoExecutaNovamente() {
+        Agencia agencia = mock(Agencia.class);
+
+        try (MockedStatic<Agencia> agenciaEstatica = mockStatic(Agencia.class)) {
+            agenciaEstatica.when(Agencia::getInstance).thenReturn(agencia);
+            VerificadorDiario verificador = new VerificadorDiario(relogioEm("2024-03-10T23:59:00"), dia("2024-03-10"));
+
+            assertFalse(verificador.verificar());
+            verify(agencia, never()).renderContas(anyInt());
+        }
+    }
+
+    @Test
+    public void verificar_VariosDiasFora_ProcessaCadaDiaERendeDeUmaVez() {
+        Agencia agencia = mock(Agencia.class);
+        when(agencia.retirarTransacoesVencidas(any())).thenReturn(new ArrayList<>());
+        when(agencia.getClientesDebitoAutomatico(anyInt())).thenReturn(new HashSet<>());
+
+        try (MockedStatic<Agencia> agenciaEstatica = mockStatic(Agencia.class)) {
+            agenciaEstatica.when(Agencia::getInstance).thenReturn(agencia);
+            VerificadorDiario verificador = new VerificadorDiario(relogioEm("2024-03-10T08:00:00"), dia("2024-03-06"));
+
+            assertTrue(verificador.verificar());
+
+            // Cada dia termina (agendadas e depois débitos) antes de o seguinte começar
+            InOrder ordem = inOrder(agencia);
+            for (int diaDoMes = 7; diaDoMes <= 10; diaDoMes++) {
+                long diaEpoch = LocalDate.of(2024, 3, diaDoMes).toEpochDay();
+                ordem.verify(agencia).retirarTransacoesVencidas(argThat(data -> data.getDiaEpoch() == diaEpoch));
+                ordem.verify(agencia).getClientesDebitoAutomatico(diaDoMes);
+            }
+            verify(agencia, times(4)).retirarTransacoesVencidas(any());
+            verify(agencia).renderContas(4);
+        }
+    }
+
+    @Test
+    public void diasDesdeUltimaAtualizacao_SemAtualizacaoAnterior_ProcessaSoHoje() {
+        VerificadorDiario verificador = new VerificadorDiario(relogioEm("2024-03-10T08:00:00"), dia("2000-01-01"));
+
+        assertEquals(1, verificador.diasDesdeUltimaAtualizacao(dia("2024-03-10")));
+    }
+
+    @Test
+    public void verificarBoletosVencidos_AvisaEmissor() throws Exception {
+        Agencia agencia = mock(Agencia.class);
+        Boleto boleto = mock(Boleto.class);
+        Conta emissor = mock(Conta.class);
+        when(boleto.getContaDestino()).thenReturn(emissor);
+        when(agencia.buscarBoletosVencimentoEntre(any(), any())).thenReturn(List.of(boleto));
+
+        try (MockedStatic<Agencia> agenciaEstatica = mockStatic(Agencia.class)) {
+            agenciaEstatica.when(Agencia::getInstance).thenReturn(agencia);
+            VerificadorDiario verificador = new VerificadorDiario(relogioEm("2024-03-10T08:00:00"), dia("2024-03-09"));
+
+            assertEquals(1, verificador.verificarBoletosVencidos(dia("2024-03-10")));
+            verify(emissor).addNotificacao(boleto);
+        }
+    }
+
+    @Test
+    public void ateProximaMeiaNoite_CalculaPeloRelogio() {
+        VerificadorDiario verificador = new VerificadorDiario(relogioEm("2024-03-10T22:30:00"), dia("2024-03-10"));
+
+        assertEquals(Duration.ofMinutes(90), verificador.ateProximaMeiaNoite());
+    }
+}
@@ -0,0 +1,179 @@
+package utilsBank.arquivo;
+
+import cliente.Cliente;
+import conta.Conta;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import transacao.Transacao;
+import transacao.TransacaoArquivada;
+import utilsBank.arquivo.exception.EscritaArquivoException;
+import utilsBank.databank.Data;
+import utilsBank.databank.DataBank;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ArquivoTransacoesTest {
+    private static final long DIA = 20_000;
+
+    @TempDir
+    Path diretorio;
+
+    private Path arquivo() {
+        return diretorio.resolve("transacoes.dat");
+    }
+
+    private static Cliente cliente(String idConta) {
+        Conta conta = mock(Conta.class, withSettings().stubOnly());
+        when(conta.getIdConta()).thenReturn(idConta);
+        Cliente cliente = mock(Cliente.class, withSettings().stubOnly());
+        when(cliente.getConta()).thenReturn(conta);
+        return cliente;
+    }
+
+    private static Transacao transacao(int numero, double valor, Cliente origem, Cliente destino, long dia) {
+        return Transacao.restaurar(valor, String.format("%025d", numero), null, destino, origem, DataBank.restaurarDataDoDia(dia));
+    }
+
+    private static Data dia(long dia) {
+        return DataBank.restaurarDataDoDia(dia);
+    }
+
+    @Test
+    public void arquivar_GuardaOValorEmCentavos() throws IOException, EscritaArquivoException {
+        try (ArquivoTransacoes arquivo = new ArquivoTransacoes(arquivo().toString())) {
+            arquivo.arquivar(List.of(transacao(1, 0.1 + 0.2, cliente("1001"), cliente("1002"), DIA)), dia(DIA + 1));
+        }
+
+        try (ArquivoTransacoes arquivo = new ArquivoTransacoes(arquivo().toString())) {
+            TransacaoArquivada lida = arquivo.listar(0, 10).get(0);
+            assertEquals(30, lida.getValorCentavos());
+            assertEquals(0.3, lida.getValor());
+            assertEquals(String.format("%025d", 1), lida.getNossoNumero());
+            assertEquals("1001", lida.getIdContaOrigem());
+            assertEquals("1002", lida.getIdContaDestino());
+            assertEquals(DIA, lida.getDataEmissao().getDiaEpoch());
+            assertFalse(lida.hasDataAgendada());
+        }
+    }
+
+    @Test
+    public void listar_PaginaNaOrdemDeArquivamento() throws IOException, EscritaArquivoException {
+        Cliente origem = cliente("1001");
+        Cliente destino = cliente("1002");
+        List<Transacao> transacoes = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            transacoes.add(transacao(i, i + 1, origem, destino, DIA));
+        }
+        try (ArquivoTransacoes arquivo = new ArquivoTransacoes(arquivo().toString())) {
+            arquivo.arquivar(transacoes, dia(DIA + 1));
+
+            assertEquals(25, arquivo.getQuantidade());
+            List<TransacaoArquivada> pagina = arquivo.listar(20, 10);
+            assertEquals(5, pagina.size());
+            assertEquals(2_100, pagina.get(0).getValorCentavos());
+            assertTrue(arquivo.listar(25, 10).isEmpty());
+        }
+    }
+
+    @Test
+    public void buscarPorConta_DasMaisRecentesParaAsMaisAntigas() throws IOException, EscritaArquivoException {
+        Cliente a = cliente("1001");
+        Cliente b = cliente("1002");
+        Cliente c = cliente("1003");
+        List<Transacao> transacoes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            transacoes.add(i % 2 == 0 ? transacao(i, i + 1, a, b, DIA) : transacao(i, i + 1, c, a, DIA));
+        }
+        transacoes.add(transacao(10, 11, b, c, DIA));
+        try (ArquivoTransacoes arquivo = new ArquivoTransacoes(arquivo().toString())) {
+            arquivo.arquivar(transacoes, dia(DIA + 1));
+
+            List<TransacaoArquivada> primeira = arquivo.buscarPorConta("1001", 0, 4);
+            List<TransacaoArquivada> segunda = arquivo.buscarPorConta("1001", 1, 4);
+            assertEquals(4, primeira.size());
+            assertEquals(1_000, primeira.get(0).getValorCentavos());
+            assertEquals(700, primeira.get(3).getValorCentavos());
+            assertEquals(List.of(600L, 500L, 400L, 300L), segunda.stream().map(TransacaoArquivada::getValorCentavos).toList());
+            assertEquals(2, arquivo.buscarPorConta("1001", 2, 4).size());
+            assertEquals(1, arquivo.buscarPorConta("1002", 0, 10).stream().filter(t -> "1003".equals(t.getIdContaDestino())).count());
+            assertTrue(arquivo.buscarPorConta("9999", 0, 10).isEmpty());
+        }
+    }
+
+    @Test
+    public void arquivar_DiaArquivadoSobreviveAoReabrir() throws IOException, EscritaArquivoException {
+        try (ArquivoTransacoes arquivo = new ArquivoTransacoes(arquivo().toString())) {
+            assertNull(arquivo.getArquivadoAte());
+            arquivo.arquivar(List.of(), dia(DIA));
+            arquivo.arquivar(List.of(), dia(DIA - 5));
+        }
+
+        try (ArquivoTransacoes arquivo = new ArquivoTransacoes(arquivo().toString())) {
+            assertEquals(DIA, arquivo.getArquivadoAte().getDiaEpoch());
+            assertEquals(0, arquivo.getQuantidade());
+        }
+    }
+
+    @Test
+    public void abrir_IgnoraRegistroGravadoDepoisDoCabecalho() throws IOException, EscritaArquivoException {
+        try (ArquivoTransacoes arquivo = new ArquivoTransacoes(arquivo().toString())) {
+            arquivo.arquivar(List.of(transacao(1, 5, cliente("1001"), cliente("1002"), DIA)), dia(DIA + 1));
+        }
+        Files.write(arquivo(), new byte[ArquivoTransacoes.TAMANHO_REGISTRO + 3], StandardOpenOption.APPEND);
+
+        try (ArquivoTransacoes arquivo = new ArquivoTransacoes(arquivo().toString())) {
+            assertEquals(1, arquivo.getQuantidade());
+            arquivo.arquivar(List.of(transacao(2, 7, cliente("1001"), cliente("1002"), DIA + 1)), dia(DIA + 2));
+            assertEquals(700, arquivo.listar(1, 1).get(0).getValorCentavos());
+        }
+    }
+
+    @Test
+    public void abrir_ConverteArquivoDaVersao1() throws IOException {
+        ByteBuffer antigo = ByteBuffer.allocate(16 + 2 * ArquivoTransacoes.TAMANHO_REGISTRO);
+        antigo.putInt(ArquivoTransacoes.ASSINATURA).putShort((short) 1).putShort((short) 0).putLong(2);
+        registroEmReais(antigo, 12.34, "1", "1001", "1002", (int) DIA - 3);
+        registroEmReais(antigo, 0.07, "2", "1002", "1001", (int) DIA);
+        antigo.flip();
+        try (FileChannel canal = FileChannel.open(arquivo(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            canal.write(antigo);
+        }
+
+        try (ArquivoTransacoes arquivo = new ArquivoTransacoes(arquivo().toString())) {
+            assertEquals(2, arquivo.getQuantidade());
+            assertEquals(DIA + 1, arquivo.getArquivadoAte().getDiaEpoch());
+            List<TransacaoArquivada> lidas = arquivo.listar(0, 2);
+            assertEquals(1_234, lidas.get(0).getValorCentavos());
+            assertEquals(7, lidas.get(1).getValorCentavos());
+            assertEquals("1002", lidas.get(1).getIdContaOrigem());
+        }
+        try (ArquivoTransacoes arquivo = new ArquivoTransacoes(arquivo().toString())) {
+            assertEquals(1_234, arquivo.listar(0, 1).get(0).getValorCentavos());
+        }
+        assertFalse(Files.exists(diretorio.resolve("transacoes.dat.tmp")));
+    }
+
+    private static void registroEmReais(ByteBuffer buffer, double valor, String nossoNumero, String origem, String destino, int diaEmissao) {
+        buffer.putDouble(valor);
+        buffer.put(campo(nossoNumero, 32)).put(campo(origem, 16)).put(campo(destino, 16));
+        buffer.putInt(diaEmissao).putInt(-1);
+    }
+
+    private static byte[] campo(String texto, int tamanho) {
+        byte[] campo = new byte[tamanho];
+        byte[] bytes = texto.getBytes(StandardCharsets.ISO_8859_1);
+        System.arraycopy(bytes, 0, campo, 0, bytes.length);
+        return campo;
+    }
+}
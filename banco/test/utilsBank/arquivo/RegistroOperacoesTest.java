@@ -0,0 +1,137 @@
+package utilsBank.arquivo;
+
+import agencia.Agencia;
+import agencia.exceptions.BuscaException;
+import cliente.Cliente;
+import conta.Conta;
+import conta.ContaStandard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import transacao.Transacao;
+import transacao.exceptions.TransacaoException;
+import utilsBank.arquivo.exception.EscritaArquivoException;
+import utilsBank.arquivo.exception.LeituraArquivoException;
+import utilsBank.databank.DataBank;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class RegistroOperacoesTest {
+    @TempDir
+    Path diretorio;
+
+    private Agencia agencia;
+    private Cliente origem;
+    private Cliente destino;
+
+    private Path arquivo() {
+        return diretorio.resolve("registro.dat");
+    }
+
+    private static Cliente cliente(String identificacao, Conta conta) {
+        Cliente cliente = mock(Cliente.class, withSettings().stubOnly());
+        when(cliente.getIdentificacao()).thenReturn(identificacao);
+        when(cliente.getConta()).thenReturn(conta);
+        return cliente;
+    }
+
+    private Transacao transacao(String nossoNumero, double valor) {
+        return Transacao.restaurar(valor, nossoNumero, nossoNumero, destino, origem, DataBank.criarData(DataBank.COM_HORA));
+    }
+
+    @BeforeEach
+    public void setUp() throws BuscaException {
+        origem = cliente("11111111111", new ContaStandard());
+        destino = cliente("22222222222", new ContaStandard());
+        agencia = mock(Agencia.class);
+        when(agencia.buscarCliente(anyString())).thenThrow(new BuscaException("Cliente nao encontrado"));
+        doReturn(origem).when(agencia).buscarCliente("11111111111");
+        doReturn(destino).when(agencia).buscarCliente("22222222222");
+    }
+
+    private void gravar(Transacao... transacoes) throws EscritaArquivoException {
+        RegistroOperacoes registro = new RegistroOperacoes(arquivo().toString());
+        for (Transacao transacao : transacoes) {
+            registro.registrarTransferencia(transacao);
+        }
+        registro.sincronizar();
+    }
+
+    @Test
+    public void reaplicar_AplicaOsRegistrosAcrescentados() throws EscritaArquivoException, LeituraArquivoException {
+        gravar(transacao("1", 30.0), transacao("2", 12.5));
+        RegistroOperacoes registro = new RegistroOperacoes(arquivo().toString());
+        registro.registrarLote(List.of(transacao("3", 7.5)));
+        registro.sincronizar();
+
+        new RegistroOperacoes(arquivo().toString()).reaplicar(agencia);
+
+        assertEquals(-50.0, origem.getConta().getSaldo());
+        assertEquals(50.0, destino.getConta().getSaldo());
+        assertTrue(origem.getConta().possuiTransacaoRealizada("3"));
+    }
+
+    @Test
+    public void reaplicar_OperacaoJaNoSnapshotNaoEAplicadaDeNovo() throws TransacaoException, EscritaArquivoException, LeituraArquivoException {
+        Transacao transacao = transacao("1", 30.0);
+        origem.getConta().reaplicarTransferencia(transacao);
+        gravar(transacao, transacao("2", 5.0));
+
+        new RegistroOperacoes(arquivo().toString()).reaplicar(agencia);
+        new RegistroOperacoes(arquivo().toString()).reaplicar(agencia);
+
+        assertEquals(-35.0, origem.getConta().getSaldo());
+        assertEquals(35.0, destino.getConta().getSaldo());
+    }
+
+    @Test
+    public void reaplicar_DescartaRegistroIncompletoNoFinal() throws IOException, EscritaArquivoException, LeituraArquivoException {
+        gravar(transacao("1", 10.0));
+        long tamanhoValido = Files.size(arquivo());
+        Files.write(arquivo(), new byte[]{0, 0, 0, 40, 1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+
+        new RegistroOperacoes(arquivo().toString()).reaplicar(agencia);
+
+        assertEquals(tamanhoValido, Files.size(arquivo()));
+        assertEquals(10.0, destino.getConta().getSaldo());
+        gravar(transacao("2", 1.0));
+        new RegistroOperacoes(arquivo().toString()).reaplicar(agencia);
+        assertEquals(11.0, destino.getConta().getSaldo());
+    }
+
+    @Test
+    public void reaplicar_ClienteInexistenteNaoESilenciado() throws EscritaArquivoException {
+        Cliente desconhecido = cliente("33333333333", new ContaStandard());
+        Transacao transacao = Transacao.restaurar(10.0, "1", "1", desconhecido, origem, DataBank.criarData(DataBank.COM_HORA));
+        gravar(transacao);
+
+        LeituraArquivoException erro = assertThrows(LeituraArquivoException.class,
+                () -> new RegistroOperacoes(arquivo().toString()).reaplicar(agencia));
+        assertTrue(erro.getMessage().contains("Registro de operacoes 1"));
+        assertEquals(0.0, origem.getConta().getSaldo());
+    }
+
+    @Test
+    public void reaplicar_TipoDesconhecido() throws IOException {
+        byte[] conteudo = {99};
+        CRC32 crc = new CRC32();
+        crc.update(conteudo);
+        ByteBuffer registro = ByteBuffer.allocate(2 * Integer.BYTES + conteudo.length);
+        registro.putInt(conteudo.length).putInt((int) crc.getValue()).put(conteudo);
+        Files.write(arquivo(), registro.array());
+
+        LeituraArquivoException erro = assertThrows(LeituraArquivoException.class,
+                () -> new RegistroOperacoes(arquivo().toString()).reaplicar(agencia));
+        assertTrue(erro.getMessage().contains("99"));
+    }
+}
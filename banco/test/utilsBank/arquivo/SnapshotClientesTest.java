@@ -0,0 +1,107 @@
+package utilsBank.arquivo;
+
+import cliente.Cliente;
+import cliente.ClientePessoa;
+import cliente.Endereco;
+import conta.Conta;
+import conta.ContaStandard;
+import conta.GerenciamentoCartao;
+import conta.Historico;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import transacao.ChavePix;
+import transacao.Transacao;
+import utilsBank.databank.DataBank;
+
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Constructor;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotClientesTest {
+    @TempDir
+    Path diretorio;
+
+    private String arquivo() {
+        return diretorio.resolve("clientes.dat").toString();
+    }
+
+    private static Cliente cliente(int numero) throws ReflectiveOperationException {
+        Constructor<Historico> novoHistorico = Historico.class.getDeclaredConstructor();
+        Constructor<GerenciamentoCartao> novaCarteira = GerenciamentoCartao.class.getDeclaredConstructor();
+        Constructor<ContaStandard> novaConta = ContaStandard.class.getDeclaredConstructor(
+                String.class, Historico.class, List.class, GerenciamentoCartao.class, ChavePix.class);
+        Constructor<ClientePessoa> novoCliente = ClientePessoa.class.getDeclaredConstructor(
+                String.class, String.class, String.class, Integer.class, Endereco.class, String.class, String.class,
+                Conta.class, Double.class);
+        for (Constructor<?> construtor : new Constructor<?>[]{novoHistorico, novaCarteira, novaConta, novoCliente}) {
+            construtor.setAccessible(true);
+        }
+        String cpf = String.format("%011d", numero);
+        Conta conta = novaConta.newInstance(String.valueOf(1000 + numero), novoHistorico.newInstance(), List.of(),
+                novaCarteira.newInstance(), new ChavePix("21" + cpf, null, "cliente" + numero + "@bic.com", cpf));
+        return novoCliente.newInstance("Cliente " + numero, "cliente" + numero + "@bic.com", "21" + cpf, 30,
+                new Endereco("24000000", numero, null), cpf, "senha", conta, 5000.0);
+    }
+
+    @Test
+    public void salvar_CarregarVoltaAosMesmosClientes() throws Exception {
+        Cliente origem = cliente(1);
+        Cliente destino = cliente(2);
+        origem.getConta().aumentarSaldo(100.0);
+        Transacao transacao = Transacao.restaurar(30.0, String.format("%025d", 1), "0001", destino, origem, DataBank.criarData(DataBank.COM_HORA));
+        origem.getConta().reaplicarTransferencia(transacao);
+
+        SnapshotClientes.salvar(arquivo(), List.of(origem, destino));
+        HashSet<Cliente> carregados = SnapshotClientes.carregar(arquivo());
+
+        Map<String, Cliente> porIdentificacao = new HashMap<>();
+        for (Cliente cliente : carregados) {
+            porIdentificacao.put(cliente.getIdentificacao(), cliente);
+        }
+        assertEquals(2, porIdentificacao.size());
+        Cliente origemLida = porIdentificacao.get(origem.getIdentificacao());
+        Cliente destinoLido = porIdentificacao.get(destino.getIdentificacao());
+        assertEquals(70.0, origemLida.getConta().getSaldo());
+        assertEquals(30.0, destinoLido.getConta().getSaldo());
+        assertTrue(origemLida.getConta().possuiTransacaoRealizada(transacao.getNossoNumero()));
+        Transacao lida = destinoLido.getConta().getHistorico().getTransacoes().get(0);
+        assertSame(origemLida, lida.getOrigem());
+        assertSame(destinoLido, lida.getDestino());
+        assertFalse(Files.exists(Path.of(arquivo() + ".tmp")));
+    }
+
+    @Test
+    public void isFormatoBinario_ReconheceOFormatoAntigo() throws Exception {
+        SnapshotClientes.salvar(arquivo(), List.of(cliente(1)));
+        assertTrue(SnapshotClientes.isFormatoBinario(arquivo()));
+
+        try (ObjectOutputStream saida = new ObjectOutputStream(new FileOutputStream(arquivo()))) {
+            saida.writeObject(new HashSet<>(List.of(cliente(1))));
+        }
+        assertFalse(SnapshotClientes.isFormatoBinario(arquivo()));
+
+        Files.write(Path.of(arquivo()), new byte[0]);
+        assertFalse(SnapshotClientes.isFormatoBinario(arquivo()));
+    }
+
+    @Test
+    public void carregar_RejeitaVersaoMaisNova() throws IOException {
+        try (DataOutputStream saida = new DataOutputStream(new FileOutputStream(arquivo()))) {
+            saida.writeInt(SnapshotClientes.ASSINATURA);
+            saida.writeShort(SnapshotClientes.VERSAO + 1);
+        }
+
+        IOException erro = assertThrows(IOException.class, () -> SnapshotClientes.carregar(arquivo()));
+        assertTrue(erro.getMessage().contains("nao suportada"));
+    }
+}